@@ -38,11 +38,15 @@ public abstract class AbstractAppController {
     public AbstractAppController() {
 
         this.appProperties    = new PropertiesLoader().getProperties();
-        this.databaseProvider = new DefaultDatabaseProvider(new DefaultDatabaseConnection(appProperties.getDatabaseProperties()));
+        this.databaseProvider = appProperties.isServeOnly() ? null : new DefaultDatabaseProvider(new DefaultDatabaseConnection(appProperties.getDatabaseProperties()));
         this.alertCache       = new BasicItemCache<>();
     }
 
     public final DatabaseProvider getDatabaseProvider() {
+
+        if (null == databaseProvider) {
+            throw new IllegalStateException("No database is available in serve-only mode");
+        }
         return databaseProvider;
     }
 
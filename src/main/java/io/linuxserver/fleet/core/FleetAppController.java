@@ -22,19 +22,47 @@ import io.linuxserver.fleet.core.config.WebConfiguration;
 import io.linuxserver.fleet.v2.client.docker.DockerApiClient;
 import io.linuxserver.fleet.v2.client.docker.dockerhub.DockerHubApiClient;
 import io.linuxserver.fleet.v2.client.docker.queue.DockerApiDelegate;
+import io.linuxserver.fleet.v2.client.docker.queue.RetryPolicy;
+import io.linuxserver.fleet.v2.client.rest.cache.HttpResponseCache;
+import io.linuxserver.fleet.v2.client.rest.governor.CircuitBreakingRequestGovernor;
+import io.linuxserver.fleet.v2.client.rest.governor.RequestGovernor;
+import io.linuxserver.fleet.v2.client.rest.governor.TokenBucketRequestGovernor;
+import io.linuxserver.fleet.v2.db.DefaultChangeLogDAO;
+import io.linuxserver.fleet.v2.db.DefaultClusterDAO;
 import io.linuxserver.fleet.v2.db.DefaultImageDAO;
 import io.linuxserver.fleet.v2.db.DefaultScheduleDAO;
+import io.linuxserver.fleet.v2.db.DefaultSyncCadenceDAO;
+import io.linuxserver.fleet.v2.db.DefaultSyncQueueDAO;
 import io.linuxserver.fleet.v2.db.DefaultUserDAO;
+import io.linuxserver.fleet.v2.db.SnapshotImageDAO;
 import io.linuxserver.fleet.v2.file.FileManager;
+import io.linuxserver.fleet.v2.file.snapshot.CatalogueSnapshot;
+import io.linuxserver.fleet.v2.file.snapshot.CatalogueSnapshotStore;
 import io.linuxserver.fleet.v2.key.ImageKey;
 import io.linuxserver.fleet.v2.service.ImageService;
 import io.linuxserver.fleet.v2.service.ScheduleService;
 import io.linuxserver.fleet.v2.service.SynchronisationService;
 import io.linuxserver.fleet.v2.service.UserService;
+import io.linuxserver.fleet.v2.service.cluster.ChangeLogService;
+import io.linuxserver.fleet.v2.service.cluster.ClusterMembership;
+import io.linuxserver.fleet.v2.service.cluster.LeasedClusterMembership;
+import io.linuxserver.fleet.v2.service.sync.DatabaseSyncQueueJournal;
+import io.linuxserver.fleet.v2.service.sync.SyncHandle;
+import io.linuxserver.fleet.v2.service.sync.SyncQueueJournal;
+import io.linuxserver.fleet.v2.thread.CatalogueSnapshotWatcherThread;
+import io.linuxserver.fleet.v2.thread.ChangeLogPollThread;
+import io.linuxserver.fleet.v2.thread.ClusterHeartbeatThread;
+import io.linuxserver.fleet.v2.thread.TaskPriority;
+import io.linuxserver.fleet.v2.thread.WarmStartSnapshotThread;
 import io.linuxserver.fleet.v2.types.Image;
 import io.linuxserver.fleet.v2.types.Repository;
 import io.linuxserver.fleet.v2.types.internal.RepositoryOutlineRequest;
 import io.linuxserver.fleet.v2.web.WebRouteController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * <p>
@@ -44,21 +72,66 @@ import io.linuxserver.fleet.v2.web.WebRouteController;
  */
 public class FleetAppController extends AbstractAppController implements ServiceProvider {
 
-    private final DockerApiDelegate      dockerApiDelegate;
-    private final ImageService           imageService;
-    private final ScheduleService        scheduleService;
-    private final SynchronisationService syncService;
-    private final UserService            userService;
-    private final FileManager            fileManager;
+    private static final Logger LOGGER = LoggerFactory.getLogger(FleetAppController.class);
+
+    /**
+     * Backoff between attempts to load the cache from the database after a warm start.
+     */
+    private static final long WarmStartRetryBaseDelayMillis = 5_000;
+    private static final long WarmStartRetryMaxDelayMillis  = 300_000;
+
+    private final CircuitBreakingRequestGovernor dockerHubGovernor;
+    private final HttpResponseCache              dockerHubResponseCache;
+    private final DockerApiDelegate              dockerApiDelegate;
+    private final ImageService                   imageService;
+    private final ScheduleService                scheduleService;
+    private final SynchronisationService         syncService;
+    private final UserService                    userService;
+    private final ClusterMembership              clusterMembership;
+    private final ChangeLogService               changeLogService;
+    private final CatalogueSnapshotStore         catalogueSnapshotStore;
+    private final SnapshotImageDAO               snapshotImageDAO;
+    private final CatalogueSnapshotStore         warmStartStore;
+    private final FileManager                    fileManager;
 
     public FleetAppController() {
 
-        fileManager       = new FileManager(this);
-        imageService      = new ImageService(this, new DefaultImageDAO(getDatabaseProvider()));
-        scheduleService   = new ScheduleService(this, new DefaultScheduleDAO(getDatabaseProvider()));
-        dockerApiDelegate = new DockerApiDelegate(this);
-        syncService       = new SynchronisationService(this);
-        userService       = new UserService(this, new DefaultUserDAO(getDatabaseProvider()));
+        fileManager            = new FileManager(this);
+        catalogueSnapshotStore = makeCatalogueSnapshotStore();
+
+        if (getAppProperties().isServeOnly()) {
+
+            // Only the public pages are served, so nothing which needs the database or Docker Hub is created
+            snapshotImageDAO  = new SnapshotImageDAO(catalogueSnapshotStore);
+            snapshotImageDAO.reloadIfNewer();
+
+            warmStartStore    = null;
+            imageService      = new ImageService(this, snapshotImageDAO);
+            clusterMembership = ClusterMembership.Standalone;
+            changeLogService  = null;
+            scheduleService   = null;
+            dockerHubGovernor = null;
+            dockerHubResponseCache = null;
+            dockerApiDelegate = null;
+            syncService       = null;
+            userService       = null;
+
+        } else {
+
+            snapshotImageDAO  = null;
+            warmStartStore    = makeWarmStartStore();
+            changeLogService  = new ChangeLogService(this, new DefaultChangeLogDAO(getDatabaseProvider()), getAppProperties().getClusterNodeId());
+            imageService      = new ImageService(this,
+                                                 new DefaultImageDAO(getDatabaseProvider(), getAppProperties().getClusterNodeId()),
+                                                 readWarmStartSnapshot());
+            clusterMembership = makeClusterMembership();
+            scheduleService   = new ScheduleService(this, new DefaultScheduleDAO(getDatabaseProvider()));
+            dockerHubGovernor = makeDockerHubGovernor();
+            dockerHubResponseCache = makeDockerHubResponseCache();
+            dockerApiDelegate = new DockerApiDelegate(this);
+            syncService       = new SynchronisationService(this, makeSyncQueueJournal(), new DefaultSyncCadenceDAO(getDatabaseProvider()));
+            userService       = new UserService(this, new DefaultUserDAO(getDatabaseProvider()));
+        }
     }
 
     private static FleetAppController instance;
@@ -82,7 +155,81 @@ public class FleetAppController extends AbstractAppController implements Service
     protected final void run() {
         super.run();
         configureWeb();
+
+        if (isServeOnly()) {
+
+            new CatalogueSnapshotWatcherThread(this, snapshotImageDAO, catalogueSnapshotStore.getDirectory()).start();
+            return;
+        }
+
+        if (imageService.isCacheReconciled()) {
+            startSynchronisation();
+
+        } else {
+
+            // Pages are already being served from the warm-start snapshot. Nothing may sync against it until
+            // the cache has caught up with the database, as it may be missing changes made since it was written.
+            new Thread(this::reconcileWarmStartedCache, "WarmStartReconcile").start();
+        }
+    }
+
+    /**
+     * <p>
+     * Loads the cache from the database behind a warm start, retrying with backoff until it succeeds. The snapshot
+     * carries on being served in the meantime, but synchronisation is only started once the load has gone through.
+     * </p>
+     */
+    private void reconcileWarmStartedCache() {
+
+        final RetryPolicy retryPolicy    = new RetryPolicy(Integer.MAX_VALUE, WarmStartRetryBaseDelayMillis, WarmStartRetryMaxDelayMillis);
+        int               failedAttempts = 0;
+
+        while (true) {
+
+            try {
+
+                imageService.reloadCache();
+                LOGGER.info("Warm-started cache is now in line with the database");
+                break;
+
+            } catch (RuntimeException e) {
+
+                final long delayMillis = retryPolicy.getDelayMillis(++failedAttempts);
+                LOGGER.error("Unable to load the cache from the database (attempt {}). Retrying in {}ms.", failedAttempts, delayMillis, e);
+
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException ie) {
+
+                    LOGGER.warn("Interrupted while waiting to retry loading the cache. Synchronisation has not been started.");
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        startSynchronisation();
+    }
+
+    private void startSynchronisation() {
+
+        clusterMembership.refresh();
+        syncService.restoreSyncCadences();
+        syncService.restoreOutstandingRequests();
         scheduleService.initialiseSchedules();
+
+        if (clusterMembership.isClustered()) {
+            new ClusterHeartbeatThread(this, clusterMembership, getAppProperties().getClusterHeartbeatInterval()).start();
+            new ChangeLogPollThread(this, changeLogService, getAppProperties().getClusterChangePollInterval()).start();
+        }
+
+        if (null != warmStartStore) {
+
+            final WarmStartSnapshotThread snapshotThread = new WarmStartSnapshotThread(this, warmStartStore);
+            snapshotThread.start();
+
+            Runtime.getRuntime().addShutdownHook(new Thread(snapshotThread::writeIfChanged));
+        }
     }
 
     public final WebConfiguration getWebConfiguration() {
@@ -98,15 +245,129 @@ public class FleetAppController extends AbstractAppController implements Service
     }
 
     public final DockerApiClient getDockerClient() {
-        return new DockerHubApiClient();
+        return new DockerHubApiClient(getAppProperties().getSyncWorkerCount(), dockerHubGovernor, dockerHubResponseCache);
+    }
+
+    public final RequestGovernor getDockerHubGovernor() {
+        return dockerHubGovernor;
+    }
+
+    public final CircuitBreakingRequestGovernor getDockerHubCircuitBreaker() {
+        return dockerHubGovernor;
+    }
+
+    private CircuitBreakingRequestGovernor makeDockerHubGovernor() {
+
+        final RequestGovernor rateLimiter = new TokenBucketRequestGovernor(getAppProperties().getDockerHubRequestsPerMinute(),
+                                                                           getAppProperties().getDockerHubRequestBurst());
+
+        return new CircuitBreakingRequestGovernor(rateLimiter,
+                                                  getAppProperties().getCircuitBreakerFailureThreshold(),
+                                                  getAppProperties().getCircuitBreakerOpenMillis());
+    }
+
+    public final boolean isServeOnly() {
+        return getAppProperties().isServeOnly();
+    }
+
+    private CatalogueSnapshotStore makeCatalogueSnapshotStore() {
+
+        final Path directory = getAppProperties().getCatalogueSnapshotDirectory();
+        if (null == directory) {
+
+            if (getAppProperties().isServeOnly()) {
+                throw new IllegalStateException("fleet.snapshot.directory must be set in serve-only mode");
+            }
+            return null;
+        }
+
+        return new CatalogueSnapshotStore(directory);
+    }
+
+    private CatalogueSnapshotStore makeWarmStartStore() {
+
+        final Path directory = getAppProperties().getWarmStartDirectory();
+        return null == directory ? null : new CatalogueSnapshotStore(directory);
+    }
+
+    /**
+     * @return
+     *      The last snapshot taken of the image cache, or null if there is none or it could not be read. In that
+     *      case the cache is loaded from the database before anything is served.
+     */
+    private CatalogueSnapshot readWarmStartSnapshot() {
+
+        if (null == warmStartStore) {
+            return null;
+        }
+
+        try {
+            return warmStartStore.readLatest();
+        } catch (IOException | RuntimeException e) {
+
+            LOGGER.warn("Unable to read warm-start snapshot from " + warmStartStore.getDirectory() + ". Loading from the database instead.", e);
+            return null;
+        }
     }
 
-    public final boolean synchroniseImage(final ImageKey imageKey) {
-        return syncService.synchroniseImage(imageKey);
+    private ClusterMembership makeClusterMembership() {
+
+        if (!getAppProperties().isClusterEnabled()) {
+            return ClusterMembership.Standalone;
+        }
+
+        final ClusterMembership membership = new LeasedClusterMembership(this,
+                                                                         new DefaultClusterDAO(getDatabaseProvider()),
+                                                                         getAppProperties().getClusterNodeId(),
+                                                                         getAppProperties().getClusterLeaseDuration());
+        Runtime.getRuntime().addShutdownHook(new Thread(membership::leave));
+
+        return membership;
+    }
+
+    private SyncQueueJournal makeSyncQueueJournal() {
+
+        if (!getAppProperties().isSyncQueueDurable()) {
+            return SyncQueueJournal.None;
+        }
+
+        final SyncQueueJournal journal = new DatabaseSyncQueueJournal(this, new DefaultSyncQueueDAO(getDatabaseProvider()));
+        Runtime.getRuntime().addShutdownHook(new Thread(journal::checkpoint));
+
+        return journal;
+    }
+
+    private HttpResponseCache makeDockerHubResponseCache() {
+
+        final long maxBytes = getAppProperties().getResponseCacheSizeBytes();
+        if (maxBytes <= 0) {
+            return null;
+        }
+
+        final HttpResponseCache responseCache = new HttpResponseCache(maxBytes);
+
+        final Path cacheFile = getAppProperties().getResponseCacheFile();
+        if (null != cacheFile) {
+
+            responseCache.readFrom(cacheFile);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> responseCache.writeTo(cacheFile)));
+        }
+
+        return responseCache;
+    }
+
+    /**
+     * <p>
+     * Requests a full synchronisation of an image, including its tags, regardless of whether
+     * or not it appears to have changed upstream. The request jumps ahead of any scheduled work.
+     * </p>
+     */
+    public final SyncHandle synchroniseImage(final ImageKey imageKey) {
+        return syncService.synchroniseImage(imageKey, true, TaskPriority.Interactive);
     }
 
     public final void synchroniseRepository(final Repository repository) {
-        syncService.synchroniseCachedRepository(repository);
+        syncService.synchroniseCachedRepository(repository, true);
     }
 
     public final DockerApiDelegate getConfiguredDockerDelegate() {
@@ -133,7 +394,7 @@ public class FleetAppController extends AbstractAppController implements Service
             final Repository repositoryOutline = getImageService()
                     .createRepositoryOutline(new RepositoryOutlineRequest(request.getRepositoryName()));
 
-            getSynchronisationService().synchroniseUpstreamRepository(repositoryOutline);
+            getSynchronisationService().reconcileRepository(repositoryOutline);
             return repositoryOutline;
 
         }
@@ -146,6 +407,22 @@ public class FleetAppController extends AbstractAppController implements Service
         return syncService;
     }
 
+    public final ClusterMembership getClusterMembership() {
+        return clusterMembership;
+    }
+
+    public final ChangeLogService getChangeLogService() {
+        return changeLogService;
+    }
+
+    /**
+     * @return
+     *      The directory catalogue snapshots are exported to, or null if none has been configured.
+     */
+    public final CatalogueSnapshotStore getCatalogueSnapshotStore() {
+        return catalogueSnapshotStore;
+    }
+
     @Override
     public final UserService getUserService() {
         return userService;
@@ -163,6 +440,6 @@ public class FleetAppController extends AbstractAppController implements Service
     public final void trackBranch(final ImageKey imageKey, final String branchName) {
 
         getImageService().trackBranchOnImage(imageKey, branchName);
-        synchroniseImage(imageKey);
+        syncService.synchroniseImage(imageKey, true, TaskPriority.TrackedBranchChange);
     }
 }
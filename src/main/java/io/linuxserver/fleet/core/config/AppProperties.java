@@ -19,12 +19,30 @@ package io.linuxserver.fleet.core.config;
 
 import io.linuxserver.fleet.core.FleetRuntime;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Properties;
 
 public class AppProperties {
 
+    private static final int DefaultSyncWorkerCount       = 4;
+    private static final int DefaultRequestsPerMinute     = 180;
+    private static final int DefaultRequestBurst          = 10;
+    private static final int DefaultResponseCacheSizeMb   = 32;
+    private static final int DefaultSyncRetryAttempts     = 5;
+    private static final int DefaultSyncRetryDelaySeconds = 30;
+    private static final int DefaultCircuitFailures       = 5;
+    private static final int DefaultCircuitOpenSeconds    = 60;
+    private static final int DefaultPipelineDiffWorkers   = 1;
+    private static final int DefaultPipelineBatchSize     = 20;
+    private static final int DefaultMinSyncMinutes        = 10;
+    private static final int DefaultMaxSyncMinutes        = 12 * 60;
+    private static final int DefaultClusterLeaseSeconds   = 60;
+    private static final int DefaultChangePollSeconds     = 5;
+
     private Properties properties;
 
     public AppProperties(final Properties properties) {
@@ -77,6 +95,252 @@ public class AppProperties {
         return Integer.parseInt(getStringProperty("fleet.app.port"));
     }
 
+    /**
+     * <p>
+     * If true, this node only serves the public pages and API from catalogue snapshots. It makes no use of
+     * the database or Docker Hub.
+     * </p>
+     */
+    public final boolean isServeOnly() {
+        return "true".equalsIgnoreCase(getStringProperty("fleet.app.serveOnly"));
+    }
+
+    /**
+     * <p>
+     * Where catalogue snapshots are written for serve-only nodes, and where those nodes read them from.
+     * Null if no directory has been configured.
+     * </p>
+     */
+    public final Path getCatalogueSnapshotDirectory() {
+
+        final String directory = getStringProperty("fleet.snapshot.directory");
+        return null == directory ? null : Paths.get(directory).toAbsolutePath();
+    }
+
+    /**
+     * <p>
+     * The number of consumers which concurrently process the image synchronisation queue.
+     * </p>
+     */
+    public final int getSyncWorkerCount() {
+
+        final String workerCount = getStringProperty("fleet.sync.workers");
+        return null == workerCount ? DefaultSyncWorkerCount : Math.max(1, Integer.parseInt(workerCount));
+    }
+
+    /**
+     * <p>
+     * The rate at which Fleet starts out calling Docker Hub. Once Docker Hub reports its own limits this is
+     * adjusted automatically, so it only needs to be a sensible starting point.
+     * </p>
+     */
+    public final int getDockerHubRequestsPerMinute() {
+
+        final String requestsPerMinute = getStringProperty("fleet.sync.requestsPerMinute");
+        return null == requestsPerMinute ? DefaultRequestsPerMinute : Math.max(1, Integer.parseInt(requestsPerMinute));
+    }
+
+    /**
+     * <p>
+     * The number of requests which may be made back-to-back before the rate limit applies.
+     * </p>
+     */
+    public final int getDockerHubRequestBurst() {
+
+        final String burst = getStringProperty("fleet.sync.requestBurst");
+        return null == burst ? DefaultRequestBurst : Math.max(1, Integer.parseInt(burst));
+    }
+
+    /**
+     * <p>
+     * The maximum amount of memory given over to cached Docker Hub responses. Zero disables the cache.
+     * </p>
+     */
+    public final long getResponseCacheSizeBytes() {
+
+        final String sizeMb = getStringProperty("fleet.sync.responseCache.sizeMb");
+        return (null == sizeMb ? DefaultResponseCacheSizeMb : Math.max(0, Integer.parseInt(sizeMb))) * 1024L * 1024L;
+    }
+
+    /**
+     * <p>
+     * Where the response cache is kept between restarts, if persistence has been enabled.
+     * </p>
+     */
+    public final Path getResponseCacheFile() {
+
+        if (null == FleetRuntime.CONFIG_BASE || !"true".equalsIgnoreCase(getStringProperty("fleet.sync.responseCache.persist"))) {
+            return null;
+        }
+        return Paths.get(FleetRuntime.CONFIG_BASE, "cache", "dockerhub-responses.bin").toAbsolutePath();
+    }
+
+    /**
+     * <p>
+     * Where the image cache is snapshotted for a warm start, if enabled. Pages are served from the last snapshot
+     * straight away on boot, rather than after the whole catalogue has been read from the database.
+     * </p>
+     */
+    public final Path getWarmStartDirectory() {
+
+        if (null == FleetRuntime.CONFIG_BASE || !"true".equalsIgnoreCase(getStringProperty("fleet.cache.warmStart"))) {
+            return null;
+        }
+        return Paths.get(FleetRuntime.CONFIG_BASE, "cache", "catalogue").toAbsolutePath();
+    }
+
+    /**
+     * <p>
+     * If true, outstanding sync requests are kept in the database so they survive a restart.
+     * </p>
+     */
+    public final boolean isSyncQueueDurable() {
+        return "true".equalsIgnoreCase(getStringProperty("fleet.sync.queue.durable"));
+    }
+
+    /**
+     * <p>
+     * The number of times a failed image synchronisation is attempted before it is given up on.
+     * </p>
+     */
+    public final int getSyncRetryAttempts() {
+
+        final String attempts = getStringProperty("fleet.sync.retry.attempts");
+        return null == attempts ? DefaultSyncRetryAttempts : Math.max(1, Integer.parseInt(attempts));
+    }
+
+    /**
+     * <p>
+     * How long to wait before the first retry of a failed image synchronisation. Doubles with each further attempt.
+     * </p>
+     */
+    public final long getSyncRetryDelayMillis() {
+
+        final String delaySeconds = getStringProperty("fleet.sync.retry.delaySeconds");
+        return (null == delaySeconds ? DefaultSyncRetryDelaySeconds : Math.max(1, Integer.parseInt(delaySeconds))) * 1000L;
+    }
+
+    /**
+     * <p>
+     * The number of consecutive failed calls to Docker Hub after which all further calls are refused for a while.
+     * </p>
+     */
+    public final int getCircuitBreakerFailureThreshold() {
+
+        final String failures = getStringProperty("fleet.sync.circuitBreaker.failures");
+        return null == failures ? DefaultCircuitFailures : Math.max(1, Integer.parseInt(failures));
+    }
+
+    public final long getCircuitBreakerOpenMillis() {
+
+        final String openSeconds = getStringProperty("fleet.sync.circuitBreaker.openSeconds");
+        return (null == openSeconds ? DefaultCircuitOpenSeconds : Math.max(1, Integer.parseInt(openSeconds))) * 1000L;
+    }
+
+    /**
+     * <p>
+     * The number of threads which match synchronised tags against each image's branches before they are stored.
+     * </p>
+     */
+    public final int getSyncPipelineDiffWorkers() {
+
+        final String diffWorkers = getStringProperty("fleet.sync.pipeline.diffWorkers");
+        return null == diffWorkers ? DefaultPipelineDiffWorkers : Math.max(1, Integer.parseInt(diffWorkers));
+    }
+
+    /**
+     * <p>
+     * The most updated images written to the database in a single transaction.
+     * </p>
+     */
+    public final int getSyncPipelineBatchSize() {
+
+        final String batchSize = getStringProperty("fleet.sync.pipeline.batchSize");
+        return null == batchSize ? DefaultPipelineBatchSize : Math.max(1, Integer.parseInt(batchSize));
+    }
+
+    /**
+     * <p>
+     * The shortest time between upstream checks of any one image, however often it is pushed to.
+     * </p>
+     */
+    public final Duration getMinSyncInterval() {
+
+        final String minMinutes = getStringProperty("fleet.sync.cadence.minMinutes");
+        return Duration.ofMinutes(null == minMinutes ? DefaultMinSyncMinutes : Math.max(1, Integer.parseInt(minMinutes)));
+    }
+
+    /**
+     * <p>
+     * The longest time between upstream checks of any one image, however quiet it has been.
+     * </p>
+     */
+    public final Duration getMaxSyncInterval() {
+
+        final String maxMinutes = getStringProperty("fleet.sync.cadence.maxMinutes");
+        final long   minMinutes = getMinSyncInterval().toMinutes();
+        return Duration.ofMinutes(null == maxMinutes ? Math.max(minMinutes, DefaultMaxSyncMinutes) : Math.max(minMinutes, Integer.parseInt(maxMinutes)));
+    }
+
+    /**
+     * <p>
+     * If true, this node shares the synchronisation of repositories with any other nodes pointed at the same database.
+     * </p>
+     */
+    public final boolean isClusterEnabled() {
+        return "true".equalsIgnoreCase(getStringProperty("fleet.cluster.enabled"));
+    }
+
+    /**
+     * <p>
+     * A name for this node which is unique within the cluster. Defaults to the host name.
+     * </p>
+     */
+    public final String getClusterNodeId() {
+
+        final String nodeId = getStringProperty("fleet.cluster.nodeId");
+        if (null != nodeId) {
+            return nodeId;
+        }
+
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "fleet-" + ProcessHandle.current().pid();
+        }
+    }
+
+    /**
+     * <p>
+     * How long a node keeps hold of its repositories without being heard from, after which other nodes may take them.
+     * </p>
+     */
+    public final Duration getClusterLeaseDuration() {
+
+        final String leaseSeconds = getStringProperty("fleet.cluster.leaseSeconds");
+        return Duration.ofSeconds(null == leaseSeconds ? DefaultClusterLeaseSeconds : Math.max(15, Integer.parseInt(leaseSeconds)));
+    }
+
+    /**
+     * <p>
+     * How often a node renews its leases, leaving room for a couple of missed heartbeats before they run out.
+     * </p>
+     */
+    public final Duration getClusterHeartbeatInterval() {
+        return getClusterLeaseDuration().dividedBy(3);
+    }
+
+    /**
+     * <p>
+     * How often a node checks the change log for writes made by other nodes, and applies them to its cache.
+     * </p>
+     */
+    public final Duration getClusterChangePollInterval() {
+
+        final String pollSeconds = getStringProperty("fleet.cluster.changePollSeconds");
+        return Duration.ofSeconds(null == pollSeconds ? DefaultChangePollSeconds : Math.max(1, Integer.parseInt(pollSeconds)));
+    }
+
     /**
      * <p>
      * Obtains the property value from three separate sources: first from the config file. If not present, it will look
@@ -20,6 +20,7 @@ package io.linuxserver.fleet.dockerhub.util;
 import io.linuxserver.fleet.v2.types.docker.DockerTag;
 import io.linuxserver.fleet.v2.types.docker.DockerTagManifestDigest;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +44,32 @@ public class DockerTagFinder {
         return tags.isEmpty() ? null : tags.get(0);
     }
 
+    /**
+     * <p>
+     * Determines whether or not the given tags are enough to resolve a branch to its versioned tag, i.e. both the
+     * tag named after the branch and a separate tag with identical manifests are present. If they are, looking at
+     * any further tags would not change the result of {@link #findVersionedTagMatchingBranch(List, String)}.
+     * </p>
+     */
+    public static boolean isBranchResolved(final List<DockerTag> tags, final String namedBranch) {
+
+        final Optional<DockerTag> namedTagForBranch = tags.stream().filter(tag -> namedBranch.equals(tag.getName())).findFirst();
+
+        return namedTagForBranch.isPresent() && tags.stream()
+            .anyMatch(tag -> !tag.equals(namedTagForBranch.get()) && allManifestsMatch(namedTagForBranch.get(), tag));
+    }
+
+    public static boolean areAllBranchesResolved(final List<DockerTag> tags, final Collection<String> namedBranches) {
+
+        for (String namedBranch : namedBranches) {
+
+            if (!isBranchResolved(tags, namedBranch)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static boolean allManifestsMatch(final DockerTag namedTag, final DockerTag toCheck) {
 
         final List<DockerTagManifestDigest> namedDigests   = namedTag.getDigests();
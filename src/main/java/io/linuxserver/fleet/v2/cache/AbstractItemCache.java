@@ -23,24 +23,37 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * Copy-on-write cache. Readers always work against the current {@link ItemCacheSnapshot},
+ * which is immutable, so they never need to lock and never see a partially applied write.
+ * Writers are serialised and publish a new snapshot generation once their change is complete.
+ * Listeners are notified while the write is still held, so they observe changes in the same
+ * order as the snapshots were published.
+ * </p>
+ */
 public abstract class AbstractItemCache<KEY extends Key, ITEM extends HasKey<KEY>> implements ItemCache<KEY, ITEM> {
 
     private final Logger LOGGER = LoggerFactory.getLogger(getClass());
 
-    private final List<ItemCacheListener<ITEM>> listeners;
-    private final Map<KEY, ITEM>                items;
+    private final List<ItemCacheListener<ITEM>>                 listeners;
+    private final AtomicReference<ItemCacheSnapshot<KEY, ITEM>> snapshot;
+    private final Object                                        writeLock;
 
     public AbstractItemCache() {
 
-        listeners = new ArrayList<>();
-        items     = new HashMap<>();
+        listeners = new CopyOnWriteArrayList<>();
+        snapshot  = new AtomicReference<>(ItemCacheSnapshot.empty());
+        writeLock = new Object();
     }
 
     public final void clear() {
 
         LOGGER.info("Emptying cache");
-        items.clear();
+        replaceAllItems(Collections.emptyList());
     }
 
     public final void registerCacheListener(final ItemCacheListener<ITEM> listener) {
@@ -49,56 +62,161 @@ public abstract class AbstractItemCache<KEY extends Key, ITEM extends HasKey<KEY
         listeners.add(listener);
     }
 
+    public final void unregisterCacheListener(final ItemCacheListener<ITEM> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public final ItemCacheSnapshot<KEY, ITEM> getSnapshot() {
+        return snapshot.get();
+    }
+
     @Override
     public final void addItem(final ITEM item) {
 
-        final ITEM original = items.get(item.getKey());
-        final ITEM cached   = items.put(item.getKey(), item);
+        synchronized (writeLock) {
 
-        LOGGER.info("Item {} cached", item);
-        if (null == original) {
-            listeners.forEach(l -> l.onItemAdded(cached));
-        } else {
-            listeners.forEach(l -> l.onItemUpdated(original, cached));
+            final ItemCacheSnapshot<KEY, ITEM> current = snapshot.get();
+            final Map<KEY, ITEM>               next    = current.copyItems();
+
+            final ITEM original = next.put(item.getKey(), item);
+            publish(current, next);
+
+            LOGGER.info("Item {} cached", item);
+            notifyAddedOrUpdated(original, item);
         }
     }
 
     @Override
     public boolean isEmpty() {
-        return items.isEmpty();
+        return snapshot.get().isEmpty();
     }
 
     @Override
     public final ITEM findItem(final KEY key) {
-        return items.get(key);
+        return snapshot.get().findItem(key);
     }
 
     @Override
     public final void removeItem(final KEY key) {
 
-        final ITEM removed = items.remove(key);
+        synchronized (writeLock) {
+
+            final ItemCacheSnapshot<KEY, ITEM> current = snapshot.get();
+            if (!current.isItemCached(key)) {
+                return;
+            }
+
+            final Map<KEY, ITEM> next    = current.copyItems();
+            final ITEM           removed = next.remove(key);
+            publish(current, next);
 
-        LOGGER.info("Item {} removed from cache", removed);
-        listeners.forEach(l -> l.onItemRemoved(removed));
+            LOGGER.info("Item {} removed from cache", removed);
+            listeners.forEach(l -> l.onItemRemoved(removed));
+        }
     }
 
     @Override
     public final boolean isItemCached(final KEY key) {
-        return items.containsKey(key);
+        return snapshot.get().isItemCached(key);
     }
 
     @Override
     public Collection<ITEM> getAllItems() {
-        return items.values();
+        return snapshot.get().getAllItems();
+    }
+
+    @Override
+    public final void addAllItems(final Collection<ITEM> allItems) {
+
+        synchronized (writeLock) {
+
+            final ItemCacheSnapshot<KEY, ITEM> current   = snapshot.get();
+            final Map<KEY, ITEM>               next      = current.copyItems();
+            final Map<KEY, ITEM>               originals = new HashMap<>();
+
+            for (ITEM item : allItems) {
+
+                final ITEM original = next.put(item.getKey(), item);
+                if (null != original && !originals.containsKey(item.getKey())) {
+                    originals.put(item.getKey(), original);
+                }
+            }
+            publish(current, next);
+
+            LOGGER.info("Cached {} items", allItems.size());
+            allItems.forEach(item -> notifyAddedOrUpdated(originals.get(item.getKey()), item));
+        }
     }
 
+    /**
+     * <p>
+     * Builds a brand new generation of the cache from the given items and swaps it in a single
+     * step, so readers either see the old contents in full or the new contents in full. Items which
+     * were cached but are not part of the new generation are dropped.
+     * </p>
+     */
     @Override
-    public final void addAllItems(Collection<ITEM> allItems) {
-        allItems.forEach(this::addItem);
+    public final void replaceAllItems(final Collection<ITEM> allItems) {
+
+        final Map<KEY, ITEM> generation = new HashMap<>();
+        allItems.forEach(item -> generation.put(item.getKey(), item));
+
+        synchronized (writeLock) {
+
+            final ItemCacheSnapshot<KEY, ITEM> previous = snapshot.get();
+            publish(previous, generation);
+
+            LOGGER.info("Replaced cache contents. {} items now cached (previously {})", generation.size(), previous.size());
+            notifyReplaced(previous, generation);
+        }
     }
 
     @Override
     public int size() {
-        return items.size();
+        return snapshot.get().size();
+    }
+
+    /**
+     * Runs the given action while holding the same lock as writes to this cache, so that it cannot interleave
+     * with them or with the listener notifications they make.
+     */
+    protected final void withWriteLock(final Runnable action) {
+
+        synchronized (writeLock) {
+            action.run();
+        }
+    }
+
+    private void publish(final ItemCacheSnapshot<KEY, ITEM> current, final Map<KEY, ITEM> next) {
+        snapshot.set(new ItemCacheSnapshot<>(current.getVersion() + 1, next));
+    }
+
+    private void notifyAddedOrUpdated(final ITEM original, final ITEM item) {
+
+        if (null == original) {
+            listeners.forEach(l -> l.onItemAdded(item));
+        } else {
+            listeners.forEach(l -> l.onItemUpdated(original, item));
+        }
+    }
+
+    private void notifyReplaced(final ItemCacheSnapshot<KEY, ITEM> previous, final Map<KEY, ITEM> generation) {
+
+        if (listeners.isEmpty()) {
+            return;
+        }
+
+        for (ITEM oldItem : previous.getAllItems()) {
+
+            if (!generation.containsKey(oldItem.getKey())) {
+                listeners.forEach(l -> l.onItemRemoved(oldItem));
+            }
+        }
+
+        for (ITEM newItem : generation.values()) {
+
+            notifyAddedOrUpdated(previous.findItem(newItem.getKey()), newItem);
+        }
     }
 }
@@ -38,6 +38,10 @@ public interface ItemCache<KEY extends Key, ITEM extends HasKey<KEY>> {
 
     void addAllItems(Collection<ITEM> items);
 
+    void replaceAllItems(Collection<ITEM> items);
+
+    ItemCacheSnapshot<KEY, ITEM> getSnapshot();
+
     int size();
 
     interface ItemCacheListener<ITEM> {
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.cache;
+
+import io.linuxserver.fleet.v2.key.HasKey;
+import io.linuxserver.fleet.v2.key.Key;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * An immutable, versioned view of the contents of an {@link ItemCache}. Every write to
+ * the cache produces a new snapshot with a higher version, so readers holding onto an
+ * older snapshot are never affected by concurrent writers.
+ * </p>
+ */
+public final class ItemCacheSnapshot<KEY extends Key, ITEM extends HasKey<KEY>> {
+
+    private final long             version;
+    private final Map<KEY, ITEM>   items;
+    private final Collection<ITEM> values;
+
+    ItemCacheSnapshot(final long version, final Map<KEY, ITEM> items) {
+
+        this.version = version;
+        this.items   = Collections.unmodifiableMap(items);
+        this.values  = Collections.unmodifiableCollection(items.values());
+    }
+
+    static <KEY extends Key, ITEM extends HasKey<KEY>> ItemCacheSnapshot<KEY, ITEM> empty() {
+        return new ItemCacheSnapshot<>(0, new HashMap<>());
+    }
+
+    /**
+     * Creates a mutable copy of this snapshot's contents, for use when building the next generation.
+     */
+    final Map<KEY, ITEM> copyItems() {
+        return new HashMap<>(items);
+    }
+
+    public final long getVersion() {
+        return version;
+    }
+
+    public final ITEM findItem(final KEY key) {
+        return items.get(key);
+    }
+
+    public final boolean isItemCached(final KEY key) {
+        return items.containsKey(key);
+    }
+
+    public final Collection<ITEM> getAllItems() {
+        return values;
+    }
+
+    public final int size() {
+        return items.size();
+    }
+
+    public final boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    @Override
+    public final String toString() {
+        return "ItemCacheSnapshot[version=" + version + ", size=" + items.size() + "]";
+    }
+}
@@ -23,34 +23,191 @@ import io.linuxserver.fleet.v2.key.RepositoryKey;
 import io.linuxserver.fleet.v2.types.Image;
 import io.linuxserver.fleet.v2.types.Repository;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Holds all known repositories, alongside two secondary indexes over the images
+ * they contain: one by full image name (repository/image), used by the public
+ * image lookups, and one by {@link ImageKey}. Both indexes are kept up to date
+ * via cache listeners, so any write to this cache or to a cached repository's images
+ * is reflected without needing to walk the catalogue.
+ * </p>
+ */
 public class RepositoryCache extends AbstractItemCache<RepositoryKey, Repository> {
 
+    private final Map<String, Image>   imagesByFullName;
+    private final Map<ImageKey, Image> imagesByKey;
+    private final AtomicLong           modificationCount;
+
+    public RepositoryCache() {
+
+        imagesByFullName  = new ConcurrentHashMap<>();
+        imagesByKey       = new ConcurrentHashMap<>();
+        modificationCount = new AtomicLong();
+
+        registerCacheListener(new RepositoryIndexListener());
+    }
+
     public final Image lookupImage(final ImageLookupKey lookupKey) {
+        return imagesByFullName.get(lookupKey.getQuery());
+    }
+
+    public final Image findImage(final ImageKey imageKey) {
+        return imagesByKey.get(imageKey);
+    }
+
+    public final boolean isImageCached(final ImageKey imageKey) {
+        return imagesByKey.containsKey(imageKey);
+    }
+
+    public final int getImageCount() {
+        return imagesByKey.size();
+    }
+
+    /**
+     * @return
+     *      A count which moves on whenever a repository or image is added, replaced or removed. It says nothing
+     *      about what changed, only that something has since it was last read.
+     */
+    public final long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    private void indexImage(final Image image) {
+
+        modificationCount.incrementAndGet();
+
+        final Image replaced = imagesByKey.put(image.getKey(), image);
+
+        // Renamed images must not remain reachable under their old name
+        if (null != replaced && !replaced.getFullName().equals(image.getFullName())) {
+            imagesByFullName.remove(replaced.getFullName(), replaced);
+        }
+        imagesByFullName.put(image.getFullName(), image);
+    }
+
+    private void unindexImage(final Image image) {
+
+        modificationCount.incrementAndGet();
+
+        imagesByKey.remove(image.getKey(), image);
+        imagesByFullName.remove(image.getFullName(), image);
+    }
+
+    private boolean isCurrent(final Repository repository) {
+        return findItem(repository.getKey()) == repository;
+    }
+
+    private class RepositoryIndexListener implements ItemCacheListener<Repository> {
 
-        for (Repository repository : getAllItems()) {
-            for (Image image : repository.getImages()) {
-                if (lookupKey.isLookupKeyFor(image)) {
-                    return image;
+        @Override
+        public void onItemAdded(final Repository repository) {
+
+            modificationCount.incrementAndGet();
+
+            // The same repository may be added again after being removed or replaced, so must not be listened to twice
+            final ImageIndexListener listener = new ImageIndexListener(repository);
+            repository.unregisterImageListener(listener);
+            repository.registerImageListener(listener);
+            repository.getImages().forEach(RepositoryCache.this::indexImage);
+        }
+
+        @Override
+        public void onItemUpdated(final Repository oldRepository, final Repository newRepository) {
+
+            if (oldRepository == newRepository) {
+                return;
+            }
+
+            oldRepository.unregisterImageListener(new ImageIndexListener(oldRepository));
+            for (Image oldImage : oldRepository.getImages()) {
+
+                if (!newRepository.isImageCached(oldImage.getKey())) {
+                    unindexImage(oldImage);
                 }
             }
+            onItemAdded(newRepository);
         }
 
-        return null;
+        @Override
+        public void onItemRemoved(final Repository repository) {
+
+            modificationCount.incrementAndGet();
+            repository.unregisterImageListener(new ImageIndexListener(repository));
+            repository.getImages().forEach(RepositoryCache.this::unindexImage);
+        }
     }
 
-    public final Image findImage(final ImageKey imageKey) {
+    /**
+     * Tracks changes made directly against a cached repository's images. Changes made to a repository
+     * which has since been replaced in (or removed from) this cache are ignored.
+     */
+    private class ImageIndexListener implements ItemCacheListener<Image> {
+
+        private final Repository repository;
 
-        if (isItemCached(imageKey.getRepositoryKey())) {
+        private ImageIndexListener(final Repository repository) {
+            this.repository = repository;
+        }
+
+        private RepositoryCache getOwner() {
+            return RepositoryCache.this;
+        }
 
-            final Repository repository = findItem(imageKey.getRepositoryKey());
-            for (Image image : repository.getImages()) {
+        /**
+         * The check and the index change are made under this cache's write lock, so that the repository cannot
+         * be replaced or removed in between, which would leave its image behind in the indexes.
+         */
+        private void ifCurrent(final Runnable indexChange) {
 
-                if (imageKey.equals(image.getKey())) {
-                    return image;
+            withWriteLock(() -> {
+
+                if (isCurrent(repository)) {
+                    indexChange.run();
                 }
+            });
+        }
+
+        @Override
+        public void onItemAdded(final Image image) {
+            ifCurrent(() -> indexImage(image));
+        }
+
+        @Override
+        public void onItemUpdated(final Image oldImage, final Image newImage) {
+            ifCurrent(() -> indexImage(newImage));
+        }
+
+        @Override
+        public void onItemRemoved(final Image image) {
+            ifCurrent(() -> unindexImage(image));
+        }
+
+        /**
+         * Listeners are equal if they index the same repository instance into the same cache, so that one can
+         * be unregistered without holding on to the instance which was registered.
+         */
+        @Override
+        public boolean equals(final Object o) {
+
+            if (this == o) {
+                return true;
             }
+
+            if (!(o instanceof ImageIndexListener)) {
+                return false;
+            }
+
+            final ImageIndexListener other = (ImageIndexListener) o;
+            return getOwner() == other.getOwner() && repository == other.repository;
         }
 
-        return null;
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(repository);
+        }
     }
 }
@@ -20,6 +20,7 @@ package io.linuxserver.fleet.v2.client.docker;
 import io.linuxserver.fleet.v2.types.docker.DockerImage;
 import io.linuxserver.fleet.v2.types.docker.DockerTag;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DockerApiClient {
@@ -31,4 +32,12 @@ public interface DockerApiClient {
     List<DockerImage> fetchAllImages(final String repositoryName);
 
     List<DockerTag> fetchImageTags(final String imageName);
+
+    /**
+     * <p>
+     * Fetches the tags for an image, newest first, but stops paging through the results as soon as every one of
+     * the given branches can be resolved to a versioned tag. If any branch can not be resolved, all tags are returned.
+     * </p>
+     */
+    List<DockerTag> fetchImageTags(final String imageName, final Collection<String> trackedBranches);
 }
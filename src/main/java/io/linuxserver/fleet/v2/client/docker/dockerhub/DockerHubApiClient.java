@@ -19,17 +19,23 @@ package io.linuxserver.fleet.v2.client.docker.dockerhub;
 
 import io.linuxserver.fleet.dockerhub.DockerHubException;
 import io.linuxserver.fleet.dockerhub.model.DockerHubV2Image;
-import io.linuxserver.fleet.dockerhub.model.DockerHubV2ImageListResult;
-import io.linuxserver.fleet.dockerhub.model.DockerHubV2TagListResult;
+import io.linuxserver.fleet.dockerhub.model.DockerHubV2Tag;
+import io.linuxserver.fleet.dockerhub.util.DockerTagFinder;
 import io.linuxserver.fleet.v2.client.docker.DockerApiClient;
 import io.linuxserver.fleet.v2.client.rest.HttpException;
+import io.linuxserver.fleet.v2.client.rest.ResponseStreamReader;
+import io.linuxserver.fleet.v2.client.rest.cache.HttpResponseCache;
+import io.linuxserver.fleet.v2.client.rest.governor.AcquireMode;
+import io.linuxserver.fleet.v2.client.rest.governor.RequestGovernor;
 import io.linuxserver.fleet.v2.client.rest.RestClient;
 import io.linuxserver.fleet.v2.client.rest.RestResponse;
 import io.linuxserver.fleet.v2.types.docker.DockerImage;
 import io.linuxserver.fleet.v2.types.docker.DockerTag;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class DockerHubApiClient implements DockerApiClient {
 
@@ -39,13 +45,29 @@ public class DockerHubApiClient implements DockerApiClient {
     private final RestClient restClient;
 
     private final DockerHubImageConverter imageConverter;
-    private final DockerHubTagConverter   tagConverter;
+
+    private final DockerHubPageReader<DockerHubV2Image, DockerImage> imagePageReader;
+    private final DockerHubPageReader<DockerHubV2Tag, DockerTag>     tagPageReader;
 
     public DockerHubApiClient() {
+        this(1, RequestGovernor.Unrestricted, null);
+    }
+
+    /**
+     * @param concurrentCallers
+     *      The number of threads expected to call Docker Hub through this client at the same time.
+     * @param requestGovernor
+     *      Shared budget which every call made to Docker Hub is counted against.
+     * @param responseCache
+     *      Holds previous responses so unchanged pages can be revalidated rather than downloaded again. May be null.
+     */
+    public DockerHubApiClient(final int concurrentCallers, final RequestGovernor requestGovernor, final HttpResponseCache responseCache) {
 
-        restClient     = new RestClient();
-        imageConverter = new DockerHubImageConverter();
-        tagConverter   = new DockerHubTagConverter();
+        // Leave headroom for schedules and admin requests which call the API outside of the sync workers
+        restClient     = new RestClient(concurrentCallers + 1, requestGovernor, responseCache);
+        imageConverter  = new DockerHubImageConverter();
+        imagePageReader = new DockerHubPageReader<>(imageConverter);
+        tagPageReader   = new DockerHubPageReader<>(new DockerHubTagConverter());
     }
 
     @Override
@@ -58,20 +80,17 @@ public class DockerHubApiClient implements DockerApiClient {
             String url = DockerHubApiUrl + "/repositories/" + repositoryName + "/?page_size=" + DefaultPageSize;
             while (url != null) {
 
-                final RestResponse<DockerHubV2ImageListResult> response = doCall(url, DockerHubV2ImageListResult.class);
+                final RestResponse<DockerHubPage<DockerImage>> response = doCall(url, imagePageReader);
 
                 if (isResponseOK(response)) {
 
-                    DockerHubV2ImageListResult payload = response.getPayload();
-                    payload.getResults().forEach(i -> {
+                    final DockerHubPage<DockerImage> page = response.getPayload();
+                    images.addAll(page.getResults());
 
-                        final DockerImage converted = imageConverter.convert(i);
-                        if (null != converted) {
-                            images.add(converted);
-                        }
-                    });
+                    url = page.getNext();
 
-                    url = payload.getNext();
+                } else {
+                    throw new DockerHubException("Unable to get images for " + repositoryName + ". Status code: " + response.getStatusCode());
                 }
             }
 
@@ -86,7 +105,20 @@ public class DockerHubApiClient implements DockerApiClient {
     public boolean isRepositoryValid(String repositoryName) {
 
         try {
-            return !fetchAllImages(repositoryName).isEmpty();
+
+            // Validation happens while a user waits on the result, so it should not queue behind background syncs
+            final RestResponse<DockerHubPage<DockerImage>> response = restClient.executeGet(DockerHubApiUrl + "/repositories/" + repositoryName + "/?page_size=1",
+                                                                                            null, null, imagePageReader, AcquireMode.FailFast);
+            if (response.getStatusCode() == 404) {
+                return false;
+            }
+
+            if (isResponseOK(response)) {
+                return !response.getPayload().getResults().isEmpty();
+            }
+
+            throw new DockerHubException("Unable to verify repository " + repositoryName + ". Status code: " + response.getStatusCode());
+
         } catch (HttpException e) {
             throw new DockerHubException("Unable to verify repository " + repositoryName, e);
         }
@@ -114,28 +146,39 @@ public class DockerHubApiClient implements DockerApiClient {
 
     @Override
     public List<DockerTag> fetchImageTags(String imageName) {
+        return fetchImageTags(imageName, "", tags -> false);
+    }
+
+    @Override
+    public List<DockerTag> fetchImageTags(final String imageName, final Collection<String> trackedBranches) {
+
+        if (trackedBranches.isEmpty()) {
+            return fetchImageTags(imageName);
+        }
+
+        return fetchImageTags(imageName, "&ordering=last_updated", tags -> DockerTagFinder.areAllBranchesResolved(tags, trackedBranches));
+    }
+
+    private List<DockerTag> fetchImageTags(final String imageName, final String ordering, final Predicate<List<DockerTag>> isComplete) {
 
         try {
 
             List<DockerTag> tags = new ArrayList<>();
 
-            String absoluteUrl = DockerHubApiUrl + "/repositories/" + imageName + "/tags/?page_size=" + DefaultPageSize;
+            String absoluteUrl = DockerHubApiUrl + "/repositories/" + imageName + "/tags/?page_size=" + DefaultPageSize + ordering;
             while (absoluteUrl != null) {
 
-                final RestResponse<DockerHubV2TagListResult> response = doCall(absoluteUrl, DockerHubV2TagListResult.class);
+                final RestResponse<DockerHubPage<DockerTag>> response = doCall(absoluteUrl, tagPageReader);
 
                 if (isResponseOK(response)) {
 
-                    final DockerHubV2TagListResult payload = response.getPayload();
-                    payload.getResults().forEach(t -> {
+                    final DockerHubPage<DockerTag> page = response.getPayload();
+                    tags.addAll(page.getResults());
 
-                        final DockerTag converted = tagConverter.convert(t);
-                        if (null != converted) {
-                            tags.add(converted);
-                        }
-                    });
+                    absoluteUrl = isComplete.test(tags) ? null : page.getNext();
 
-                    absoluteUrl = payload.getNext();
+                } else {
+                    throw new DockerHubException("Unable to get tags for " + imageName + ". Status code: " + response.getStatusCode());
                 }
             }
 
@@ -156,6 +199,10 @@ public class DockerHubApiClient implements DockerApiClient {
         return restClient.executeGet(url, null, null, responseType);
     }
 
+    private <T> RestResponse<T> doCall(String url, ResponseStreamReader<T> responseReader) {
+        return restClient.executeGet(url, null, null, responseReader);
+    }
+
     private boolean isResponseOK(final RestResponse<?> restResponse) {
         return restResponse.getStatusCode() == 200;
     }
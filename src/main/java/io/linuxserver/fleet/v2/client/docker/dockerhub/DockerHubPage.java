@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.docker.dockerhub;
+
+import java.util.List;
+
+/**
+ * <p>
+ * A single page of a Docker Hub listing, holding the already converted results.
+ * </p>
+ */
+public class DockerHubPage<T> {
+
+    private final String  next;
+    private final List<T> results;
+
+    public DockerHubPage(final String next, final List<T> results) {
+
+        this.next    = next;
+        this.results = results;
+    }
+
+    public final String getNext() {
+        return next;
+    }
+
+    public final List<T> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.docker.dockerhub;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.linuxserver.fleet.v2.client.docker.converter.DockerResponseConverter;
+import io.linuxserver.fleet.v2.client.rest.ResponseStreamReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Reads a paged Docker Hub listing straight off the response stream. Each entry in the
+ * <code>results</code> array is bound and converted one at a time, so neither the raw body
+ * nor the full list of Docker Hub models is ever held in memory.
+ * </p>
+ */
+public class DockerHubPageReader<DOCKER_HUB, INTERNAL> implements ResponseStreamReader<DockerHubPage<INTERNAL>> {
+
+    private static final ObjectMapper OBJECT_MAPPER;
+    static {
+
+        OBJECT_MAPPER = new ObjectMapper();
+        OBJECT_MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    private final DockerResponseConverter<DOCKER_HUB, INTERNAL> converter;
+
+    public DockerHubPageReader(final DockerResponseConverter<DOCKER_HUB, INTERNAL> converter) {
+        this.converter = converter;
+    }
+
+    @Override
+    public DockerHubPage<INTERNAL> read(final InputStream stream) throws IOException {
+
+        final List<INTERNAL> results = new ArrayList<>();
+        String next = null;
+
+        try (final JsonParser parser = OBJECT_MAPPER.getFactory().createParser(stream)) {
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected Docker Hub page to be a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+                final String    fieldName = parser.getCurrentName();
+                final JsonToken value     = parser.nextToken();
+
+                if ("next".equals(fieldName)) {
+                    next = value == JsonToken.VALUE_NULL ? null : parser.getText();
+
+                } else if ("results".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                    readResults(parser, results);
+
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return new DockerHubPage<>(next, results);
+    }
+
+    private void readResults(final JsonParser parser, final List<INTERNAL> results) throws IOException {
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+
+            final INTERNAL converted = converter.convert(OBJECT_MAPPER.readValue(parser, converter.getConverterClass()));
+            if (null != converted) {
+                results.add(converted);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.docker.queue;
+
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * Record of a task which was given up on after failing too many times.
+ * </p>
+ */
+public class DeadLetter {
+
+    private final String        taskName;
+    private final int           attempts;
+    private final String        reason;
+    private final LocalDateTime failedAt;
+
+    public DeadLetter(final String taskName, final int attempts, final String reason) {
+
+        this.taskName = taskName;
+        this.attempts = attempts;
+        this.reason   = reason;
+        this.failedAt = LocalDateTime.now();
+    }
+
+    public final String getTaskName() {
+        return taskName;
+    }
+
+    public final int getAttempts() {
+        return attempts;
+    }
+
+    public final String getReason() {
+        return reason;
+    }
+
+    public final LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    @Override
+    public final String toString() {
+        return "DeadLetter[" + taskName + ", attempts=" + attempts + ", reason=" + reason + "]";
+    }
+}
@@ -23,40 +23,102 @@ import io.linuxserver.fleet.v2.client.docker.DockerImageNotFoundException;
 import io.linuxserver.fleet.v2.key.ImageKey;
 import io.linuxserver.fleet.v2.key.RepositoryKey;
 import io.linuxserver.fleet.v2.thread.AsyncTaskDelegate;
+import io.linuxserver.fleet.v2.thread.SingleFlight;
+import io.linuxserver.fleet.v2.types.Image;
+import io.linuxserver.fleet.v2.types.TagBranch;
 import io.linuxserver.fleet.v2.types.docker.DockerImage;
 import io.linuxserver.fleet.v2.types.docker.DockerTag;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
+/**
+ * <p>
+ * Entry point for all upstream calls. Concurrent callers asking for the same repository, image
+ * or tag set share a single in-flight call to the API client, so bursts of admin and scheduled
+ * activity do not download the same data (or spend the same rate limit budget) more than once.
+ * </p>
+ */
 public class DockerApiDelegate implements AsyncTaskDelegate {
 
     private final FleetAppController controller;
     private final DockerApiClient    apiClient;
 
+    private final SingleFlight<String, Boolean>           repositoryValidations;
+    private final SingleFlight<String, List<DockerImage>> repositoryListings;
+    private final SingleFlight<String, DockerImage>       imageSummaries;
+    private final SingleFlight<List<?>, List<DockerTag>>  imageTags;
+
     public DockerApiDelegate(final FleetAppController controller) {
         this.controller = controller;
         this.apiClient  = controller.getDockerClient();
+
+        repositoryValidations = new SingleFlight<>();
+        repositoryListings    = new SingleFlight<>();
+        imageSummaries        = new SingleFlight<>();
+        imageTags             = new SingleFlight<>();
     }
 
     public final boolean isRepositoryValid(final String repositoryName) {
-        return apiClient.isRepositoryValid(repositoryName);
+        return repositoryValidations.execute(repositoryName, () -> apiClient.isRepositoryValid(repositoryName));
     }
 
     public final List<DockerImage> getImagesForRepository(final RepositoryKey repositoryKey) {
-        return apiClient.fetchAllImages(repositoryKey.getName());
+
+        final String repositoryName = repositoryKey.getName();
+        return repositoryListings.execute(repositoryName, () -> Collections.unmodifiableList(apiClient.fetchAllImages(repositoryName)));
     }
 
     public final DockerImage getCurrentImageView(final ImageKey imageKey) {
 
-        final DockerImage dockerImage = apiClient.fetchImage(imageKey.getAsRepositoryAndImageName());
+        final DockerImage dockerImage = getImageSummary(imageKey);
+        populateImageTags(imageKey, dockerImage);
+
+        return dockerImage;
+    }
+
+    /**
+     * <p>
+     * Fetches the top level image information only, without any of its tags.
+     * </p>
+     */
+    public final DockerImage getImageSummary(final ImageKey imageKey) {
+
+        final String      imageName   = imageKey.getAsRepositoryAndImageName();
+        final DockerImage dockerImage = imageSummaries.execute(imageName, () -> apiClient.fetchImage(imageName));
         if (null == dockerImage) {
-            throw new DockerImageNotFoundException("Image " + imageKey.getAsRepositoryAndImageName() + " was not found upstream.");
+            throw new DockerImageNotFoundException("Image " + imageName + " was not found upstream.");
         }
 
-        final List<DockerTag> allImageTags = apiClient.fetchImageTags(imageKey.getAsRepositoryAndImageName());
-        allImageTags.forEach(dockerImage::addTag);
+        // Each caller gets its own copy, as tags are added to it afterwards
+        return new DockerImage(dockerImage.getName(),
+                               dockerImage.getRepository(),
+                               dockerImage.getDescription(),
+                               dockerImage.getStarCount(),
+                               dockerImage.getPullCount(),
+                               dockerImage.getBuildDate());
+    }
+
+    /**
+     * <p>
+     * Adds the image's upstream tags to the given view. Tags are scanned newest first and only as far back as
+     * needed to resolve each of the image's tracked branches.
+     * </p>
+     */
+    public final void populateImageTags(final ImageKey imageKey, final DockerImage dockerImage) {
 
-        return dockerImage;
+        final Image cachedImage = controller.getImageService().getImage(imageKey);
+        final Set<String> trackedBranches = null == cachedImage ? Collections.emptySet() : cachedImage.getTagBranches().stream()
+            .map(TagBranch::getBranchName).collect(Collectors.toCollection(TreeSet::new));
+
+        // Different branches may stop the scan at a different point, so they form part of the key
+        final String imageName = imageKey.getAsRepositoryAndImageName();
+        imageTags.execute(Arrays.asList(imageName, trackedBranches), () -> apiClient.fetchImageTags(imageName, trackedBranches))
+                 .forEach(dockerImage::addTag);
     }
 
     @Override
@@ -17,29 +17,84 @@
 
 package io.linuxserver.fleet.v2.client.docker.queue;
 
+import io.linuxserver.fleet.v2.client.rest.governor.CircuitBreakingRequestGovernor;
+import io.linuxserver.fleet.v2.client.rest.governor.CircuitOpenException;
 import io.linuxserver.fleet.v2.service.SynchronisationService;
+import io.linuxserver.fleet.v2.service.sync.SyncPipeline;
+import io.linuxserver.fleet.v2.service.sync.SyncProgressTracker;
+import io.linuxserver.fleet.v2.service.sync.SyncQueueJournal;
 import io.linuxserver.fleet.v2.thread.AbstractTaskQueueConsumer;
-import io.linuxserver.fleet.v2.thread.TaskExecutionException;
 
 public final class DockerApiTaskConsumer extends AbstractTaskQueueConsumer<DockerApiDelegate, DockerImageUpdateResponse, DockerImageUpdateRequest> {
 
-    public DockerApiTaskConsumer(final SynchronisationService syncService) {
+    private final SyncProgressTracker                  progressTracker;
+    private final RetryStage<DockerImageUpdateRequest> retryStage;
+    private final CircuitBreakingRequestGovernor       circuitBreaker;
+    private final SyncQueueJournal                     queueJournal;
+    private final SyncPipeline                         syncPipeline;
+
+    public DockerApiTaskConsumer(final SynchronisationService syncService, final int consumerNumber) {
 
         super(syncService.getController(),
               syncService.getConfiguredDockerDelegate(),
               syncService.getSyncQueue(),
-              "DockerSyncConsumer");
+              "DockerSyncConsumer-" + consumerNumber);
+
+        progressTracker = syncService.getProgressTracker();
+        retryStage      = syncService.getRetryStage();
+        circuitBreaker  = syncService.getController().getDockerHubCircuitBreaker();
+        queueJournal    = syncService.getQueueJournal();
+        syncPipeline    = syncService.getSyncPipeline();
+    }
+
+    @Override
+    protected void onTaskStarted(final DockerImageUpdateRequest task) {
+        queueJournal.recordClaimed(task.getImageKey(), getName());
+    }
+
+    /**
+     * <p>
+     * Failed requests are retried with backoff. While Docker Hub is failing, a request is not released until the
+     * circuit breaker is next due to probe it, and a request which was refused by the breaker does not use up
+     * one of its attempts.
+     * </p>
+     */
+    @Override
+    protected boolean retryFailedTask(final DockerImageUpdateRequest task, final RuntimeException failure) {
+
+        final boolean shortCircuited = isCausedBy(failure, CircuitOpenException.class);
+        return retryStage.scheduleRetry(task, failure, circuitBreaker.getMillisUntilProbe(), !shortCircuited);
+    }
+
+    @Override
+    protected void onTaskCompleted(final DockerImageUpdateRequest task, final boolean succeeded) {
+
+        if (succeeded) {
+            retryStage.onTaskSucceeded(task);
+        }
+        queueJournal.recordCompleted(task.getImageKey());
+        progressTracker.recordOutcome(task.getImageKey(), succeeded);
     }
 
+    /**
+     * <p>
+     * Matching and storing the update happen further down the sync pipeline, so this consumer can go straight back
+     * to fetching. Blocks while the pipeline is full.
+     * </p>
+     */
     @Override
-    protected void handleTaskResponse(final DockerImageUpdateResponse response) {
+    protected void handOffResponse(final DockerImageUpdateRequest task, final DockerImageUpdateResponse response) throws InterruptedException {
+        syncPipeline.submit(response, failure -> finishTask(task, failure));
+    }
+
+    private static boolean isCausedBy(final Throwable failure, final Class<? extends Throwable> causeType) {
 
-        try {
-            response.handleDockerApiResponse();
-        } catch (Exception e) {
+        for (Throwable cause = failure; null != cause; cause = cause.getCause() == cause ? null : cause.getCause()) {
 
-            getLogger().error("handleTaskResponse caught unhandled error, but not something worthy of stalling thread", e);
-            throw new TaskExecutionException(e);
+            if (causeType.isInstance(cause)) {
+                return true;
+            }
         }
+        return false;
     }
 }
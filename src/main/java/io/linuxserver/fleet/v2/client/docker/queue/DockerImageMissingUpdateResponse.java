@@ -19,6 +19,7 @@ package io.linuxserver.fleet.v2.client.docker.queue;
 
 import io.linuxserver.fleet.core.FleetAppController;
 import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.types.Image;
 
 public class DockerImageMissingUpdateResponse extends DockerImageUpdateResponse {
 
@@ -27,6 +28,11 @@ public class DockerImageMissingUpdateResponse extends DockerImageUpdateResponse
         super(controller, imageKey, null);
     }
 
+    @Override
+    public final Image prepareImageUpdate() {
+        return null;
+    }
+
     @Override
     public final void handleDockerApiResponse() {
         // Do nothing. Let schedule handle this.
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.docker.queue;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.types.Image;
+import io.linuxserver.fleet.v2.types.docker.DockerImage;
+
+/**
+ * <p>
+ * Response for an image which has not changed upstream since it was last synchronised, so only
+ * carries top level information and no tags.
+ * </p>
+ */
+public class DockerImageStatsUpdateResponse extends DockerImageUpdateResponse {
+
+    public DockerImageStatsUpdateResponse(final FleetAppController controller,
+                                          final ImageKey imageKey,
+                                          final DockerImage latestImage) {
+        super(controller, imageKey, latestImage);
+    }
+
+    /**
+     * Stats are written straight away rather than batched, as a copy of the image taken now may be out of date
+     * by the time the batch is written. Only the stats are written, so this stays cheap.
+     */
+    @Override
+    public final Image prepareImageUpdate() {
+
+        handleDockerApiResponse();
+        return null;
+    }
+
+    @Override
+    public final void handleDockerApiResponse() {
+        getController().getImageService().applyImageStatsUpdate(getImageKey(), getLatestImage());
+    }
+
+    @Override
+    public String toString() {
+        return "DockerImageStatsUpdateResponse[" + getImageKey().toString() + "]";
+    }
+}
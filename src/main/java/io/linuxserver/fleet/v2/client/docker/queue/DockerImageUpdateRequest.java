@@ -20,21 +20,95 @@ package io.linuxserver.fleet.v2.client.docker.queue;
 import io.linuxserver.fleet.v2.client.docker.DockerImageNotFoundException;
 import io.linuxserver.fleet.v2.key.ImageKey;
 import io.linuxserver.fleet.v2.thread.AbstractAppTask;
+import io.linuxserver.fleet.v2.thread.CoalescingTask;
+import io.linuxserver.fleet.v2.thread.PrioritisedTask;
+import io.linuxserver.fleet.v2.thread.TaskPriority;
+import io.linuxserver.fleet.v2.types.docker.DockerImage;
 
-public class DockerImageUpdateRequest extends AbstractAppTask<DockerApiDelegate, DockerImageUpdateResponse> {
+public class DockerImageUpdateRequest extends AbstractAppTask<DockerApiDelegate, DockerImageUpdateResponse>
+        implements CoalescingTask<DockerImageUpdateRequest>, PrioritisedTask {
 
-    private final ImageKey imageKey;
+    private final ImageKey     imageKey;
+    private final boolean      forceFullSync;
+    private final TaskPriority priority;
 
     public DockerImageUpdateRequest(final ImageKey imageKey) {
+        this(imageKey, false);
+    }
+
+    public DockerImageUpdateRequest(final ImageKey imageKey, final boolean forceFullSync) {
+        this(imageKey, forceFullSync, TaskPriority.Bulk);
+    }
+
+    /**
+     * @param forceFullSync
+     *      If true, the image's tags will always be fetched, even if the image has not changed upstream since
+     *      it was last synchronised.
+     */
+    public DockerImageUpdateRequest(final ImageKey imageKey, final boolean forceFullSync, final TaskPriority priority) {
         super(imageKey.toString());
-        this.imageKey = imageKey;
+
+        this.imageKey      = imageKey;
+        this.forceFullSync = forceFullSync;
+        this.priority      = priority;
+    }
+
+    public final ImageKey getImageKey() {
+        return imageKey;
+    }
+
+    public final boolean isForceFullSync() {
+        return forceFullSync;
+    }
+
+    @Override
+    public final TaskPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Images from the same repository take turns with images from other repositories.
+     */
+    @Override
+    public final Object getFairnessKey() {
+        return imageKey.getRepositoryKey();
+    }
+
+    /**
+     * <p>
+     * A request which may only end up refreshing stats is upgraded to a full sync if a full sync is
+     * requested for the same image while it is still waiting. Likewise, it takes on the higher of the
+     * two priorities.
+     * </p>
+     */
+    @Override
+    public DockerImageUpdateRequest coalesceWith(final DockerImageUpdateRequest newerTask) {
+
+        final boolean      mergedForce    = forceFullSync || newerTask.isForceFullSync();
+        final TaskPriority mergedPriority = newerTask.getPriority().isHigherThan(priority) ? newerTask.getPriority() : priority;
+
+        if (mergedForce == forceFullSync && mergedPriority == priority) {
+            return this;
+        }
+        return new DockerImageUpdateRequest(imageKey, mergedForce, mergedPriority);
     }
 
     @Override
     protected DockerImageUpdateResponse performTaskInternal(final DockerApiDelegate delegate) {
 
         try {
-            return new DockerImageUpdateResponse(delegate.getController(), imageKey, delegate.getCurrentImageView(imageKey));
+
+            final DockerImage latestImage = delegate.getImageSummary(imageKey);
+
+            if (!forceFullSync && !delegate.getController().getImageService().isTagSyncRequired(imageKey, latestImage.getBuildDate())) {
+
+                getLogger().info("Image {} is unchanged upstream since last sync. Only updating stats.", imageKey);
+                return new DockerImageStatsUpdateResponse(delegate.getController(), imageKey, latestImage);
+            }
+
+            delegate.populateImageTags(imageKey, latestImage);
+            return new DockerImageUpdateResponse(delegate.getController(), imageKey, latestImage);
+
         } catch (DockerImageNotFoundException e) {
             getLogger().warn("Request responded with an empty response so assuming image {} has been removed upstream. Error message: {}", imageKey, e.getMessage());
             return new DockerImageMissingUpdateResponse(delegate.getController(), imageKey);
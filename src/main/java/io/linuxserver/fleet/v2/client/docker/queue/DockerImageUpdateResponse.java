@@ -19,6 +19,7 @@ package io.linuxserver.fleet.v2.client.docker.queue;
 
 import io.linuxserver.fleet.core.FleetAppController;
 import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.types.Image;
 import io.linuxserver.fleet.v2.types.docker.DockerImage;
 
 public class DockerImageUpdateResponse implements AsyncDockerApiResponse {
@@ -39,6 +40,22 @@ public class DockerImageUpdateResponse implements AsyncDockerApiResponse {
         return controller;
     }
 
+    protected final ImageKey getImageKey() {
+        return imageKey;
+    }
+
+    protected final DockerImage getLatestImage() {
+        return latestImage;
+    }
+
+    /**
+     * @return
+     *      The updated image to be stored, or null if there is nothing to store. Nothing is stored by this call.
+     */
+    public Image prepareImageUpdate() {
+        return controller.getImageService().prepareImageUpstreamUpdate(imageKey, latestImage);
+    }
+
     @Override
     public void handleDockerApiResponse() {
         controller.getImageService().applyImageUpstreamUpdate(imageKey, latestImage);
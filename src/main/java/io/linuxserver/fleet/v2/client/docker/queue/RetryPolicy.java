@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.docker.queue;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>
+ * Exponential backoff with jitter. Each retry waits twice as long as the one before, up to a ceiling,
+ * and the actual delay is picked at random from the upper half of that window so that tasks which
+ * failed together do not all come back at once.
+ * </p>
+ */
+public class RetryPolicy {
+
+    private final int  maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public RetryPolicy(final int maxAttempts, final long baseDelayMillis, final long maxDelayMillis) {
+
+        this.maxAttempts     = Math.max(1, maxAttempts);
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis  = Math.max(this.baseDelayMillis, maxDelayMillis);
+    }
+
+    public final int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return
+     *      True if a task which has failed this many times should be given up on.
+     */
+    public final boolean isExhausted(final int failedAttempts) {
+        return failedAttempts >= maxAttempts;
+    }
+
+    /**
+     * @param failedAttempts
+     *      The number of times the task has failed so far, including the failure just seen.
+     */
+    public final long getDelayMillis(final int failedAttempts) {
+
+        final int  doublings = Math.min(30, Math.max(0, failedAttempts - 1));
+        final long ceiling   = Math.min(maxDelayMillis, baseDelayMillis << doublings);
+
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.docker.queue;
+
+import io.linuxserver.fleet.v2.thread.AsyncTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * Holds failed tasks back for a while before placing them on their queue again. The number of failed
+ * attempts is kept per task, and is cleared once the task succeeds. A task which runs out of attempts is
+ * moved to a bounded dead-letter list, where the oldest entries make way for newer ones.
+ * </p>
+ * <p>
+ * Tasks are released by whoever calls {@link #releaseNextDueTask()}, which blocks until one is due.
+ * </p>
+ */
+public class RetryStage<TASK extends AsyncTask<?, ?>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryStage.class);
+
+    private final TaskQueue<TASK>               targetQueue;
+    private final RetryPolicy                   retryPolicy;
+    private final int                           deadLetterCapacity;
+    private final DelayQueue<DelayedTask<TASK>> waitingTasks;
+    private final ConcurrentMap<TASK, Integer>  failedAttempts;
+    private final Deque<DeadLetter>             deadLetters;
+
+    public RetryStage(final TaskQueue<TASK> targetQueue, final RetryPolicy retryPolicy, final int deadLetterCapacity) {
+
+        this.targetQueue        = targetQueue;
+        this.retryPolicy        = retryPolicy;
+        this.deadLetterCapacity = Math.max(1, deadLetterCapacity);
+
+        waitingTasks   = new DelayQueue<>();
+        failedAttempts = new ConcurrentHashMap<>();
+        deadLetters    = new ArrayDeque<>();
+    }
+
+    /**
+     * @param minimumDelayMillis
+     *      The task will not be released any sooner than this, even if the backoff is shorter.
+     * @param countAsAttempt
+     *      False if the task was never really attempted, for example because it was refused before reaching
+     *      the upstream server. Such tasks are retried without using up their attempts.
+     * @return
+     *      True if the task will be retried, false if it has been given up on and dead-lettered.
+     */
+    public final boolean scheduleRetry(final TASK task, final Throwable failure, final long minimumDelayMillis, final boolean countAsAttempt) {
+
+        final int attempts = countAsAttempt ? failedAttempts.merge(task, 1, Integer::sum) : failedAttempts.getOrDefault(task, 0);
+
+        if (retryPolicy.isExhausted(attempts)) {
+
+            failedAttempts.remove(task);
+            addDeadLetter(new DeadLetter(task.toString(), attempts, describe(failure)));
+
+            LOGGER.warn("Task {} has failed {} time(s). Giving up on it.", task, attempts);
+            return false;
+        }
+
+        final long delayMillis = Math.max(minimumDelayMillis, retryPolicy.getDelayMillis(Math.max(1, attempts)));
+        waitingTasks.put(new DelayedTask<>(task, System.currentTimeMillis() + delayMillis));
+
+        LOGGER.info("Task {} has failed {} time(s). Retrying in {}ms", task, attempts, delayMillis);
+        return true;
+    }
+
+    public final void onTaskSucceeded(final TASK task) {
+        failedAttempts.remove(task);
+    }
+
+    /**
+     * <p>
+     * Blocks until a waiting task is due, then places it back on its queue.
+     * </p>
+     */
+    public final void releaseNextDueTask() throws InterruptedException {
+
+        final TASK task = waitingTasks.take().task;
+
+        LOGGER.info("Releasing task {} for retry", task);
+        targetQueue.submitTask(task);
+    }
+
+    public final int getWaitingTaskCount() {
+        return waitingTasks.size();
+    }
+
+    public final int countWaitingTasks(final Predicate<TASK> filter) {
+        return (int) waitingTasks.stream().filter(waiting -> filter.test(waiting.task)).count();
+    }
+
+    /**
+     * @return
+     *      The dead-lettered tasks, most recent first.
+     */
+    public final List<DeadLetter> getDeadLetters() {
+
+        synchronized (deadLetters) {
+            return new ArrayList<>(deadLetters);
+        }
+    }
+
+    private void addDeadLetter(final DeadLetter deadLetter) {
+
+        synchronized (deadLetters) {
+
+            deadLetters.addFirst(deadLetter);
+            while (deadLetters.size() > deadLetterCapacity) {
+                deadLetters.removeLast();
+            }
+        }
+    }
+
+    private static String describe(final Throwable failure) {
+
+        Throwable root = failure;
+        while (null != root.getCause() && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getClass().getSimpleName() + (null == root.getMessage() ? "" : ": " + root.getMessage());
+    }
+
+    private static final class DelayedTask<TASK> implements Delayed {
+
+        private final TASK task;
+        private final long releaseAt;
+
+        private DelayedTask(final TASK task, final long releaseAt) {
+
+            this.task      = task;
+            this.releaseAt = releaseAt;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(releaseAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
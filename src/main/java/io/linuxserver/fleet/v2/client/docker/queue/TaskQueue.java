@@ -1,5 +1,5 @@
 /*
- * Copyright (c)  2019 LinuxServer.io
+ * Copyright (c) 2019 LinuxServer.io
  *
  * This program is free software: you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -18,43 +18,312 @@
 package io.linuxserver.fleet.v2.client.docker.queue;
 
 import io.linuxserver.fleet.v2.thread.AsyncTask;
+import io.linuxserver.fleet.v2.thread.CoalescingTask;
+import io.linuxserver.fleet.v2.thread.PrioritisedTask;
+import io.linuxserver.fleet.v2.thread.TaskPriority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
+/**
+ * <p>
+ * Queue shared by any number of consumers. A task which is equal to one that a consumer is
+ * currently working on will not be handed out until that consumer has completed it, so the
+ * same item is never worked on by two consumers at once. Instead, it is held back and placed
+ * at the back of the queue once the running task has been completed.
+ * </p>
+ * <p>
+ * Each task is only ever queued once. Queued tasks are tracked in a concurrent map so duplicates
+ * are detected without scanning the queue. A duplicate submitted while the original is still
+ * waiting is merged into it if the task is a {@link CoalescingTask}, otherwise it is dropped.
+ * </p>
+ * <p>
+ * Tasks implementing {@link PrioritisedTask} wait in the lane for their {@link TaskPriority}, and
+ * all other tasks wait in the bulk lane. Within a lane, tasks are grouped by fairness key and the
+ * groups take turns, so one large group can not hold up the rest. If a merge raises a waiting
+ * task's priority, it is moved out of its lane and up into the higher one.
+ * </p>
+ * <p>
+ * Whenever two tasks are merged, the completion of any task which did not survive the merge follows
+ * that of the merged task, so callers holding on to the task they submitted are still told when the
+ * work has been done.
+ * </p>
+ */
 public class TaskQueue<TASK extends AsyncTask<?, ?>> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TaskQueue.class);
 
-    private final BlockingQueue<TASK> activeTaskQueue;
+    private final ReentrantLock                 lock;
+    private final Condition                     taskAvailable;
+    private final Map<TaskPriority, Lane<TASK>> lanes;
+    private final ConcurrentMap<TASK, TASK>     queuedTasks;
+    private final Set<TASK>                     runningTasks;
+    private final Map<TASK, TASK>               deferredTasks;
 
     public TaskQueue() {
-        activeTaskQueue = new LinkedBlockingQueue<>();
+
+        lock          = new ReentrantLock();
+        taskAvailable = lock.newCondition();
+        lanes         = new EnumMap<>(TaskPriority.class);
+        queuedTasks   = new ConcurrentHashMap<>();
+        runningTasks  = new HashSet<>();
+        deferredTasks = new HashMap<>();
+
+        for (TaskPriority priority : TaskPriority.values()) {
+            lanes.put(priority, new Lane<>());
+        }
     }
 
+    /**
+     * @return
+     *      True if the task was queued or merged into an equal task which was already queued.
+     */
     public final boolean submitTask(final TASK task) {
 
         LOGGER.info("Task submitted: {}", task);
-        if (activeTaskQueue.contains(task)) {
 
-            LOGGER.warn("Task {} is already queued so will not duplicate the request.", task);
-            return false;
-        }
+        lock.lock();
+        try {
+
+            final TASK queued = queuedTasks.get(task);
+            if (null == queued) {
+
+                queuedTasks.put(task, task);
+                enqueue(task);
+                return true;
+            }
+
+            LOGGER.info("Task {} is already queued so will merge the request into it.", task);
+
+            final TASK merged = coalesce(queued, task);
+            queuedTasks.put(task, merged);
+
+            if (getPriority(merged).isHigherThan(getPriority(queued))) {
 
-        return activeTaskQueue.add(task);
+                // The old position must go, otherwise it could later take an equal task out of turn
+                lanes.get(getPriority(queued)).remove(getFairnessKey(queued), queued);
+                enqueue(merged);
+            }
+            return true;
+
+        } finally {
+            lock.unlock();
+        }
     }
 
     public final int size() {
-        return activeTaskQueue.size();
+
+        lock.lock();
+        try {
+            return queuedTasks.size() + deferredTasks.size();
+        } finally {
+            lock.unlock();
+        }
     }
 
+    /**
+     * <p>
+     * Blocks until a task is available which no other consumer is currently working on. Callers
+     * must call {@link #completeTask(AsyncTask)} once they have finished with the returned task.
+     * </p>
+     */
     public final TASK retrieveNextTask() throws InterruptedException {
-        return activeTaskQueue.take();
+
+        lock.lockInterruptibly();
+        try {
+
+            while (true) {
+
+                final TASK position = pollNextPosition();
+                if (null == position) {
+
+                    taskAvailable.await();
+                    continue;
+                }
+
+                final TASK task = queuedTasks.remove(position);
+                if (null == task) {
+                    continue;
+                }
+
+                if (runningTasks.add(task)) {
+                    return task;
+                }
+
+                LOGGER.info("Task {} is already being processed. Deferring until it has completed.", task);
+                deferredTasks.merge(task, task, this::coalesce);
+            }
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final void completeTask(final TASK task) {
+
+        lock.lock();
+        try {
+
+            runningTasks.remove(task);
+
+            final TASK deferred = deferredTasks.remove(task);
+            if (null != deferred) {
+                submitTask(deferred);
+            }
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final int getRunningTaskCount() {
+
+        lock.lock();
+        try {
+            return runningTasks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return
+     *      The number of waiting tasks (including those held back behind a running equal task) which match the filter.
+     */
+    public final int countQueuedTasks(final Predicate<TASK> filter) {
+
+        lock.lock();
+        try {
+            return (int) (queuedTasks.values().stream().filter(filter).count() + deferredTasks.values().stream().filter(filter).count());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final int countRunningTasks(final Predicate<TASK> filter) {
+
+        lock.lock();
+        try {
+            return (int) runningTasks.stream().filter(filter).count();
+        } finally {
+            lock.unlock();
+        }
     }
 
     public final boolean isEmpty() {
-        return activeTaskQueue.isEmpty();
+
+        lock.lock();
+        try {
+            return queuedTasks.isEmpty() && deferredTasks.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(final TASK task) {
+
+        lanes.get(getPriority(task)).add(getFairnessKey(task), task);
+        taskAvailable.signal();
+    }
+
+    private TASK pollNextPosition() {
+
+        for (Lane<TASK> lane : lanes.values()) {
+
+            final TASK task = lane.poll();
+            if (null != task) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TASK coalesce(final TASK queued, final TASK newer) {
+
+        final TASK merged = queued instanceof CoalescingTask ? ((CoalescingTask<TASK>) queued).coalesceWith(newer) : queued;
+
+        followCompletion(queued, merged);
+        followCompletion(newer,  merged);
+
+        return merged;
+    }
+
+    private static void followCompletion(final AsyncTask<?, ?> follower, final AsyncTask<?, ?> leader) {
+
+        if (follower == leader) {
+            return;
+        }
+
+        leader.getCompletion().whenComplete((result, error) -> {
+
+            if (null == error) {
+                follower.getCompletion().complete(result);
+            } else {
+                follower.getCompletion().completeExceptionally(error);
+            }
+        });
+    }
+
+    private static TaskPriority getPriority(final Object task) {
+        return task instanceof PrioritisedTask ? ((PrioritisedTask) task).getPriority() : TaskPriority.Bulk;
+    }
+
+    private static Object getFairnessKey(final Object task) {
+        return task instanceof PrioritisedTask ? ((PrioritisedTask) task).getFairnessKey() : null;
+    }
+
+    /**
+     * <p>
+     * FIFO queue per fairness key, with the keys themselves served round-robin. A key which has just
+     * been served moves to the back of the rotation.
+     * </p>
+     */
+    private static final class Lane<TASK> {
+
+        private final LinkedHashMap<Object, Deque<TASK>> groups = new LinkedHashMap<>();
+
+        private void add(final Object fairnessKey, final TASK task) {
+            groups.computeIfAbsent(fairnessKey, key -> new ArrayDeque<>()).add(task);
+        }
+
+        private TASK poll() {
+
+            final Iterator<Map.Entry<Object, Deque<TASK>>> iterator = groups.entrySet().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+
+            final Map.Entry<Object, Deque<TASK>> next = iterator.next();
+            iterator.remove();
+
+            final TASK task = next.getValue().poll();
+            if (!next.getValue().isEmpty()) {
+                groups.put(next.getKey(), next.getValue());
+            }
+            return task;
+        }
+
+        private void remove(final Object fairnessKey, final TASK task) {
+
+            final Deque<TASK> group = groups.get(fairnessKey);
+            if (null != group && group.remove(task) && group.isEmpty()) {
+                groups.remove(fairnessKey);
+            }
+        }
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>
+ * Keeps a copy of everything read through it, up to a limit. Once the limit is passed the
+ * copy is abandoned, but reading carries on as normal. Closing this stream leaves the
+ * underlying stream open, so anything the reader did not consume can still be drained.
+ * </p>
+ */
+class CapturingInputStream extends FilterInputStream {
+
+    private final long limit;
+
+    private ByteArrayOutputStream captured;
+
+    CapturingInputStream(final InputStream in, final long limit) {
+        super(in);
+
+        this.limit    = limit;
+        this.captured = new ByteArrayOutputStream();
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        final int value = super.read();
+        if (value != -1 && null != captured) {
+
+            captured.write(value);
+            checkLimit();
+        }
+        return value;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+
+        final int count = super.read(buffer, offset, length);
+        if (count > 0 && null != captured) {
+
+            captured.write(buffer, offset, count);
+            checkLimit();
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+
+        // Skipped bytes would leave a hole in the copy
+        captured = null;
+        return super.skip(n);
+    }
+
+    @Override
+    public void close() {
+        // The owner of the underlying stream is responsible for closing it
+    }
+
+    /**
+     * <p>
+     * Reads anything the consumer of this stream left behind, then returns the full copy.
+     * </p>
+     * @return
+     *      The captured bytes, or null if the stream went past the limit.
+     */
+    byte[] drainAndGetCaptured() throws IOException {
+
+        final byte[] buffer = new byte[8192];
+        while (null != captured && read(buffer, 0, buffer.length) != -1) {
+            // Keep reading until the end of the stream
+        }
+        return null == captured ? null : captured.toByteArray();
+    }
+
+    private void checkLimit() {
+
+        if (captured.size() > limit) {
+            captured = null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>
+ * Decodes a response body directly from the underlying HTTP stream, so the body never needs
+ * to be held in memory as a single value before it is converted.
+ * </p>
+ */
+@FunctionalInterface
+public interface ResponseStreamReader<T> {
+
+    T read(final InputStream stream) throws IOException;
+}
@@ -17,10 +17,17 @@
 
 package io.linuxserver.fleet.v2.client.rest;
 
+import io.linuxserver.fleet.v2.client.rest.cache.CachedResponse;
+import io.linuxserver.fleet.v2.client.rest.cache.HttpResponseCache;
+import io.linuxserver.fleet.v2.client.rest.governor.AcquireMode;
+import io.linuxserver.fleet.v2.client.rest.governor.RequestGovernor;
 import io.linuxserver.fleet.v2.client.rest.marshalling.JacksonMarshallingStrategy;
 import io.linuxserver.fleet.v2.client.rest.marshalling.MarshallingStrategy;
 import io.linuxserver.fleet.v2.client.rest.proxy.LazyLoadPayloadProxy;
+import io.linuxserver.fleet.v2.client.rest.proxy.ResolvedPayloadProxy;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -35,7 +42,9 @@ import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
@@ -48,16 +57,58 @@ public class RestClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RestClient.class);
 
+    private static final int DefaultMaxConnectionsPerRoute = 2;
+    private static final int DefaultMaxConnectionsTotal    = 20;
+    private static final int OK                            = 200;
+    private static final int NotModified                   = 304;
+    private static final int TooManyRequests               = 429;
+    private static final int MaxThrottledAttempts          = 3;
+
     private final CloseableHttpClient   client;
-    private final HttpClientContext     clientContext;
+    private final RequestGovernor       requestGovernor;
+    private final HttpResponseCache     responseCache;
 
     private MarshallingStrategy         marshallingStrategy;
 
     public RestClient() {
+        this(DefaultMaxConnectionsPerRoute);
+    }
+
+    /**
+     * @param maxConnectionsPerRoute
+     *      The maximum number of pooled connections to hold open against any single host. Should be at least
+     *      as large as the number of threads expected to use this client concurrently.
+     */
+    public RestClient(final int maxConnectionsPerRoute) {
+        this(maxConnectionsPerRoute, RequestGovernor.Unrestricted);
+    }
+
+    /**
+     * @param requestGovernor
+     *      Consulted before every request made by this client, and informed of every response.
+     */
+    public RestClient(final int maxConnectionsPerRoute, final RequestGovernor requestGovernor) {
+        this(maxConnectionsPerRoute, requestGovernor, null);
+    }
+
+    /**
+     * @param responseCache
+     *      If set, GET responses carrying an ETag or Last-Modified header are kept, and later requests for the same
+     *      URL are made conditional. A 304 from the server is then answered from the cache. May be null.
+     */
+    public RestClient(final int maxConnectionsPerRoute, final RequestGovernor requestGovernor, final HttpResponseCache responseCache) {
+
+        this.requestGovernor = requestGovernor;
+        this.responseCache   = responseCache;
+
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setMaxTotal(Math.max(DefaultMaxConnectionsTotal, maxConnectionsPerRoute));
 
         setMarshallingStrategy(new JacksonMarshallingStrategy());
-        client = HttpClients.custom().setConnectionManager(new PoolingHttpClientConnectionManager()).build();
-        clientContext = HttpClientContext.create();
+
+        // The default builder negotiates gzip/deflate and transparently decompresses the entity stream
+        client = HttpClients.custom().setConnectionManager(connectionManager).build();
     }
 
     private void setMarshallingStrategy(MarshallingStrategy marshallingStrategy) {
@@ -67,10 +118,28 @@ public class RestClient {
     }
 
     public <T> RestResponse<T> executeGet(String url, Map<String, String> queryParameters, Map<String, String> headers, Class<T> responseType) {
+        return executeGet(url, queryParameters, headers, makeReader(responseType));
+    }
+
+    /**
+     * <p>
+     * Performs a GET, handing a successful response body to the given reader as it arrives from the server.
+     * </p>
+     */
+    public <T> RestResponse<T> executeGet(String url, Map<String, String> queryParameters, Map<String, String> headers, ResponseStreamReader<T> responseReader) {
+        return executeGet(url, queryParameters, headers, responseReader, AcquireMode.Wait);
+    }
+
+    /**
+     * <p>
+     * As above, but lets the caller decide what should happen if the request governor has no budget left.
+     * </p>
+     */
+    public <T> RestResponse<T> executeGet(String url, Map<String, String> queryParameters, Map<String, String> headers, ResponseStreamReader<T> responseReader, AcquireMode acquireMode) {
 
         try {
 
-            return executeBaseRequest(responseType, headers, new HttpGet(url + parseQueryParameters(queryParameters)));
+            return executeBaseRequest(responseReader, headers, new HttpGet(url + parseQueryParameters(queryParameters)), acquireMode);
 
         } catch (IOException e) {
 
@@ -88,7 +157,7 @@ public class RestClient {
             post.setEntity(new StringEntity(marshallingStrategy.marshall(payload), StandardCharsets.UTF_8));
             post.setHeader("Content-Type", marshallingStrategy.getContentType());
 
-            return executeBaseRequest(responseType, headers, post);
+            return executeBaseRequest(makeReader(responseType), headers, post, AcquireMode.Wait);
 
         } catch (IOException e) {
 
@@ -97,10 +166,17 @@ public class RestClient {
         }
     }
 
-    private <T> RestResponse<T> executeBaseRequest(Class<T> responseType, Map<String, String> headers, HttpRequestBase request) throws IOException {
+    private <T> ResponseStreamReader<T> makeReader(final Class<T> responseType) {
+        return stream -> marshallingStrategy.unmarshall(stream, responseType);
+    }
+
+    private <T> RestResponse<T> executeBaseRequest(ResponseStreamReader<T> responseReader, Map<String, String> headers, HttpRequestBase request, AcquireMode acquireMode) throws IOException {
 
-        LOGGER.debug("url             : " + request.getURI().toString());
-        LOGGER.debug("headers         : " + headers);
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug("url             : " + request.getURI().toString());
+            LOGGER.debug("headers         : " + headers);
+        }
 
         if (headers != null) {
 
@@ -108,31 +184,129 @@ public class RestClient {
                 request.setHeader(header.getKey(), header.getValue());
         }
 
-        LOGGER.debug("Executing.");
-        try (CloseableHttpResponse response = client.execute(request, clientContext)) {
+        final String         cacheKey = isCacheable(request) ? request.getURI().toString() : null;
+        final CachedResponse cached   = null == cacheKey ? null : responseCache.findResponse(cacheKey);
+
+        if (null != cached) {
+
+            if (null != cached.getEntityTag())
+                request.setHeader("If-None-Match", cached.getEntityTag());
+
+            if (null != cached.getLastModified())
+                request.setHeader("If-Modified-Since", cached.getLastModified());
+        }
+
+        int attempt = 0;
+        while (true) {
+
+            requestGovernor.acquire(acquireMode);
 
-            StatusLine statusLine = response.getStatusLine();
-            LOGGER.debug("Response status: " + statusLine);
+            LOGGER.debug("Executing.");
+            try (CloseableHttpResponse response = executeGoverned(request)) {
 
-            int statusCode = statusLine.getStatusCode();
+                requestGovernor.onResponse(response);
 
-            HttpEntity content = response.getEntity();
+                StatusLine statusLine = response.getStatusLine();
+                LOGGER.debug("Response status: " + statusLine);
 
-            String responseBody = null;
-            if (null != content) {
+                // Callers prepared to wait would rather be held back by the governor than see the throttled response
+                if (statusLine.getStatusCode() == TooManyRequests && acquireMode == AcquireMode.Wait && ++attempt < MaxThrottledAttempts) {
 
-                responseBody = EntityUtils.toString(content);
-                LOGGER.debug("Parsed response payload: " + responseBody);
+                    LOGGER.warn("Request to {} was throttled. Retrying once the governor allows it", request.getURI());
+                    EntityUtils.consume(response.getEntity());
+                    continue;
+                }
+
+                if (statusLine.getStatusCode() == NotModified && null != cached) {
+
+                    LOGGER.debug("Not modified, using cached response");
+                    return new RestResponse<>(new ResolvedPayloadProxy<>(responseReader.read(new ByteArrayInputStream(cached.getBody()))), OK);
+                }
+
+                return readResponse(response, responseReader, cacheKey);
+
+            } finally {
+                request.releaseConnection();
             }
+        }
+    }
 
-            if (null != responseBody)
-                return new RestResponse<>(new LazyLoadPayloadProxy<>(marshallingStrategy, responseBody, responseType), statusCode);
+    private CloseableHttpResponse executeGoverned(HttpRequestBase request) throws IOException {
 
+        try {
+            // The client is shared between sync workers, so each request is given its own context
+            return client.execute(request, HttpClientContext.create());
+        } catch (IOException e) {
+
+            requestGovernor.onRequestFailed(e);
+            throw e;
+        }
+    }
+
+    private <T> RestResponse<T> readResponse(CloseableHttpResponse response, ResponseStreamReader<T> responseReader, String cacheKey) throws IOException {
+
+        int statusCode = response.getStatusLine().getStatusCode();
+
+        HttpEntity content = response.getEntity();
+
+        if (null == content)
             return new RestResponse<>(statusCode);
 
-        } finally {
-            request.releaseConnection();
+        if (isSuccessful(statusCode)) {
+
+            try (InputStream stream = content.getContent()) {
+
+                if (null != cacheKey && statusCode == OK)
+                    return new RestResponse<>(new ResolvedPayloadProxy<>(readAndCache(response, stream, responseReader, cacheKey)), statusCode);
+
+                return new RestResponse<>(new ResolvedPayloadProxy<>(responseReader.read(stream)), statusCode);
+            }
+        }
+
+        // Error bodies are small and may not match the expected type, so only decode them if asked to
+        String errorBody = EntityUtils.toString(content);
+        if (LOGGER.isDebugEnabled())
+            LOGGER.debug("Error response payload: " + errorBody);
+
+        return new RestResponse<>(new LazyLoadPayloadProxy<>(errorBody, responseReader), statusCode);
+    }
+
+    private <T> T readAndCache(HttpResponse response, InputStream stream, ResponseStreamReader<T> responseReader, String cacheKey) throws IOException {
+
+        String entityTag    = getHeaderValue(response, "ETag");
+        String lastModified = getHeaderValue(response, "Last-Modified");
+
+        if (null == entityTag && null == lastModified) {
+
+            // Nothing to revalidate against, so anything previously held for this URL is of no further use
+            responseCache.removeResponse(cacheKey);
+            return responseReader.read(stream);
         }
+
+        CapturingInputStream capturingStream = new CapturingInputStream(stream, responseCache.getMaxEntryBytes());
+        T payload = responseReader.read(capturingStream);
+
+        byte[] body = capturingStream.drainAndGetCaptured();
+        if (null != body)
+            responseCache.storeResponse(new CachedResponse(cacheKey, entityTag, lastModified, body));
+        else
+            responseCache.removeResponse(cacheKey);
+
+        return payload;
+    }
+
+    private boolean isCacheable(HttpRequestBase request) {
+        return null != responseCache && request instanceof HttpGet;
+    }
+
+    private String getHeaderValue(HttpResponse response, String headerName) {
+
+        Header header = response.getFirstHeader(headerName);
+        return null == header ? null : header.getValue();
+    }
+
+    private boolean isSuccessful(int statusCode) {
+        return statusCode >= 200 && statusCode < 300;
     }
 
     private String parseQueryParameters(Map<String, String> queryParameters) {
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.cache;
+
+/**
+ * <p>
+ * A previously received response body, along with the validators needed to ask the
+ * server whether or not it has changed since.
+ * </p>
+ */
+public class CachedResponse {
+
+    private final String url;
+    private final String entityTag;
+    private final String lastModified;
+    private final byte[] body;
+
+    public CachedResponse(final String url, final String entityTag, final String lastModified, final byte[] body) {
+
+        this.url          = url;
+        this.entityTag    = entityTag;
+        this.lastModified = lastModified;
+        this.body         = body;
+    }
+
+    public final String getUrl() {
+        return url;
+    }
+
+    public final String getEntityTag() {
+        return entityTag;
+    }
+
+    public final String getLastModified() {
+        return lastModified;
+    }
+
+    public final byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * An approximation of how much memory this entry holds onto.
+     */
+    final long getSize() {
+        return body.length + (url.length() * 2L);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Size-bounded store of response bodies keyed by URL. Once the total size of all bodies exceeds
+ * the configured limit, the least recently used entries are evicted. The cache can be written to
+ * and read back from disk so that it survives restarts.
+ * </p>
+ */
+public class HttpResponseCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpResponseCache.class);
+
+    private static final int FileFormatVersion = 1;
+
+    private final long                                  maxBytes;
+    private final LinkedHashMap<String, CachedResponse> entries;
+
+    private long currentBytes;
+    private long hits;
+    private long misses;
+
+    public HttpResponseCache(final long maxBytes) {
+
+        this.maxBytes = maxBytes;
+        this.entries  = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * <p>
+     * No single body may take up more than a quarter of the cache, otherwise one large listing
+     * would push out everything else.
+     * </p>
+     */
+    public final long getMaxEntryBytes() {
+        return maxBytes / 4;
+    }
+
+    public final synchronized CachedResponse findResponse(final String url) {
+
+        final CachedResponse response = entries.get(url);
+        if (null == response) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return response;
+    }
+
+    public final synchronized void storeResponse(final CachedResponse response) {
+
+        if (response.getSize() > getMaxEntryBytes()) {
+            return;
+        }
+
+        final CachedResponse replaced = entries.put(response.getUrl(), response);
+        if (null != replaced) {
+            currentBytes -= replaced.getSize();
+        }
+        currentBytes += response.getSize();
+
+        evictIfRequired();
+    }
+
+    public final synchronized void removeResponse(final String url) {
+
+        final CachedResponse removed = entries.remove(url);
+        if (null != removed) {
+            currentBytes -= removed.getSize();
+        }
+    }
+
+    public final synchronized int size() {
+        return entries.size();
+    }
+
+    public final synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public final synchronized long getHits() {
+        return hits;
+    }
+
+    public final synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * <p>
+     * Writes all entries to the given file, least recently used first, so reading them back
+     * restores the same eviction order. The file is replaced in a single step.
+     * </p>
+     */
+    public final void writeTo(final Path file) {
+
+        final List<CachedResponse> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries.values());
+        }
+
+        try {
+
+            Files.createDirectories(file.toAbsolutePath().getParent());
+
+            final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+
+                out.writeInt(FileFormatVersion);
+                out.writeInt(snapshot.size());
+
+                for (CachedResponse response : snapshot) {
+
+                    out.writeUTF(response.getUrl());
+                    writeNullableString(out, response.getEntityTag());
+                    writeNullableString(out, response.getLastModified());
+                    out.writeInt(response.getBody().length);
+                    out.write(response.getBody());
+                }
+            }
+
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("Persisted {} cached responses to {}", snapshot.size(), file);
+
+        } catch (IOException e) {
+            LOGGER.warn("Unable to persist response cache to " + file, e);
+        }
+    }
+
+    /**
+     * <p>
+     * Loads entries previously written by {@link #writeTo(Path)}. A missing or unreadable file
+     * simply leaves the cache as it is, as everything in it can be fetched again.
+     * </p>
+     */
+    public final void readFrom(final Path file) {
+
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+
+            final int version = in.readInt();
+            if (version != FileFormatVersion) {
+
+                LOGGER.info("Ignoring response cache file {} written in format {}", file, version);
+                return;
+            }
+
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+
+                final String url          = in.readUTF();
+                final String entityTag    = readNullableString(in);
+                final String lastModified = readNullableString(in);
+                final byte[] body         = new byte[in.readInt()];
+                in.readFully(body);
+
+                storeResponse(new CachedResponse(url, entityTag, lastModified, body));
+            }
+
+            LOGGER.info("Restored {} cached responses from {}", size(), file);
+
+        } catch (IOException e) {
+            LOGGER.warn("Unable to restore response cache from " + file, e);
+        }
+    }
+
+    private void evictIfRequired() {
+
+        final Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+
+            currentBytes -= iterator.next().getValue().getSize();
+            iterator.remove();
+        }
+    }
+
+    private static void writeNullableString(final DataOutputStream out, final String value) throws IOException {
+
+        out.writeBoolean(null != value);
+        if (null != value) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
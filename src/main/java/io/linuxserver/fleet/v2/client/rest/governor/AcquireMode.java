@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.governor;
+
+/**
+ * <p>
+ * How a caller would like to be treated when there is no request budget left.
+ * </p>
+ */
+public enum AcquireMode {
+
+    /**
+     * Block until the governor allows the request through. Suited to background work.
+     */
+    Wait,
+
+    /**
+     * Reject the request immediately. Suited to interactive calls where a user is waiting on the result.
+     */
+    FailFast
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.governor;
+
+import org.apache.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * Wraps another governor and stops all requests to the remote server once it has failed a number of
+ * times in a row, so callers find out straight away rather than each waiting for their own timeout.
+ * Once the open period has passed, a single request is let through as a probe. If it succeeds the
+ * circuit closes again, otherwise it stays open for another period.
+ * </p>
+ * <p>
+ * A failure is a request which received no response at all, or a 5xx response.
+ * </p>
+ */
+public class CircuitBreakingRequestGovernor implements RequestGovernor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreakingRequestGovernor.class);
+
+    private static final int ServerError = 500;
+
+    private final RequestGovernor delegate;
+    private final int             failureThreshold;
+    private final long            openMillis;
+    private final LongSupplier    clock;
+
+    private CircuitState state;
+    private int          consecutiveFailures;
+    private long         openUntil;
+    private long         tripCount;
+    private long         shortCircuitedRequests;
+
+    public CircuitBreakingRequestGovernor(final RequestGovernor delegate, final int failureThreshold, final long openMillis) {
+        this(delegate, failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    CircuitBreakingRequestGovernor(final RequestGovernor delegate, final int failureThreshold, final long openMillis, final LongSupplier clock) {
+
+        this.delegate         = delegate;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis       = Math.max(1, openMillis);
+        this.clock            = clock;
+
+        state = CircuitState.Closed;
+    }
+
+    /**
+     * @throws CircuitOpenException
+     *      If the circuit is open, or a probe is already under way. This is thrown regardless of the mode.
+     */
+    @Override
+    public void acquire(final AcquireMode mode) {
+
+        final boolean isProbe = allowRequest();
+
+        try {
+            delegate.acquire(mode);
+        } catch (RuntimeException e) {
+
+            if (isProbe) {
+                abandonProbe();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void onResponse(final HttpResponse response) {
+
+        delegate.onResponse(response);
+
+        if (response.getStatusLine().getStatusCode() >= ServerError) {
+            recordFailure();
+        } else {
+            recordSuccess();
+        }
+    }
+
+    @Override
+    public void onRequestFailed(final IOException cause) {
+
+        delegate.onRequestFailed(cause);
+        recordFailure();
+    }
+
+    @Override
+    public RequestGovernorStats getStats() {
+        return delegate.getStats();
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * @return
+     *      How long until a probe will next be allowed through, or zero if requests are not currently being refused.
+     */
+    public synchronized long getMillisUntilProbe() {
+        return state == CircuitState.Open ? Math.max(0, openUntil - clock.getAsLong()) : 0;
+    }
+
+    public synchronized long getTripCount() {
+        return tripCount;
+    }
+
+    public synchronized long getShortCircuitedRequests() {
+        return shortCircuitedRequests;
+    }
+
+    /**
+     * @return
+     *      True if the caller has been chosen as the probe.
+     */
+    private synchronized boolean allowRequest() {
+
+        if (state == CircuitState.Closed) {
+            return false;
+        }
+
+        final long now = clock.getAsLong();
+        if (state == CircuitState.Open && now >= openUntil) {
+
+            LOGGER.info("Circuit open period has passed. Letting a probe request through.");
+            state = CircuitState.HalfOpen;
+            return true;
+        }
+
+        shortCircuitedRequests++;
+
+        final long retryAfter = state == CircuitState.Open ? openUntil - now : openMillis;
+        throw new CircuitOpenException("Remote server is failing. Requests are refused for another " + retryAfter + "ms", retryAfter);
+    }
+
+    private synchronized void abandonProbe() {
+
+        // The probe never reached the server, so let the next caller try instead
+        state     = CircuitState.Open;
+        openUntil = clock.getAsLong();
+    }
+
+    private synchronized void recordSuccess() {
+
+        if (state != CircuitState.Closed) {
+            LOGGER.info("Remote server has recovered. Closing circuit.");
+        }
+
+        state               = CircuitState.Closed;
+        consecutiveFailures = 0;
+    }
+
+    private synchronized void recordFailure() {
+
+        consecutiveFailures++;
+
+        if (state == CircuitState.HalfOpen || (state == CircuitState.Closed && consecutiveFailures >= failureThreshold)) {
+
+            LOGGER.warn("Remote server has failed {} time(s) in a row. Opening circuit for {}ms", consecutiveFailures, openMillis);
+
+            state     = CircuitState.Open;
+            openUntil = clock.getAsLong() + openMillis;
+            tripCount++;
+        }
+    }
+}
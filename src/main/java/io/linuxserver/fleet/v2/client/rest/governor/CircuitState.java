@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.governor;
+
+public enum CircuitState {
+
+    /**
+     * Requests are let through as normal.
+     */
+    Closed,
+
+    /**
+     * The remote server is failing, so requests are refused without being attempted.
+     */
+    Open,
+
+    /**
+     * The open period has passed and a single probe request has been let through to see if the server has recovered.
+     */
+    HalfOpen
+}
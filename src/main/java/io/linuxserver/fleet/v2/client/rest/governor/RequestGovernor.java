@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.governor;
+
+import org.apache.http.HttpResponse;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * Controls the rate at which requests are made against a remote API. Every request must
+ * first acquire permission, and every response is handed back so the governor can learn
+ * about the remote server's own limits.
+ * </p>
+ */
+public interface RequestGovernor {
+
+    /**
+     * A governor which never holds back any request.
+     */
+    RequestGovernor Unrestricted = new RequestGovernor() {
+
+        @Override
+        public void acquire(final AcquireMode mode) {
+        }
+
+        @Override
+        public void onResponse(final HttpResponse response) {
+        }
+
+        @Override
+        public void onRequestFailed(final IOException cause) {
+        }
+
+        @Override
+        public RequestGovernorStats getStats() {
+            return RequestGovernorStats.Unrestricted;
+        }
+    };
+
+    /**
+     * @throws RateLimitExceededException
+     *      If the mode is {@link AcquireMode#FailFast} and there is no budget available, or
+     *      if the caller was interrupted while waiting for budget.
+     */
+    void acquire(final AcquireMode mode);
+
+    void onResponse(final HttpResponse response);
+
+    /**
+     * Called instead of {@link #onResponse(HttpResponse)} when no response was received at all.
+     */
+    void onRequestFailed(final IOException cause);
+
+    RequestGovernorStats getStats();
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.governor;
+
+/**
+ * <p>
+ * Point-in-time view of a {@link RequestGovernor}, for display purposes. Values which
+ * the remote server has not reported are held as -1.
+ * </p>
+ */
+public class RequestGovernorStats {
+
+    static final RequestGovernorStats Unrestricted = new RequestGovernorStats(-1, -1, -1, -1, -1, 0, 0, 0, 0);
+
+    private final int  availableTokens;
+    private final int  capacity;
+    private final int  requestsPerMinute;
+    private final int  remainingBudget;
+    private final int  budgetLimit;
+    private final int  queuedRequests;
+    private final long throttledResponses;
+    private final long rejectedRequests;
+    private final long blockedForSeconds;
+
+    public RequestGovernorStats(final int  availableTokens,
+                                final int  capacity,
+                                final int  requestsPerMinute,
+                                final int  remainingBudget,
+                                final int  budgetLimit,
+                                final int  queuedRequests,
+                                final long throttledResponses,
+                                final long rejectedRequests,
+                                final long blockedForSeconds) {
+
+        this.availableTokens    = availableTokens;
+        this.capacity           = capacity;
+        this.requestsPerMinute  = requestsPerMinute;
+        this.remainingBudget    = remainingBudget;
+        this.budgetLimit        = budgetLimit;
+        this.queuedRequests     = queuedRequests;
+        this.throttledResponses = throttledResponses;
+        this.rejectedRequests   = rejectedRequests;
+        this.blockedForSeconds  = blockedForSeconds;
+    }
+
+    public final boolean isRestricted() {
+        return capacity >= 0;
+    }
+
+    public final int getAvailableTokens() {
+        return availableTokens;
+    }
+
+    public final int getCapacity() {
+        return capacity;
+    }
+
+    public final int getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    public final int getRemainingBudget() {
+        return remainingBudget;
+    }
+
+    public final int getBudgetLimit() {
+        return budgetLimit;
+    }
+
+    public final int getQueuedRequests() {
+        return queuedRequests;
+    }
+
+    public final long getThrottledResponses() {
+        return throttledResponses;
+    }
+
+    public final long getRejectedRequests() {
+        return rejectedRequests;
+    }
+
+    public final long getBlockedForSeconds() {
+        return blockedForSeconds;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.governor;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.utils.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * Token bucket which starts out refilling at a configured rate, then adapts to whatever the remote
+ * server reports through its <code>X-RateLimit-*</code> headers by spreading the remaining budget
+ * evenly over what is left of the current window. A throttled response, or one carrying
+ * <code>Retry-After</code>, empties the bucket and holds every caller back until the server
+ * says it is safe to continue.
+ * </p>
+ */
+public class TokenBucketRequestGovernor implements RequestGovernor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenBucketRequestGovernor.class);
+
+    private static final int    TooManyRequests         = 429;
+    private static final int    ServiceUnavailable      = 503;
+    private static final long   DefaultRetryAfterMillis = 60_000;
+    private static final double MinimumRefillPerSecond  = 0.05;
+
+    private final double       capacity;
+    private final double       configuredRefillPerSecond;
+    private final LongSupplier clock;
+
+    private final AtomicInteger queuedRequests;
+    private final AtomicLong    throttledResponses;
+    private final AtomicLong    rejectedRequests;
+
+    private double tokens;
+    private double refillPerSecond;
+    private long   lastRefillTime;
+    private long   blockedUntil;
+    private long   windowResetTime;
+    private int    remainingBudget;
+    private int    budgetLimit;
+
+    public TokenBucketRequestGovernor(final int requestsPerMinute, final int burst) {
+        this(requestsPerMinute, burst, System::currentTimeMillis);
+    }
+
+    TokenBucketRequestGovernor(final int requestsPerMinute, final int burst, final LongSupplier clock) {
+
+        this.capacity                  = Math.max(1, burst);
+        this.configuredRefillPerSecond = Math.max(MinimumRefillPerSecond, requestsPerMinute / 60.0);
+        this.clock                     = clock;
+
+        queuedRequests     = new AtomicInteger();
+        throttledResponses = new AtomicLong();
+        rejectedRequests   = new AtomicLong();
+
+        tokens          = capacity;
+        refillPerSecond = configuredRefillPerSecond;
+        lastRefillTime  = clock.getAsLong();
+        remainingBudget = -1;
+        budgetLimit     = -1;
+    }
+
+    @Override
+    public void acquire(final AcquireMode mode) {
+
+        queuedRequests.incrementAndGet();
+
+        try {
+
+            long waitMillis;
+            while ((waitMillis = tryTakeToken()) > 0) {
+
+                if (mode == AcquireMode.FailFast) {
+
+                    rejectedRequests.incrementAndGet();
+                    throw new RateLimitExceededException("No request budget available for another " + waitMillis + "ms", waitMillis);
+                }
+
+                Thread.sleep(waitMillis);
+            }
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new RateLimitExceededException("Interrupted while waiting for request budget", 0);
+
+        } finally {
+            queuedRequests.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void onResponse(final HttpResponse response) {
+
+        final long    now        = clock.getAsLong();
+        final int     statusCode = response.getStatusLine().getStatusCode();
+        final Long    limit      = parseNumber(response.getFirstHeader("X-RateLimit-Limit"));
+        final Long    remaining  = parseNumber(response.getFirstHeader("X-RateLimit-Remaining"));
+        final Long    resetEpoch = parseNumber(response.getFirstHeader("X-RateLimit-Reset"));
+        final Long    retryAfter = parseRetryAfter(response.getFirstHeader("Retry-After"), now);
+
+        synchronized (this) {
+
+            refill(now);
+
+            if (null != limit) {
+                budgetLimit = limit.intValue();
+            }
+
+            if (null != remaining) {
+
+                remainingBudget = remaining.intValue();
+                tokens          = Math.min(tokens, remaining);
+
+                final long resetTime = null == resetEpoch ? 0 : resetEpoch * 1000;
+                if (resetTime > now) {
+
+                    windowResetTime = resetTime;
+                    refillPerSecond = Math.max(MinimumRefillPerSecond, remaining * 1000.0 / (resetTime - now));
+
+                    if (remaining == 0L) {
+                        blockedUntil = Math.max(blockedUntil, resetTime);
+                    }
+                }
+            }
+
+            final boolean throttled = statusCode == TooManyRequests;
+            if (throttled || (statusCode == ServiceUnavailable && null != retryAfter)) {
+
+                tokens       = 0;
+                blockedUntil = Math.max(blockedUntil, now + (null == retryAfter ? DefaultRetryAfterMillis : retryAfter));
+
+                if (null == remaining) {
+                    refillPerSecond = Math.max(MinimumRefillPerSecond, refillPerSecond / 2);
+                }
+            }
+
+            if (throttled) {
+
+                throttledResponses.incrementAndGet();
+                LOGGER.warn("Request was throttled. Holding back further requests for {}ms", blockedUntil - now);
+            }
+        }
+    }
+
+    /**
+     * Requests which never reached the server tell us nothing about its limits.
+     */
+    @Override
+    public void onRequestFailed(final IOException cause) {
+        // Nothing to learn
+    }
+
+    @Override
+    public synchronized RequestGovernorStats getStats() {
+
+        final long now = clock.getAsLong();
+        refill(now);
+
+        return new RequestGovernorStats((int) tokens,
+                                        (int) capacity,
+                                        (int) Math.round(refillPerSecond * 60),
+                                        remainingBudget,
+                                        budgetLimit,
+                                        queuedRequests.get(),
+                                        throttledResponses.get(),
+                                        rejectedRequests.get(),
+                                        Math.max(0, (blockedUntil - now) / 1000));
+    }
+
+    /**
+     * @return
+     *      Zero if a token was taken, otherwise the number of milliseconds until one is expected to be available.
+     */
+    private synchronized long tryTakeToken() {
+
+        final long now = clock.getAsLong();
+        refill(now);
+
+        if (now < blockedUntil) {
+            return blockedUntil - now;
+        }
+
+        if (tokens >= 1) {
+
+            tokens--;
+            if (remainingBudget > 0) {
+                remainingBudget--;
+            }
+            return 0;
+        }
+
+        return Math.max(1, (long) Math.ceil((1 - tokens) * 1000 / refillPerSecond));
+    }
+
+    private void refill(final long now) {
+
+        if (windowResetTime > 0 && now >= windowResetTime) {
+
+            // The server's window has rolled over, so anything learned about it no longer applies
+            windowResetTime = 0;
+            remainingBudget = -1;
+            refillPerSecond = configuredRefillPerSecond;
+        }
+
+        if (now > lastRefillTime) {
+
+            tokens         = Math.min(capacity, tokens + (now - lastRefillTime) * refillPerSecond / 1000);
+            lastRefillTime = now;
+        }
+    }
+
+    private static Long parseNumber(final Header header) {
+
+        if (null == header) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(header.getValue().trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ignoring malformed {} header: {}", header.getName(), header.getValue());
+            return null;
+        }
+    }
+
+    /**
+     * <p>
+     * Retry-After may either be a number of seconds or an HTTP date.
+     * </p>
+     */
+    private static Long parseRetryAfter(final Header header, final long now) {
+
+        final Long seconds = null == header || !header.getValue().trim().matches("\\d+") ? null : parseNumber(header);
+        if (null != seconds) {
+            return seconds * 1000;
+        }
+
+        final Date date = null == header ? null : DateUtils.parseDate(header.getValue());
+        return null == date ? null : Math.max(0, date.getTime() - now);
+    }
+}
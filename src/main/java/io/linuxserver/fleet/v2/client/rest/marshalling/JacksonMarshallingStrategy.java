@@ -22,6 +22,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Jackson JSON implementation of the marshalling strategy. This will convert incoming
@@ -41,6 +42,11 @@ public class JacksonMarshallingStrategy implements MarshallingStrategy {
         return OBJECT_MAPPER.readValue(value, classType);
     }
 
+    @Override
+    public <T> T unmarshall(InputStream stream, Class<T> classType) throws IOException {
+        return OBJECT_MAPPER.readValue(stream, classType);
+    }
+
     @Override
     public String marshall(Object value) throws JsonProcessingException {
         return OBJECT_MAPPER.writeValueAsString(value);
@@ -1,6 +1,7 @@
 package io.linuxserver.fleet.v2.client.rest.marshalling;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 public interface MarshallingStrategy {
 
@@ -17,6 +18,14 @@ public interface MarshallingStrategy {
      */
     <T> T unmarshall(String value, Class<T> classType) throws IOException;
 
+    /**
+     * <p>
+     * Converts the contents of a stream into an object of the given type, reading
+     * the stream as it goes rather than buffering it first.
+     * </p>
+     */
+    <T> T unmarshall(InputStream stream, Class<T> classType) throws IOException;
+
     /**
      * <p>
      * Converts an object into a single representative string value.
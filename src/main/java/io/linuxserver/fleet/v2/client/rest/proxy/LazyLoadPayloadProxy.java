@@ -18,28 +18,28 @@
 package io.linuxserver.fleet.v2.client.rest.proxy;
 
 import io.linuxserver.fleet.v2.client.rest.HttpException;
-import io.linuxserver.fleet.v2.client.rest.marshalling.MarshallingStrategy;
+import io.linuxserver.fleet.v2.client.rest.ResponseStreamReader;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 public class LazyLoadPayloadProxy<T> implements PayloadProxy<T> {
 
-    private final MarshallingStrategy   marshallingStrategy;
-    private final String                payload;
-    private final Class<T>              payloadType;
+    private final String                  payload;
+    private final ResponseStreamReader<T> payloadReader;
 
-    public LazyLoadPayloadProxy(MarshallingStrategy marshallingStrategy, String payload, Class<T> payloadType) {
+    public LazyLoadPayloadProxy(String payload, ResponseStreamReader<T> payloadReader) {
 
-        this.marshallingStrategy    = marshallingStrategy;
-        this.payload                = payload;
-        this.payloadType            = payloadType;
+        this.payload       = payload;
+        this.payloadReader = payloadReader;
     }
 
     @Override
     public T get() {
 
         try {
-            return marshallingStrategy.unmarshall(payload, payloadType);
+            return payloadReader.read(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)));
         } catch (IOException e) {
             throw new HttpException("Unable to unmarshall response payload", e);
         }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.db;
+
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+
+import java.util.List;
+import java.util.Set;
+
+public interface ClusterDAO {
+
+    void heartbeat(final String nodeId);
+
+    /**
+     * @return
+     *      Every node which has sent a heartbeat within the given number of seconds.
+     */
+    List<String> fetchLiveNodes(final int expirySeconds);
+
+    /**
+     * @return
+     *      The repositories whose leases are now held by the node. Leases still held by other nodes are left alone.
+     *      All of the leases are claimed or renewed together in a single call.
+     */
+    Set<RepositoryKey> claimLeases(final List<RepositoryKey> repositoryKeys, final String nodeId, final int leaseSeconds);
+
+    void releaseLeases(final List<RepositoryKey> repositoryKeys, final String nodeId);
+
+    /**
+     * @return
+     *      The fencing token of the lead if the node now holds it, or 0 if another node does.
+     */
+    long acquireLeadership(final String nodeId, final int leaseSeconds);
+
+    boolean isLeadershipCurrent(final String nodeId, final long fencingToken);
+
+    /**
+     * Removes the node and releases every lease it holds, including the lead.
+     */
+    void leave(final String nodeId);
+}
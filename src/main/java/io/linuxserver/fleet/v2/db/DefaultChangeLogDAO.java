@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.db;
+
+import io.linuxserver.fleet.core.db.DatabaseProvider;
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.types.internal.ChangeLogEntry;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DefaultChangeLogDAO extends AbstractDAO implements ChangeLogDAO {
+
+    private static final String GetLatestSequence = "{CALL ChangeLog_GetLatestSequence()}";
+    private static final String GetSince          = "{CALL ChangeLog_GetSince(?,?)}";
+    private static final String Prune             = "{CALL ChangeLog_Prune(?)}";
+
+    public DefaultChangeLogDAO(final DatabaseProvider databaseProvider) {
+        super(databaseProvider);
+    }
+
+    @Override
+    public long fetchLatestSequence() {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(GetLatestSequence)) {
+
+                final ResultSet results = call.executeQuery();
+                return results.next() ? results.getLong("LatestSequence") : 0;
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: fetchLatestSequence", e);
+            throw new RuntimeException("fetchLatestSequence", e);
+        }
+    }
+
+    @Override
+    public List<ChangeLogEntry> fetchChangesSince(final long sequence, final int limit) {
+
+        final List<ChangeLogEntry> entries = new ArrayList<>();
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(GetSince)) {
+
+                call.setLong(1, sequence);
+                call.setInt( 2, limit);
+
+                final ResultSet results = call.executeQuery();
+                while (results.next()) {
+                    entries.add(makeOneEntry(results));
+                }
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: fetchChangesSince", e);
+            throw new RuntimeException("fetchChangesSince", e);
+        }
+
+        return entries;
+    }
+
+    @Override
+    public void pruneChangesBefore(final LocalDateTime before) {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(Prune)) {
+
+                call.setTimestamp(1, Timestamp.valueOf(before));
+                call.executeUpdate();
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: pruneChangesBefore", e);
+            throw new RuntimeException("pruneChangesBefore", e);
+        }
+    }
+
+    private ChangeLogEntry makeOneEntry(final ResultSet results) throws SQLException {
+
+        final RepositoryKey repositoryKey = new RepositoryKey(results.getInt("RepositoryId"), results.getString("RepositoryName"));
+
+        final int      imageId  = results.getInt("ImageId");
+        final ImageKey imageKey = results.wasNull() ? null : new ImageKey(imageId, results.getString("ImageName"), repositoryKey);
+
+        return new ChangeLogEntry(results.getLong("ChangeSequence"),
+                                  repositoryKey,
+                                  imageKey,
+                                  results.getString("ChangeOrigin"));
+    }
+}
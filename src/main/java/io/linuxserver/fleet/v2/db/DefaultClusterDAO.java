@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.db;
+
+import io.linuxserver.fleet.core.db.DatabaseProvider;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class DefaultClusterDAO extends AbstractDAO implements ClusterDAO {
+
+    private static final String Heartbeat    = "{CALL ClusterNode_Heartbeat(?)}";
+    private static final String GetLiveNodes = "{CALL ClusterNode_GetLive(?)}";
+    private static final String Leave        = "{CALL ClusterNode_Leave(?)}";
+    private static final String ClaimLeases  = "{CALL ShardLease_ClaimAll(?,?,?)}";
+    private static final String ReleaseLease = "{CALL ShardLease_Release(?,?)}";
+    private static final String AcquireLead  = "{CALL ClusterLeader_Acquire(?,?,?)}";
+    private static final String IsLeadValid  = "{CALL ClusterLeader_IsCurrent(?,?,?)}";
+
+    public DefaultClusterDAO(final DatabaseProvider databaseProvider) {
+        super(databaseProvider);
+    }
+
+    @Override
+    public void heartbeat(final String nodeId) {
+        callForNode(Heartbeat, nodeId, "heartbeat");
+    }
+
+    @Override
+    public List<String> fetchLiveNodes(final int expirySeconds) {
+
+        final List<String> nodes = new ArrayList<>();
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(GetLiveNodes)) {
+
+                call.setInt(1, expirySeconds);
+
+                final ResultSet results = call.executeQuery();
+                while (results.next()) {
+                    nodes.add(results.getString("NodeId"));
+                }
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: fetchLiveNodes", e);
+            throw new RuntimeException("fetchLiveNodes", e);
+        }
+
+        return nodes;
+    }
+
+    @Override
+    public Set<RepositoryKey> claimLeases(final List<RepositoryKey> repositoryKeys, final String nodeId, final int leaseSeconds) {
+
+        final Set<RepositoryKey> claimed = new HashSet<>();
+        if (repositoryKeys.isEmpty()) {
+            return claimed;
+        }
+
+        final Map<Integer, RepositoryKey> keysById = new HashMap<>();
+        repositoryKeys.forEach(key -> keysById.put(key.getId(), key));
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(ClaimLeases)) {
+
+                int i = 1;
+                call.setString(i++, keysById.keySet().stream().map(String::valueOf).collect(Collectors.joining(",")));
+                call.setString(i++, nodeId);
+                call.setInt(   i,   leaseSeconds);
+
+                final ResultSet results = call.executeQuery();
+                while (results.next()) {
+
+                    final RepositoryKey repositoryKey = keysById.get(results.getInt("RepositoryId"));
+                    if (null != repositoryKey) {
+                        claimed.add(repositoryKey);
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: claimLeases", e);
+            throw new RuntimeException("claimLeases", e);
+        }
+
+        return claimed;
+    }
+
+    @Override
+    public void releaseLeases(final List<RepositoryKey> repositoryKeys, final String nodeId) {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(ReleaseLease)) {
+
+                for (RepositoryKey repositoryKey : repositoryKeys) {
+
+                    call.setInt(   1, repositoryKey.getId());
+                    call.setString(2, nodeId);
+
+                    call.addBatch();
+                }
+
+                call.executeBatch();
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: releaseLeases", e);
+            throw new RuntimeException("releaseLeases", e);
+        }
+    }
+
+    @Override
+    public long acquireLeadership(final String nodeId, final int leaseSeconds) {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(AcquireLead)) {
+
+                call.setString(1, nodeId);
+                call.setInt(   2, leaseSeconds);
+                call.registerOutParameter(3, Types.BIGINT);
+
+                call.execute();
+                return call.getLong(3);
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: acquireLeadership", e);
+            throw new RuntimeException("acquireLeadership", e);
+        }
+    }
+
+    @Override
+    public boolean isLeadershipCurrent(final String nodeId, final long fencingToken) {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(IsLeadValid)) {
+
+                call.setString(1, nodeId);
+                call.setLong(  2, fencingToken);
+                call.registerOutParameter(3, Types.BOOLEAN);
+
+                call.execute();
+                return call.getBoolean(3);
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: isLeadershipCurrent", e);
+            throw new RuntimeException("isLeadershipCurrent", e);
+        }
+    }
+
+    @Override
+    public void leave(final String nodeId) {
+        callForNode(Leave, nodeId, "leave");
+    }
+
+    private void callForNode(final String sql, final String nodeId, final String operation) {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(sql)) {
+
+                call.setString(1, nodeId);
+                call.execute();
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: " + operation, e);
+            throw new RuntimeException(operation, e);
+        }
+    }
+}
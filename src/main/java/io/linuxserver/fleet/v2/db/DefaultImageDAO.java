@@ -25,24 +25,22 @@ import io.linuxserver.fleet.v2.key.ImageKey;
 import io.linuxserver.fleet.v2.key.RepositoryKey;
 import io.linuxserver.fleet.v2.key.TagBranchKey;
 import io.linuxserver.fleet.v2.types.*;
+import io.linuxserver.fleet.v2.types.internal.CatalogueSummary;
 import io.linuxserver.fleet.v2.types.internal.ImageOutlineRequest;
 import io.linuxserver.fleet.v2.types.internal.RepositoryOutlineRequest;
 import io.linuxserver.fleet.v2.types.internal.TagBranchOutlineRequest;
 import io.linuxserver.fleet.v2.types.meta.*;
 import io.linuxserver.fleet.v2.types.meta.history.ImagePullHistory;
 import io.linuxserver.fleet.v2.types.meta.history.ImagePullStatistic;
+import io.linuxserver.fleet.v2.types.meta.template.ImageTemplateHolder;
 
 import java.sql.*;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
 
-    private static final String GetRepositoryKeys        = "{CALL Repository_GetRepositoryKeys()}";
     private static final String GetRepository            = "{CALL Repository_Get(?)}";
     private static final String DeleteRepository         = "{CALL Repository_Delete(?,?)}";
     private static final String GetImageKeys             = "{CALL Repository_GetImageKeys(?)}";
@@ -50,6 +48,7 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
     private static final String StoreRepository          = "{CALL Repository_Store(?,?,?,?)}";
 
     private static final String StoreImage             = "{CALL Image_Store(?,?,?,?,?,?,?,?,?,?,?)}";
+    private static final String StoreImageStats        = "{CALL Image_StoreStats(?,?,?,?,?)}";
     private static final String CreateTagBranchOutline = "{CALL Image_CreateTagBranchOutline(?,?)}";
     private static final String RemoveOrphanBranches   = "{CALL Image_RemoveOrphanBranches(?,?)}";
     private static final String StoreTagBranch         = "{CALL Image_StoreTagBranch(?,?,?,?)}";
@@ -65,11 +64,33 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
     private static final String StoreCoreMetaData      = "{CALL Image_StoreCoreMetaData(?,?,?,?,?)}";
     private static final String StoreExternalUrl       = "{CALL Image_StoreExternalUrl(?,?,?,?,?)}";
 
+    private static final String GetAllRepositories     = "{CALL Repository_GetAll()}";
+    private static final String GetAllImages           = "{CALL Image_GetAll()}";
+    private static final String GetAllTagBranches      = "{CALL Image_GetAllTagBranches()}";
+    private static final String GetAllTagDigests       = "{CALL Image_GetAllTagDigests()}";
+    private static final String GetAllImageStats       = "{CALL Image_GetAllStats()}";
+    private static final String GetAllExternalUrls     = "{CALL Image_GetAllExternalUrls()}";
+
+    private static final String GetCatalogueSummary    = "{CALL Catalogue_GetSummary()}";
+    private static final String GetChangedRepositories = "{CALL Repository_GetModifiedSince(?)}";
+    private static final String GetChangedImages       = "{CALL Image_GetModifiedSince(?)}";
+
+    private static final String RecordChange           = "{CALL ChangeLog_Record(?,?,?,?,?)}";
+
+    private static final int DeadlockErrorCode        = 1213;
+    private static final int LockWaitTimeoutErrorCode = 1205;
+
     private final ImageTemplateFactory templateFactory;
+    private final String               changeOrigin;
 
-    public DefaultImageDAO(final DatabaseProvider databaseConnection) {
+    /**
+     * @param changeOrigin
+     *      Recorded against each change written to the change log, so this node can tell its own changes apart from others'.
+     */
+    public DefaultImageDAO(final DatabaseProvider databaseConnection, final String changeOrigin) {
         super(databaseConnection);
         this.templateFactory = new ImageTemplateFactory();
+        this.changeOrigin    = changeOrigin;
     }
 
     @Override
@@ -86,12 +107,140 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
         }
     }
 
+    @Override
+    public List<Image> fetchImages(final List<ImageKey> imageKeys) {
+
+        try (final Connection connection = getConnection()) {
+
+            return makeImages(imageKeys, connection);
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: fetchImages", e);
+            throw new RuntimeException("fetchImages", e);
+        }
+    }
+
     @Override
     public InsertUpdateResult<Image> storeImage(final Image image) {
+        return writeInTransaction("storeImage", connection -> storeImage(connection, image));
+    }
+
+    @Override
+    public List<InsertUpdateResult<Image>> storeImages(final List<Image> images) {
+
+        final List<InsertUpdateResult<Image>> results = new ArrayList<>();
 
         try (final Connection connection = getConnection()) {
 
-            try (final CallableStatement call = connection.prepareCall(StoreImage)) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+
+                for (Image image : images) {
+
+                    // Anything already written for a failed image is undone, so the rest of the batch can carry on
+                    final Savepoint savepoint = connection.setSavepoint();
+                    try {
+
+                        final InsertUpdateResult<Image> result = storeImage(connection, image);
+                        if (result.isError()) {
+                            connection.rollback(savepoint);
+                        } else {
+                            connection.releaseSavepoint(savepoint);
+                        }
+                        results.add(result);
+
+                    } catch (SQLException e) {
+
+                        // The server has already rolled back the whole transaction, including earlier images
+                        if (isTransactionAborted(e)) {
+                            throw e;
+                        }
+
+                        getLogger().error("Error caught when executing SQL: storeImages ({})", image, e);
+
+                        connection.rollback(savepoint);
+                        results.add(new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage()));
+                    }
+                }
+
+                connection.commit();
+
+            } catch (SQLException e) {
+
+                connection.rollback();
+                throw e;
+
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: storeImages", e);
+
+            results.clear();
+            images.forEach(image -> results.add(new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage())));
+        }
+
+        return results;
+    }
+
+    /**
+     * @return
+     *      true if the error was a deadlock or lock wait timeout, after which the server has rolled back the
+     *      whole transaction rather than just the failed statement.
+     */
+    private static boolean isTransactionAborted(final SQLException e) {
+        return "40001".equals(e.getSQLState()) || e.getErrorCode() == DeadlockErrorCode || e.getErrorCode() == LockWaitTimeoutErrorCode;
+    }
+
+    private InsertUpdateResult<Image> storeImage(final Connection connection, final Image image) throws SQLException {
+
+        try (final CallableStatement call = connection.prepareCall(StoreImage)) {
+
+            int i = 1;
+
+            call.setInt(i++, image.getKey().getId());
+            call.setLong(i++, image.getPullCount());
+            call.setInt(i++, image.getStarCount());
+            Utils.setNullableString(call, i++, image.getDescription());
+            Utils.setNullableTimestamp(call, i++, image.getLastUpdated());
+
+            call.setBoolean(i++, image.isDeprecated());
+            call.setBoolean(i++, image.isHidden());
+            call.setBoolean(i++, image.isStable());
+            call.setBoolean(i++, image.isSyncEnabled());
+            Utils.setNullableString(call, i++, image.getVersionMask());
+
+            call.registerOutParameter(i, Types.VARCHAR);
+
+            final ResultSet results = call.executeQuery();
+
+            final DbUpdateStatus status = DbUpdateStatus.valueOf(call.getString(i));
+            if (status.isNoChange()) {
+                getLogger().warn("storeImage attempted to update an image which did not exist in the database: {}", image);
+            } else if (results.next()) {
+
+                final ImageKey storedKey = makeImageKey(results);
+
+                storeTagBranches(connection, image);
+                recordChange(connection, storedKey);
+                return new InsertUpdateResult<>(makeImage(storedKey, connection));
+            }
+
+            return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, "storeImage did not return anything.");
+        }
+    }
+
+    @Override
+    public InsertUpdateResult<Image> storeImageStats(final Image image) {
+
+        return writeInTransaction("storeImageStats", connection -> {
+
+            try (final CallableStatement call = connection.prepareCall(StoreImageStats)) {
 
                 int i = 1;
 
@@ -99,13 +248,6 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
                 call.setLong(i++, image.getPullCount());
                 call.setInt(i++, image.getStarCount());
                 Utils.setNullableString(call, i++, image.getDescription());
-                Utils.setNullableTimestamp(call, i++, image.getLastUpdated());
-
-                call.setBoolean(i++, image.isDeprecated());
-                call.setBoolean(i++, image.isHidden());
-                call.setBoolean(i++, image.isStable());
-                call.setBoolean(i++, image.isSyncEnabled());
-                Utils.setNullableString(call, i++, image.getVersionMask());
 
                 call.registerOutParameter(i, Types.VARCHAR);
 
@@ -113,47 +255,39 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
 
                 final DbUpdateStatus status = DbUpdateStatus.valueOf(call.getString(i));
                 if (status.isNoChange()) {
-                    getLogger().warn("storeImage attempted to update an image which did not exist in the database: {}", image);
+                    getLogger().warn("storeImageStats attempted to update an image which did not exist in the database: {}", image);
                 } else if (results.next()) {
 
-                    storeTagBranches(connection, image);
-                    return new InsertUpdateResult<>(makeImage(makeImageKey(results), connection));
+                    final ImageKey storedKey = makeImageKey(results);
+
+                    recordChange(connection, storedKey);
+                    return new InsertUpdateResult<>(makeImage(storedKey, connection));
                 }
 
-                return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, "storeImage did not return anything.");
+                return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, "storeImageStats did not return anything.");
             }
-
-        } catch (SQLException e) {
-
-            getLogger().error("Error caught when executing SQL: storeImage", e);
-            return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage());
-        }
+        });
     }
 
     @Override
     public InsertUpdateResult<Image> storeImageMetaData(final Image image) {
 
-        try (final Connection connection = getConnection()) {
+        return writeInTransaction("storeImageMetaData", connection -> {
 
             storeCoreMetaData(connection, image);
             storeExternalUrls(connection, image);
 
             templateFactory.storeImageTemplates(connection, image);
 
+            recordChange(connection, image.getKey());
             return new InsertUpdateResult<>(makeImage(image.getKey(), connection));
-
-        } catch (SQLException e) {
-
-            getLogger().error("Error caught when executing SQL: storeImageMetaData", e);
-            return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage());
-        }
-
+        });
     }
 
     @Override
     public InsertUpdateResult<Image> createImageOutline(final ImageOutlineRequest request) {
 
-        try (final Connection connection = getConnection()) {
+        return writeInTransaction("createImageOutline", connection -> {
 
             try (final CallableStatement call = connection.prepareCall(CreateImageOutline)) {
 
@@ -179,23 +313,22 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
                 }
 
                 if (results.next()) {
-                    return new InsertUpdateResult<>(makeImage(makeImageKey(results), connection));
+
+                    final ImageKey imageKey = makeImageKey(results);
+
+                    recordChange(connection, imageKey);
+                    return new InsertUpdateResult<>(makeImage(imageKey, connection));
                 }
 
                 return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, "createImageOutline did not return anything.");
             }
-
-        } catch (SQLException e) {
-
-            getLogger().error("Error caught when executing SQL: createImageOutline", e);
-            return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage());
-        }
+        });
     }
 
     @Override
     public InsertUpdateResult<TagBranch> createTagBranchOutline(final TagBranchOutlineRequest request) {
 
-        try (final Connection connection = getConnection()) {
+        return writeInTransaction("createTagBranchOutline", connection -> {
 
             try (final CallableStatement call = connection.prepareCall(CreateTagBranchOutline)) {
 
@@ -205,23 +338,22 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
 
                 final ResultSet results = call.executeQuery();
                 if (results.next()) {
-                    return new InsertUpdateResult<>(makeTagBranch(results, connection, request.getImageKey()));
+
+                    final TagBranch tagBranch = makeTagBranch(results, connection, request.getImageKey());
+
+                    recordChange(connection, request.getImageKey());
+                    return new InsertUpdateResult<>(tagBranch);
                 }
 
                 return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, "createTagBranchOutline did not return anything.");
             }
-
-        } catch (SQLException e) {
-
-            getLogger().error("Error caught when executing SQL: createTagBranchOutline", e);
-            return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage());
-        }
+        });
     }
 
     @Override
     public InsertUpdateResult<Void> removeImage(final Image image) {
 
-        try (final Connection connection = getConnection()) {
+        return writeInTransaction("removeImage", connection -> {
 
             try (final CallableStatement call = connection.prepareCall(DeleteImage)) {
 
@@ -236,14 +368,10 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
                     return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, "Unable to remove image " + image);
                 }
 
+                recordChange(connection, image.getKey());
                 return new InsertUpdateResult<>(null);
             }
-
-        } catch (SQLException e) {
-
-            getLogger().error("Error caught when executing SQL: removeImage", e);
-            return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage());
-        }
+        });
     }
 
     @Override
@@ -261,7 +389,7 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
     @Override
     public InsertUpdateResult<Repository> createRepositoryOutline(final RepositoryOutlineRequest request) {
 
-        try (final Connection connection = getConnection()) {
+        return writeInTransaction("createRepositoryOutline", connection -> {
 
             try (final CallableStatement call = connection.prepareCall(CreateRepositoryOutline)) {
 
@@ -285,48 +413,135 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
                 }
 
                 if (results.next()) {
-                    return new InsertUpdateResult<>(makeRepository(makeRepositoryKey(results), connection));
+
+                    final RepositoryKey repositoryKey = makeRepositoryKey(results);
+
+                    recordChange(connection, repositoryKey);
+                    return new InsertUpdateResult<>(makeRepository(repositoryKey, connection));
                 }
 
                 return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, "createRepositoryOutline did not return anything.");
 
             }
+        });
+    }
+
+    @Override
+    public List<Repository> fetchAllRepositories() {
+
+        try (final Connection connection = getConnection()) {
+
+            final Map<Integer, Repository> repositories = makeAllRepositories(connection);
+            final Map<Integer, Image>      images       = makeAllImages(connection);
+
+            enrichAllImagesWithTagBranches(images, connection);
+
+            final Map<Integer, List<Image>> imagesByRepository = new HashMap<>();
+            for (Image image : images.values()) {
+                imagesByRepository.computeIfAbsent(image.getRepositoryKey().getId(), id -> new ArrayList<>()).add(image);
+            }
+
+            for (Map.Entry<Integer, List<Image>> entry : imagesByRepository.entrySet()) {
+
+                final Repository repository = repositories.get(entry.getKey());
+                if (null != repository) {
+                    repository.addImages(entry.getValue());
+                } else {
+                    getLogger().warn("fetchAllRepositories found images for unknown repository {}. Skipping.", entry.getKey());
+                }
+            }
+
+            return new ArrayList<>(repositories.values());
 
         } catch (SQLException e) {
 
-            getLogger().error("Error caught when executing SQL: createRepositoryOutline", e);
-            return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage());
+            getLogger().error("Error caught when executing SQL: fetchAllRepositories", e);
+            throw new RuntimeException("fetchAllRepositories", e);
         }
     }
 
     @Override
-    public List<Repository> fetchAllRepositories() {
+    public CatalogueSummary fetchCatalogueSummary() {
 
         try (final Connection connection = getConnection()) {
 
-            try (final CallableStatement call = connection.prepareCall(GetRepositoryKeys)) {
+            try (final CallableStatement call = connection.prepareCall(GetCatalogueSummary)) {
 
                 final ResultSet results = call.executeQuery();
+                if (results.next()) {
+
+                    return new CatalogueSummary(results.getTimestamp("CheckedAt").toLocalDateTime(),
+                                                results.getInt("RepositoryCount"),
+                                                results.getInt("ImageCount"));
+                }
+
+                throw new SQLException("Catalogue_GetSummary did not return anything.");
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: fetchCatalogueSummary", e);
+            throw new RuntimeException("fetchCatalogueSummary", e);
+        }
+    }
+
+    @Override
+    public List<RepositoryKey> fetchRepositoryKeysModifiedSince(final LocalDateTime since) {
+
+        final List<RepositoryKey> repositoryKeys = new ArrayList<>();
+
+        try (final Connection connection = getConnection()) {
 
-                final List<RepositoryKey> repositoryKeys = new ArrayList<>();
+            try (final CallableStatement call = connection.prepareCall(GetChangedRepositories)) {
+
+                call.setTimestamp(1, Timestamp.valueOf(since));
+
+                final ResultSet results = call.executeQuery();
                 while (results.next()) {
                     repositoryKeys.add(makeRepositoryKey(results));
                 }
-                return makeRepositories(repositoryKeys, connection);
             }
 
         } catch (SQLException e) {
 
-            getLogger().error("Error caught when executing SQL: fetchAllRepositories", e);
-            throw new RuntimeException("fetchAllRepositories", e);
+            getLogger().error("Error caught when executing SQL: fetchRepositoryKeysModifiedSince", e);
+            throw new RuntimeException("fetchRepositoryKeysModifiedSince", e);
         }
+
+        return repositoryKeys;
     }
 
     @Override
-    public InsertUpdateResult<Repository> storeRepository(Repository repository) {
+    public List<ImageKey> fetchImageKeysModifiedSince(final LocalDateTime since) {
+
+        final List<ImageKey> imageKeys = new ArrayList<>();
 
         try (final Connection connection = getConnection()) {
 
+            try (final CallableStatement call = connection.prepareCall(GetChangedImages)) {
+
+                call.setTimestamp(1, Timestamp.valueOf(since));
+
+                final ResultSet results = call.executeQuery();
+                while (results.next()) {
+                    imageKeys.add(makeImageKey(results));
+                }
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: fetchImageKeysModifiedSince", e);
+            throw new RuntimeException("fetchImageKeysModifiedSince", e);
+        }
+
+        return imageKeys;
+    }
+
+    @Override
+    public InsertUpdateResult<Repository> storeRepository(Repository repository) {
+
+        return writeInTransaction("storeRepository", connection -> {
+
             try (final CallableStatement call = connection.prepareCall(StoreRepository)) {
 
                 int i = 1;
@@ -341,23 +556,20 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
 
                 final DbUpdateStatus status = DbUpdateStatus.valueOf(call.getString(statusIndex));
                 if (status.isUpdated()) {
+
+                    recordChange(connection, repository.getKey());
                     return new InsertUpdateResult<>(makeRepository(repository.getKey(), connection));
                 }
 
                 return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, "Repository was not updated.");
             }
-
-        } catch (SQLException e) {
-
-            getLogger().error("Error caught when executing SQL: storeRepository", e);
-            return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage());
-        }
+        });
     }
 
     @Override
     public InsertUpdateResult<Void> removeRepository(final Repository repository) {
 
-        try (final Connection connection = getConnection()) {
+        return writeInTransaction("removeRepository", connection -> {
 
             try (final CallableStatement call = connection.prepareCall(DeleteRepository)) {
 
@@ -373,14 +585,10 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
                     return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, "Unable to remove repository " + repository.getName());
                 }
 
+                recordChange(connection, repository.getKey());
                 return new InsertUpdateResult<>(null);
             }
-
-        } catch (SQLException e) {
-
-            getLogger().error("Error caught when executing SQL: removeRepository.", e);
-            return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage());
-        }
+        });
     }
 
     private void storeCoreMetaData(final Connection connection, final Image image) throws SQLException {
@@ -487,24 +695,122 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
         }
     }
 
-    private List<Repository> makeRepositories(final List<RepositoryKey> repositoryKeys, final Connection connection) throws SQLException {
+    private Map<Integer, Repository> makeAllRepositories(final Connection connection) throws SQLException {
 
-        final List<Repository> repositories = new ArrayList<>();
-        try (final CallableStatement call = connection.prepareCall(GetRepository)) {
+        final Map<Integer, Repository> repositories = new LinkedHashMap<>();
+        try (final CallableStatement call = connection.prepareCall(GetAllRepositories)) {
 
-            for (RepositoryKey key : repositoryKeys) {
+            final ResultSet results = call.executeQuery();
+            while (results.next()) {
 
-                call.setInt(1, key.getId());
+                final Repository repository = new Repository(makeRepositoryKey(results), makeSyncSpec(results));
+                repositories.put(repository.getKey().getId(), repository);
+            }
+        }
+        return repositories;
+    }
 
-                final Repository repository = makeOneRepository(connection, call);
-                if (null != repository) {
-                    repositories.add(repository);
-                } else {
-                    getLogger().warn("makeRepositories attempted to make repository for key {} but none exists. Skipping.", key);
+    /**
+     * <p>
+     * Builds every image in a fixed number of queries. The supporting data (URLs, stats and templates)
+     * is loaded first and keyed by image id so each image row can be completed as soon as it is read.
+     * </p>
+     */
+    private Map<Integer, Image> makeAllImages(final Connection connection) throws SQLException {
+
+        final Map<Integer, List<ExternalUrl>>   externalUrls    = makeAllExternalUrls(connection);
+        final Map<Integer, ImagePullHistory>    pullHistories   = makeAllPullHistories(connection);
+        final Map<Integer, ImageTemplateHolder> templateHolders = templateFactory.makeAllTemplateHolders(connection);
+
+        final Map<Integer, Image> images = new HashMap<>();
+        try (final CallableStatement call = connection.prepareCall(GetAllImages)) {
+
+            final ResultSet results = call.executeQuery();
+            while (results.next()) {
+
+                final ImageKey imageKey = makeImageKey(results);
+                final Integer  imageId  = imageKey.getId();
+
+                final ImageCoreMeta coreMeta = new ImageCoreMeta(results.getString("CoreMetaImagePath"),
+                                                                 results.getString("CoreMetaBaseImage"),
+                                                                 results.getString("CoreMetaCategory"));
+
+                externalUrls.getOrDefault(imageId, Collections.emptyList()).forEach(coreMeta::addExternalUrl);
+
+                final ImageMetaData metaData = new ImageMetaData(coreMeta,
+                                                                 pullHistories.getOrDefault(imageId, new ImagePullHistory()),
+                                                                 templateHolders.getOrDefault(imageId, new ImageTemplateHolder(null, null, false, false)));
+
+                images.put(imageId, new Image(imageKey,
+                                              makeSyncSpec(results),
+                                              metaData,
+                                              makeCountData(results),
+                                              results.getString("Description"),
+                                              results.getTimestamp("LastUpdated").toLocalDateTime()));
+            }
+        }
+        return images;
+    }
+
+    private Map<Integer, List<ExternalUrl>> makeAllExternalUrls(final Connection connection) throws SQLException {
+
+        final Map<Integer, List<ExternalUrl>> externalUrls = new HashMap<>();
+        try (final CallableStatement call = connection.prepareCall(GetAllExternalUrls)) {
+
+            final ResultSet results = call.executeQuery();
+            while (results.next()) {
+                externalUrls.computeIfAbsent(results.getInt("ImageId"), id -> new ArrayList<>()).add(makeExternalUrl(results));
+            }
+        }
+        return externalUrls;
+    }
+
+    private Map<Integer, ImagePullHistory> makeAllPullHistories(final Connection connection) throws SQLException {
+
+        final Map<Integer, ImagePullHistory> pullHistories = new HashMap<>();
+        try (final CallableStatement call = connection.prepareCall(GetAllImageStats)) {
+
+            final ResultSet results = call.executeQuery();
+            while (results.next()) {
+
+                final int imageId = results.getInt("ImageId");
+                addPullStatistic(results, pullHistories.computeIfAbsent(imageId, id -> new ImagePullHistory()), imageId);
+            }
+        }
+        return pullHistories;
+    }
+
+    private void enrichAllImagesWithTagBranches(final Map<Integer, Image> images, final Connection connection) throws SQLException {
+
+        final Map<Integer, Set<TagDigest>> digestsByBranch = new HashMap<>();
+        try (final CallableStatement call = connection.prepareCall(GetAllTagDigests)) {
+
+            final ResultSet results = call.executeQuery();
+            while (results.next()) {
+                digestsByBranch.computeIfAbsent(results.getInt("BranchId"), id -> new HashSet<>()).add(makeTagDigest(results));
+            }
+        }
+
+        try (final CallableStatement call = connection.prepareCall(GetAllTagBranches)) {
+
+            final ResultSet results = call.executeQuery();
+            while (results.next()) {
+
+                final Image image = images.get(results.getInt("ImageId"));
+                if (null != image) {
+
+                    final TagBranchKey   tagBranchKey = makeTagBranchKey(results, image.getKey());
+                    final Set<TagDigest> digests      = digestsByBranch.getOrDefault(tagBranchKey.getId(), new HashSet<>());
+
+                    image.addTagBranch(new TagBranch(tagBranchKey,
+                                                     results.getString("BranchName"),
+                                                     results.getBoolean("BranchProtected"),
+                                                     new Tag(results.getString("TagVersion"),
+                                                             results.getTimestamp("TagBuildDate").toLocalDateTime(),
+                                                             digests)));
                 }
             }
         }
-        return repositories;
     }
 
     private Image makeImage(final ImageKey imageKey, final Connection connection) throws SQLException {
@@ -594,17 +900,21 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
 
             final ResultSet results = call.executeQuery();
             while (results.next()) {
-
-                externalUrls.add(new ExternalUrl(new ExternalUrlKey(results.getInt("UrlId")),
-                                                 ExternalUrl.ExternalUrlType.valueOf(results.getString("UrlType")),
-                                                 results.getString("UrlName"),
-                                                 results.getString("UrlPath")));
+                externalUrls.add(makeExternalUrl(results));
             }
         }
 
         return externalUrls;
     }
 
+    private ExternalUrl makeExternalUrl(final ResultSet results) throws SQLException {
+
+        return new ExternalUrl(new ExternalUrlKey(results.getInt("UrlId")),
+                               ExternalUrl.ExternalUrlType.valueOf(results.getString("UrlType")),
+                               results.getString("UrlName"),
+                               results.getString("UrlPath"));
+    }
+
     private ImagePullHistory makePullHistory(final Connection connection, final ImageKey imageKey) throws SQLException {
 
         final ImagePullHistory pullHistory = new ImagePullHistory();
@@ -614,25 +924,100 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
             final ResultSet results = call.executeQuery();
 
             while (results.next()) {
+                addPullStatistic(results, pullHistory, imageKey);
+            }
+        }
+        return pullHistory;
+    }
 
-                final long imagePulls = results.getLong("ImagePulls");
-                if (!results.wasNull()) {
+    private void addPullStatistic(final ResultSet results, final ImagePullHistory pullHistory, final Object imageRef) throws SQLException {
 
-                    final String timeGroup = results.getString("TimeGroup");
-                    final String groupMode = results.getString("GroupMode");
+        final long imagePulls = results.getLong("ImagePulls");
+        if (!results.wasNull()) {
 
-                    final ImagePullStatistic statistic = new ImagePullStatistic(imagePulls,
-                            timeGroup,
-                            ImagePullStatistic.StatGroupMode.valueOf(groupMode));
+            final String timeGroup = results.getString("TimeGroup");
+            final String groupMode = results.getString("GroupMode");
 
-                    final boolean added = pullHistory.addStatistic(statistic);
-                    if (!added) {
-                        getLogger().warn("Unable to add pull history {} to image {}", statistic, imageKey);
-                    }
+            final ImagePullStatistic statistic = new ImagePullStatistic(imagePulls,
+                    timeGroup,
+                    ImagePullStatistic.StatGroupMode.valueOf(groupMode));
+
+            final boolean added = pullHistory.addStatistic(statistic);
+            if (!added) {
+                getLogger().warn("Unable to add pull history {} to image {}", statistic, imageRef);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Makes the write and its change log entry in a single transaction, so that no change can be committed
+     * without other nodes finding out about it. A write which reports failure is rolled back.
+     * </p>
+     */
+    private <T> InsertUpdateResult<T> writeInTransaction(final String operation, final TransactionalWrite<T> write) {
+
+        try (final Connection connection = getConnection()) {
+
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+
+                final InsertUpdateResult<T> result = write.write(connection);
+                if (result.isError()) {
+                    connection.rollback();
+                } else {
+                    connection.commit();
                 }
+                return result;
+
+            } catch (SQLException | RuntimeException e) {
+
+                connection.rollback();
+                throw e;
+
+            } finally {
+                connection.setAutoCommit(autoCommit);
             }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: " + operation, e);
+            return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private void recordChange(final Connection connection, final ImageKey imageKey) throws SQLException {
+        recordChange(connection, imageKey.getRepositoryKey(), imageKey.getId(), imageKey.getName());
+    }
+
+    private void recordChange(final Connection connection, final RepositoryKey repositoryKey) throws SQLException {
+        recordChange(connection, repositoryKey, null, null);
+    }
+
+    /**
+     * <p>
+     * Adds to the change log over the same connection as the change itself. Callers make both in the same
+     * transaction (see {@link #writeInTransaction}), so both are committed together.
+     * </p>
+     */
+    private void recordChange(final Connection connection,
+                              final RepositoryKey repositoryKey,
+                              final Integer imageId,
+                              final String imageName) throws SQLException {
+
+        try (final CallableStatement call = connection.prepareCall(RecordChange)) {
+
+            int i = 1;
+            call.setInt(i++, repositoryKey.getId());
+            call.setString(i++, repositoryKey.getName());
+            Utils.setNullableInt(call, i++, imageId);
+            Utils.setNullableString(call, i++, imageName);
+            call.setString(i, changeOrigin);
+
+            call.executeUpdate();
         }
-        return pullHistory;
     }
 
     private ImageKey makeImageKey(final ResultSet results) throws SQLException {
@@ -681,7 +1066,7 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
                 repositoryImageKeys.add(makeImageKey(results));
             }
 
-            makeImages(repositoryImageKeys, connection).forEach(repository::addImage);
+            repository.addImages(makeImages(repositoryImageKeys, connection));
         }
     }
 
@@ -764,4 +1149,9 @@ public class DefaultImageDAO extends AbstractDAO implements ImageDAO {
                              results.getString("DigestArch"),
                              results.getString("DigestVariant"));
     }
+
+    @FunctionalInterface
+    private interface TransactionalWrite<T> {
+        InsertUpdateResult<T> write(final Connection connection) throws SQLException;
+    }
 }
@@ -20,6 +20,7 @@ package io.linuxserver.fleet.v2.db;
 import io.linuxserver.fleet.core.db.DatabaseProvider;
 import io.linuxserver.fleet.v2.key.ScheduleKey;
 import io.linuxserver.fleet.v2.thread.schedule.AppSchedule;
+import io.linuxserver.fleet.v2.thread.schedule.ScheduleScope;
 import io.linuxserver.fleet.v2.thread.schedule.ScheduleSpec;
 import io.linuxserver.fleet.v2.thread.schedule.TimeWithUnit;
 
@@ -72,6 +73,7 @@ public class DefaultScheduleDAO extends AbstractDAO implements ScheduleDAO {
                                         results.getString("ScheduleName"),
                                         TimeWithUnit.valueOf(results.getString("ScheduleInterval")),
                                         TimeWithUnit.valueOf(results.getString("ScheduleDelayOffset")),
-                                        (Class<? extends AppSchedule>) Class.forName(results.getString("ScheduleClass")));
+                                        (Class<? extends AppSchedule>) Class.forName(results.getString("ScheduleClass")),
+                                        ScheduleScope.valueOf(results.getString("ScheduleScope")));
     }
 }
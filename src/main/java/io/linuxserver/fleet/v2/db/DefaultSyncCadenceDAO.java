@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.db;
+
+import io.linuxserver.fleet.core.db.DatabaseProvider;
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.types.internal.ImageSyncCadence;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DefaultSyncCadenceDAO extends AbstractDAO implements SyncCadenceDAO {
+
+    private static final String GetAll = "{CALL ImageSyncCadence_GetAll()}";
+    private static final String Store  = "{CALL ImageSyncCadence_Store(?,?,?,?,?)}";
+
+    public DefaultSyncCadenceDAO(final DatabaseProvider databaseProvider) {
+        super(databaseProvider);
+    }
+
+    @Override
+    public List<ImageSyncCadence> fetchAllCadences() {
+
+        final List<ImageSyncCadence> cadences = new ArrayList<>();
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(GetAll)) {
+
+                final ResultSet results = call.executeQuery();
+                while (results.next()) {
+                    cadences.add(makeOneCadence(results));
+                }
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: fetchAllCadences", e);
+            throw new RuntimeException("fetchAllCadences", e);
+        }
+
+        return cadences;
+    }
+
+    @Override
+    public void storeCadences(final List<ImageSyncCadence> cadences) {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(Store)) {
+
+                for (ImageSyncCadence cadence : cadences) {
+
+                    int i = 1;
+                    call.setInt(i++, cadence.getImageKey().getId());
+                    Utils.setNullableTimestamp(call, i++, cadence.getLastChangedAt());
+
+                    if (null == cadence.getMeanChangeGap()) {
+                        call.setNull(i++, Types.BIGINT);
+                    } else {
+                        call.setLong(i++, cadence.getMeanChangeGap().getSeconds());
+                    }
+
+                    call.setLong(     i++, cadence.getInterval().getSeconds());
+                    call.setTimestamp(i,   Timestamp.valueOf(cadence.getNextDueAt()));
+
+                    call.addBatch();
+                }
+
+                call.executeBatch();
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: storeCadences", e);
+            throw new RuntimeException("storeCadences", e);
+        }
+    }
+
+    private ImageSyncCadence makeOneCadence(final ResultSet results) throws SQLException {
+
+        final ImageKey imageKey = new ImageKey(results.getInt("ImageId"),
+                                               results.getString("ImageName"),
+                                               new RepositoryKey(results.getInt("RepositoryId"), results.getString("RepositoryName")));
+
+        final Timestamp lastChangedAt = results.getTimestamp("LastChangedAt");
+        final long      meanGap       = results.getLong("MeanChangeGapSeconds");
+        final boolean   hasMeanGap    = !results.wasNull();
+
+        return new ImageSyncCadence(imageKey,
+                                    null == lastChangedAt ? null : lastChangedAt.toLocalDateTime(),
+                                    hasMeanGap ? Duration.ofSeconds(meanGap) : null,
+                                    Duration.ofSeconds(results.getLong("IntervalSeconds")),
+                                    results.getTimestamp("NextDueAt").toLocalDateTime());
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.db;
+
+import io.linuxserver.fleet.core.db.DatabaseProvider;
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.thread.TaskPriority;
+import io.linuxserver.fleet.v2.types.internal.SyncQueueEntry;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class DefaultSyncQueueDAO extends AbstractDAO implements SyncQueueDAO {
+
+    private static final String GetAll   = "{CALL SyncQueue_GetAll()}";
+    private static final String Enqueue  = "{CALL SyncQueue_Enqueue(?,?,?)}";
+    private static final String Claim    = "{CALL SyncQueue_Claim(?,?)}";
+    private static final String Complete = "{CALL SyncQueue_Complete(?)}";
+    private static final String Withdraw = "{CALL SyncQueue_Withdraw(?)}";
+
+    public DefaultSyncQueueDAO(final DatabaseProvider databaseProvider) {
+        super(databaseProvider);
+    }
+
+    @Override
+    public List<SyncQueueEntry> fetchOutstandingRequests() {
+
+        final List<SyncQueueEntry> entries = new ArrayList<>();
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(GetAll)) {
+
+                final ResultSet results = call.executeQuery();
+                while (results.next()) {
+                    entries.add(makeOneEntry(results));
+                }
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: fetchOutstandingRequests", e);
+            throw new RuntimeException("fetchOutstandingRequests", e);
+        }
+
+        return entries;
+    }
+
+    @Override
+    public void enqueueRequests(final List<SyncQueueEntry> entries) {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(Enqueue)) {
+
+                for (SyncQueueEntry entry : entries) {
+
+                    int i = 1;
+                    call.setInt(    i++, entry.getImageKey().getId());
+                    call.setBoolean(i++, entry.isForceSync());
+                    call.setString( i,   entry.getPriority().name());
+
+                    call.addBatch();
+                }
+
+                call.executeBatch();
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: enqueueRequests", e);
+            throw new RuntimeException("enqueueRequests", e);
+        }
+    }
+
+    @Override
+    public void claimRequests(final Map<ImageKey, String> claimants) {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(Claim)) {
+
+                for (Map.Entry<ImageKey, String> claimant : claimants.entrySet()) {
+
+                    call.setInt(   1, claimant.getKey().getId());
+                    call.setString(2, claimant.getValue());
+
+                    call.addBatch();
+                }
+
+                call.executeBatch();
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: claimRequests", e);
+            throw new RuntimeException("claimRequests", e);
+        }
+    }
+
+    @Override
+    public void completeRequests(final Collection<ImageKey> imageKeys) {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(Complete)) {
+
+                for (ImageKey imageKey : imageKeys) {
+
+                    call.setInt(1, imageKey.getId());
+                    call.addBatch();
+                }
+
+                call.executeBatch();
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: completeRequests", e);
+            throw new RuntimeException("completeRequests", e);
+        }
+    }
+
+    @Override
+    public void withdrawRequests(final Collection<ImageKey> imageKeys) {
+
+        try (final Connection connection = getConnection()) {
+
+            try (final CallableStatement call = connection.prepareCall(Withdraw)) {
+
+                for (ImageKey imageKey : imageKeys) {
+
+                    call.setInt(1, imageKey.getId());
+                    call.addBatch();
+                }
+
+                call.executeBatch();
+            }
+
+        } catch (SQLException e) {
+
+            getLogger().error("Error caught when executing SQL: withdrawRequests", e);
+            throw new RuntimeException("withdrawRequests", e);
+        }
+    }
+
+    private SyncQueueEntry makeOneEntry(final ResultSet results) throws SQLException {
+
+        final ImageKey imageKey = new ImageKey(results.getInt("ImageId"),
+                                               results.getString("ImageName"),
+                                               new RepositoryKey(results.getInt("RepositoryId"), results.getString("RepositoryName")));
+
+        return new SyncQueueEntry(imageKey,
+                                  results.getBoolean("ForceSync"),
+                                  TaskPriority.valueOf(results.getString("Priority")),
+                                  results.getString("ClaimedBy"));
+    }
+}
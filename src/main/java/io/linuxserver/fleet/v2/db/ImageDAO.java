@@ -23,19 +23,38 @@ import io.linuxserver.fleet.v2.key.RepositoryKey;
 import io.linuxserver.fleet.v2.types.Image;
 import io.linuxserver.fleet.v2.types.Repository;
 import io.linuxserver.fleet.v2.types.TagBranch;
+import io.linuxserver.fleet.v2.types.internal.CatalogueSummary;
 import io.linuxserver.fleet.v2.types.internal.ImageOutlineRequest;
 import io.linuxserver.fleet.v2.types.internal.RepositoryOutlineRequest;
 import io.linuxserver.fleet.v2.types.internal.TagBranchOutlineRequest;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ImageDAO {
 
     Image fetchImage(final ImageKey imageKey);
 
+    /**
+     * Fetches each image over a single connection. Images which no longer exist are left out.
+     */
+    List<Image> fetchImages(final List<ImageKey> imageKeys);
+
     InsertUpdateResult<Image> storeImage(final Image image);
 
+    /**
+     * Stores each image in turn over a single connection and transaction. One result is returned per image, in order.
+     * An image which fails leaves nothing behind, unless the whole transaction is lost (for example to a deadlock),
+     * in which case every image in the batch is reported as failed.
+     */
+    List<InsertUpdateResult<Image>> storeImages(final List<Image> images);
+
+    /**
+     * Stores only the pull count, star count and description of the image, leaving everything else as it is in the database.
+     */
+    InsertUpdateResult<Image> storeImageStats(final Image image);
+
     InsertUpdateResult<Image> storeImageMetaData(final Image image);
 
     InsertUpdateResult<Image> createImageOutline(final ImageOutlineRequest request);
@@ -50,6 +69,19 @@ public interface ImageDAO {
 
     List<Repository> fetchAllRepositories();
 
+    CatalogueSummary fetchCatalogueSummary();
+
+    /**
+     * @param since
+     *      As given by {@link CatalogueSummary#getCheckedAt()}, so that it is compared against the database's clock.
+     */
+    List<RepositoryKey> fetchRepositoryKeysModifiedSince(final LocalDateTime since);
+
+    /**
+     * Includes images whose branches, metadata, template or external URLs have changed, as well as the image itself.
+     */
+    List<ImageKey> fetchImageKeysModifiedSince(final LocalDateTime since);
+
     InsertUpdateResult<Repository> storeRepository(Repository repository);
 
     InsertUpdateResult<Void> removeRepository(final Repository repository);
@@ -25,7 +25,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -43,6 +45,8 @@ public class ImageTemplateFactory {
 
     private static final String GetImageTemplateBase   = "{CALL Image_GetTemplateBase(?)}";
     private static final String GetImageTemplates      = "{CALL Image_GetTemplates(?)}";
+    private static final String GetAllTemplateBases    = "{CALL Image_GetAllTemplateBases()}";
+    private static final String GetAllTemplates        = "{CALL Image_GetAllTemplates()}";
 
     public final ImageTemplateHolder makeTemplateHolder(final Connection connection, final ImageKey imageKey) throws SQLException {
 
@@ -75,6 +79,43 @@ public class ImageTemplateFactory {
         return templateHolder;
     }
 
+    /**
+     * <p>
+     * Loads the template data for every image in two queries, rather than two per image.
+     * Images without any stored template data will not have an entry in the returned map.
+     * </p>
+     */
+    public final Map<Integer, ImageTemplateHolder> makeAllTemplateHolders(final Connection connection) throws SQLException {
+
+        final Map<Integer, ImageTemplateHolder> templateHolders = new HashMap<>();
+
+        try (final CallableStatement call = connection.prepareCall(GetAllTemplateBases)) {
+
+            final ResultSet results = call.executeQuery();
+            while (results.next()) {
+
+                templateHolders.put(results.getInt("ImageId"), new ImageTemplateHolder(results.getString("RepositoryUrl"),
+                                                                                       results.getString("RestartPolicy"),
+                                                                                       results.getBoolean("HostNetworkEnabled"),
+                                                                                       results.getBoolean("PrivilegedMode")));
+            }
+        }
+
+        try (final CallableStatement call = connection.prepareCall(GetAllTemplates)) {
+
+            final ResultSet results = call.executeQuery();
+            while (results.next()) {
+
+                final ImageTemplateHolder templateHolder = templateHolders.computeIfAbsent(results.getInt("ImageId"),
+                    imageId -> new ImageTemplateHolder(null, null, false, false));
+
+                addTemplateItem(results, templateHolder);
+            }
+        }
+
+        return templateHolders;
+    }
+
     public final void storeImageTemplates(final Connection connection, final Image image) throws SQLException {
 
         CallableStatement clearTemplatesCall  = null;
@@ -135,38 +176,42 @@ public class ImageTemplateFactory {
             final ResultSet results = call.executeQuery();
 
             while (results.next()) {
+                addTemplateItem(results, templateHolder);
+            }
+        }
+    }
 
-                final String itemType = results.getString("ItemType");
-                final String itemName = results.getString("ItemName");
-                final String itemDesc = results.getString("ItemDescription");
-                final String itemSec  = results.getString("ItemSecondary");
+    private void addTemplateItem(final ResultSet results, final ImageTemplateHolder templateHolder) throws SQLException {
 
-                switch (itemType) {
+        final String itemType = results.getString("ItemType");
+        final String itemName = results.getString("ItemName");
+        final String itemDesc = results.getString("ItemDescription");
+        final String itemSec  = results.getString("ItemSecondary");
 
-                    case "Port":
-                        templateHolder.addPort(new PortTemplateItem(Integer.parseInt(itemName), itemDesc, PortTemplateItem.Protocol.fromName(itemSec)));
-                        break;
+        switch (itemType) {
 
-                    case "Volume":
-                        templateHolder.addVolume(new VolumeTemplateItem(itemName, itemDesc, "1".equalsIgnoreCase(itemSec)));
-                        break;
+            case "Port":
+                templateHolder.addPort(new PortTemplateItem(Integer.parseInt(itemName), itemDesc, PortTemplateItem.Protocol.fromName(itemSec)));
+                break;
 
-                    case "Env":
-                        templateHolder.addEnvironment(new EnvironmentTemplateItem(itemName, itemDesc, itemSec));
-                        break;
+            case "Volume":
+                templateHolder.addVolume(new VolumeTemplateItem(itemName, itemDesc, "1".equalsIgnoreCase(itemSec)));
+                break;
 
-                    case "Device":
-                        templateHolder.addDevice(new DeviceTemplateItem(itemName, itemDesc));
-                        break;
+            case "Env":
+                templateHolder.addEnvironment(new EnvironmentTemplateItem(itemName, itemDesc, itemSec));
+                break;
 
-                    case "Extra":
-                        templateHolder.addCapability(DockerCapability.valueOf(itemName));
-                        break;
+            case "Device":
+                templateHolder.addDevice(new DeviceTemplateItem(itemName, itemDesc));
+                break;
 
-                    default:
-                        LOGGER.warn("Found unknown template type " + itemType);
-                }
-            }
+            case "Extra":
+                templateHolder.addCapability(DockerCapability.valueOf(itemName));
+                break;
+
+            default:
+                LOGGER.warn("Found unknown template type " + itemType);
         }
     }
 
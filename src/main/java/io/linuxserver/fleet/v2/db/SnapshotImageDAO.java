@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.db;
+
+import io.linuxserver.fleet.db.query.InsertUpdateResult;
+import io.linuxserver.fleet.db.query.InsertUpdateStatus;
+import io.linuxserver.fleet.v2.file.snapshot.CatalogueSnapshot;
+import io.linuxserver.fleet.v2.file.snapshot.CatalogueSnapshotStore;
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.types.Image;
+import io.linuxserver.fleet.v2.types.Repository;
+import io.linuxserver.fleet.v2.types.TagBranch;
+import io.linuxserver.fleet.v2.types.internal.CatalogueSummary;
+import io.linuxserver.fleet.v2.types.internal.ImageOutlineRequest;
+import io.linuxserver.fleet.v2.types.internal.RepositoryOutlineRequest;
+import io.linuxserver.fleet.v2.types.internal.TagBranchOutlineRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Serves the catalogue from a snapshot rather than the database, for nodes which only serve pages. Nothing
+ * can be written, and the whole snapshot is swapped out at once when a newer one is loaded.
+ * </p>
+ */
+public class SnapshotImageDAO implements ImageDAO {
+
+    private static final Logger LOGGER          = LoggerFactory.getLogger(SnapshotImageDAO.class);
+    private static final String ReadOnlyMessage = "The catalogue cannot be changed in serve-only mode";
+
+    private final CatalogueSnapshotStore snapshotStore;
+
+    private volatile CatalogueSnapshot snapshot;
+
+    /**
+     * <p>
+     * Starts out empty. Call {@link #reloadIfNewer()} to load the latest snapshot.
+     * </p>
+     */
+    public SnapshotImageDAO(final CatalogueSnapshotStore snapshotStore) {
+
+        this.snapshotStore = snapshotStore;
+        this.snapshot      = new CatalogueSnapshot(-1, LocalDateTime.now(), Collections.emptyList());
+    }
+
+    /**
+     * <p>
+     * Switches to the latest snapshot in the store, if it is newer than the one currently loaded. A snapshot which
+     * cannot be read is skipped, and the current one kept.
+     * </p>
+     *
+     * @return
+     *      True if a newer snapshot was loaded, in which case any cache built from this DAO should be reloaded.
+     */
+    public final synchronized boolean reloadIfNewer() {
+
+        try {
+
+            if (snapshotStore.findLatestVersion() <= snapshot.getVersion()) {
+                return false;
+            }
+
+            final CatalogueSnapshot latest = snapshotStore.readLatest();
+            if (null == latest || latest.getVersion() <= snapshot.getVersion()) {
+                return false;
+            }
+
+            snapshot = latest;
+            LOGGER.info("Loaded {} from {}", latest, snapshotStore.getDirectory());
+            return true;
+
+        } catch (IOException e) {
+
+            LOGGER.warn("Unable to load catalogue snapshot from " + snapshotStore.getDirectory() + ". Keeping version " + snapshot.getVersion(), e);
+            return false;
+        }
+    }
+
+    public final long getSnapshotVersion() {
+        return snapshot.getVersion();
+    }
+
+    @Override
+    public Image fetchImage(final ImageKey imageKey) {
+
+        final Repository repository = fetchRepository(imageKey.getRepositoryKey());
+        return null == repository ? null : repository.findImage(imageKey);
+    }
+
+    @Override
+    public List<Image> fetchImages(final List<ImageKey> imageKeys) {
+
+        final List<Image> images = new ArrayList<>();
+        for (ImageKey imageKey : imageKeys) {
+
+            final Image image = fetchImage(imageKey);
+            if (null != image) {
+                images.add(image);
+            }
+        }
+        return images;
+    }
+
+    @Override
+    public Repository fetchRepository(final RepositoryKey repositoryKey) {
+
+        for (Repository repository : snapshot.getRepositories()) {
+
+            if (repository.getKey().equals(repositoryKey)) {
+                return repository;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Repository> fetchAllRepositories() {
+        return new ArrayList<>(snapshot.getRepositories());
+    }
+
+    @Override
+    public CatalogueSummary fetchCatalogueSummary() {
+
+        final CatalogueSnapshot current = snapshot;
+        return new CatalogueSummary(current.getCreatedAt(), current.getRepositories().size(), current.getImageCount());
+    }
+
+    /**
+     * Snapshots are only ever loaded whole, so nothing is reported as having changed in between.
+     */
+    @Override
+    public List<RepositoryKey> fetchRepositoryKeysModifiedSince(final LocalDateTime since) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public List<ImageKey> fetchImageKeysModifiedSince(final LocalDateTime since) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public InsertUpdateResult<Image> storeImage(final Image image) {
+        return readOnly();
+    }
+
+    @Override
+    public List<InsertUpdateResult<Image>> storeImages(final List<Image> images) {
+
+        final List<InsertUpdateResult<Image>> results = new ArrayList<>();
+        images.forEach(image -> results.add(readOnly()));
+        return results;
+    }
+
+    @Override
+    public InsertUpdateResult<Image> storeImageStats(final Image image) {
+        return readOnly();
+    }
+
+    @Override
+    public InsertUpdateResult<Image> storeImageMetaData(final Image image) {
+        return readOnly();
+    }
+
+    @Override
+    public InsertUpdateResult<Image> createImageOutline(final ImageOutlineRequest request) {
+        return readOnly();
+    }
+
+    @Override
+    public InsertUpdateResult<TagBranch> createTagBranchOutline(final TagBranchOutlineRequest request) {
+        return readOnly();
+    }
+
+    @Override
+    public InsertUpdateResult<Void> removeImage(final Image image) {
+        return readOnly();
+    }
+
+    @Override
+    public InsertUpdateResult<Repository> createRepositoryOutline(final RepositoryOutlineRequest request) {
+        return readOnly();
+    }
+
+    @Override
+    public InsertUpdateResult<Repository> storeRepository(final Repository repository) {
+        return readOnly();
+    }
+
+    @Override
+    public InsertUpdateResult<Void> removeRepository(final Repository repository) {
+        return readOnly();
+    }
+
+    private static <T> InsertUpdateResult<T> readOnly() {
+        return new InsertUpdateResult<>(InsertUpdateStatus.FAILED, ReadOnlyMessage);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.file.snapshot;
+
+import io.linuxserver.fleet.v2.types.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Every repository and image known at a point in time, along with all of their branches,
+ * metadata and templates. Snapshots only ever move forward, so a higher version is always newer.
+ * </p>
+ */
+public class CatalogueSnapshot {
+
+    private final long             version;
+    private final LocalDateTime    createdAt;
+    private final List<Repository> repositories;
+
+    public CatalogueSnapshot(final long version, final LocalDateTime createdAt, final List<Repository> repositories) {
+
+        this.version      = version;
+        this.createdAt    = createdAt;
+        this.repositories = Collections.unmodifiableList(repositories);
+    }
+
+    public final long getVersion() {
+        return version;
+    }
+
+    public final LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public final List<Repository> getRepositories() {
+        return repositories;
+    }
+
+    public final int getImageCount() {
+        return repositories.stream().mapToInt(repository -> repository.getImages().size()).sum();
+    }
+
+    @Override
+    public final String toString() {
+        return "CatalogueSnapshot[version=" + version + ", createdAt=" + createdAt + ", repositories=" + repositories.size() + "]";
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.file.snapshot;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.key.TagBranchKey;
+import io.linuxserver.fleet.v2.types.Image;
+import io.linuxserver.fleet.v2.types.ImageCountData;
+import io.linuxserver.fleet.v2.types.Repository;
+import io.linuxserver.fleet.v2.types.Tag;
+import io.linuxserver.fleet.v2.types.TagBranch;
+import io.linuxserver.fleet.v2.types.TagDigest;
+import io.linuxserver.fleet.v2.types.docker.DockerCapability;
+import io.linuxserver.fleet.v2.types.meta.ExternalUrl;
+import io.linuxserver.fleet.v2.types.meta.ExternalUrlKey;
+import io.linuxserver.fleet.v2.types.meta.ImageCoreMeta;
+import io.linuxserver.fleet.v2.types.meta.ImageMetaData;
+import io.linuxserver.fleet.v2.types.meta.ItemSyncSpec;
+import io.linuxserver.fleet.v2.types.meta.history.ImagePullHistory;
+import io.linuxserver.fleet.v2.types.meta.history.ImagePullStatistic;
+import io.linuxserver.fleet.v2.types.meta.template.DeviceTemplateItem;
+import io.linuxserver.fleet.v2.types.meta.template.EnvironmentTemplateItem;
+import io.linuxserver.fleet.v2.types.meta.template.ImageTemplateHolder;
+import io.linuxserver.fleet.v2.types.meta.template.PortTemplateItem;
+import io.linuxserver.fleet.v2.types.meta.template.VolumeTemplateItem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>
+ * Reads and writes {@link CatalogueSnapshot}s in a compact, compressed binary form. Enums are written
+ * by name so that reordering them does not break existing snapshots, but any other change to what is
+ * written must come with a new {@link #FileFormatVersion}.
+ * </p>
+ */
+public class CatalogueSnapshotCodec {
+
+    private static final int FileFormatVersion = 1;
+
+    /**
+     * <p>
+     * Writes the snapshot to the target, which is left open.
+     * </p>
+     */
+    public final void write(final CatalogueSnapshot snapshot, final OutputStream target) throws IOException {
+
+        final GZIPOutputStream compressed = new GZIPOutputStream(target);
+        final DataOutputStream out        = new DataOutputStream(new BufferedOutputStream(compressed));
+
+        out.writeInt(FileFormatVersion);
+        out.writeLong(snapshot.getVersion());
+        writeDateTime(out, snapshot.getCreatedAt());
+
+        out.writeInt(snapshot.getRepositories().size());
+        for (Repository repository : snapshot.getRepositories()) {
+            writeRepository(out, repository);
+        }
+
+        out.flush();
+        compressed.finish();
+    }
+
+    /**
+     * @throws IOException
+     *      If the snapshot is truncated, or was written in a format this version of Fleet does not understand.
+     */
+    public final CatalogueSnapshot read(final InputStream source) throws IOException {
+
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(source)));
+
+        final int formatVersion = in.readInt();
+        if (formatVersion != FileFormatVersion) {
+            throw new IOException("Unsupported catalogue snapshot format " + formatVersion);
+        }
+
+        final long          version   = in.readLong();
+        final LocalDateTime createdAt = readDateTime(in);
+
+        final int              repositoryCount = in.readInt();
+        final List<Repository> repositories    = new ArrayList<>(repositoryCount);
+        for (int i = 0; i < repositoryCount; i++) {
+            repositories.add(readRepository(in));
+        }
+
+        return new CatalogueSnapshot(version, createdAt, repositories);
+    }
+
+    private void writeRepository(final DataOutputStream out, final Repository repository) throws IOException {
+
+        out.writeInt(repository.getKey().getId());
+        writeString(out, repository.getName());
+        writeSyncSpec(out, repository.getSpec());
+
+        final List<Image> images = repository.getImages();
+        out.writeInt(images.size());
+        for (Image image : images) {
+            writeImage(out, image);
+        }
+    }
+
+    private Repository readRepository(final DataInputStream in) throws IOException {
+
+        final RepositoryKey repositoryKey = new RepositoryKey(in.readInt(), readString(in));
+        final Repository    repository    = new Repository(repositoryKey, readSyncSpec(in));
+
+        final int         imageCount = in.readInt();
+        final List<Image> images     = new ArrayList<>(imageCount);
+        for (int i = 0; i < imageCount; i++) {
+            images.add(readImage(in, repositoryKey));
+        }
+        repository.addImages(images);
+
+        return repository;
+    }
+
+    private void writeImage(final DataOutputStream out, final Image image) throws IOException {
+
+        out.writeInt(image.getKey().getId());
+        writeString(out, image.getName());
+        writeSyncSpec(out, image.getSpec());
+        writeNullableString(out, image.getDescription());
+        writeDateTime(out, image.getLastUpdated());
+        out.writeLong(image.getPullCount());
+        out.writeInt(image.getStarCount());
+
+        writeMetaData(out, image.getMetaData());
+
+        final List<TagBranch> tagBranches = image.getTagBranches();
+        out.writeInt(tagBranches.size());
+        for (TagBranch tagBranch : tagBranches) {
+            writeTagBranch(out, tagBranch);
+        }
+    }
+
+    private Image readImage(final DataInputStream in, final RepositoryKey repositoryKey) throws IOException {
+
+        final ImageKey       imageKey    = new ImageKey(in.readInt(), readString(in), repositoryKey);
+        final ItemSyncSpec   syncSpec    = readSyncSpec(in);
+        final String         description = readNullableString(in);
+        final LocalDateTime  lastUpdated = readDateTime(in);
+        final ImageCountData countData   = new ImageCountData(in.readLong(), in.readInt());
+        final ImageMetaData  metaData    = readMetaData(in);
+
+        final Image image = new Image(imageKey, syncSpec, metaData, countData, description, lastUpdated);
+
+        final int tagBranchCount = in.readInt();
+        for (int i = 0; i < tagBranchCount; i++) {
+            image.addTagBranch(readTagBranch(in, imageKey));
+        }
+
+        return image;
+    }
+
+    private void writeSyncSpec(final DataOutputStream out, final ItemSyncSpec syncSpec) throws IOException {
+
+        out.writeBoolean(syncSpec.isDeprecated());
+        out.writeBoolean(syncSpec.isHidden());
+        out.writeBoolean(syncSpec.isStable());
+        out.writeBoolean(syncSpec.isSynchronised());
+        writeNullableString(out, syncSpec.getVersionMask());
+    }
+
+    private ItemSyncSpec readSyncSpec(final DataInputStream in) throws IOException {
+        return new ItemSyncSpec(in.readBoolean(), in.readBoolean(), in.readBoolean(), in.readBoolean(), readNullableString(in));
+    }
+
+    private void writeMetaData(final DataOutputStream out, final ImageMetaData metaData) throws IOException {
+
+        final ImageCoreMeta coreMeta = metaData.getCoreMeta();
+        writeNullableString(out, coreMeta.getAppImagePath());
+        writeNullableString(out, coreMeta.getBaseImage());
+        writeNullableString(out, coreMeta.getCategory());
+
+        out.writeInt(coreMeta.getExternalUrls().size());
+        for (ExternalUrl externalUrl : coreMeta.getExternalUrls()) {
+
+            out.writeInt(externalUrl.getKey().getId());
+            writeString(out, externalUrl.getType().name());
+            writeString(out, externalUrl.getName());
+            writeNullableString(out, externalUrl.getAbsoluteUrl());
+        }
+
+        final List<ImagePullStatistic> statistics = new ArrayList<>();
+        for (ImagePullStatistic.StatGroupMode groupMode : ImagePullStatistic.StatGroupMode.values()) {
+            statistics.addAll(metaData.getHistoryFor(groupMode));
+        }
+
+        out.writeInt(statistics.size());
+        for (ImagePullStatistic statistic : statistics) {
+
+            out.writeLong(statistic.getPullCount());
+            writeString(out, statistic.getGroupedDateTime());
+            writeString(out, findGroupMode(statistic).name());
+        }
+
+        writeTemplates(out, metaData.getTemplates());
+    }
+
+    private ImageMetaData readMetaData(final DataInputStream in) throws IOException {
+
+        final ImageCoreMeta coreMeta = new ImageCoreMeta(readNullableString(in), readNullableString(in), readNullableString(in));
+
+        final int externalUrlCount = in.readInt();
+        for (int i = 0; i < externalUrlCount; i++) {
+
+            coreMeta.addExternalUrl(new ExternalUrl(new ExternalUrlKey(in.readInt()),
+                                                    ExternalUrl.ExternalUrlType.valueOf(readString(in)),
+                                                    readString(in),
+                                                    readNullableString(in)));
+        }
+
+        final ImagePullHistory pullHistory    = new ImagePullHistory();
+        final int              statisticCount = in.readInt();
+        for (int i = 0; i < statisticCount; i++) {
+
+            pullHistory.addStatistic(new ImagePullStatistic(in.readLong(),
+                                                            readString(in),
+                                                            ImagePullStatistic.StatGroupMode.valueOf(readString(in))));
+        }
+
+        return new ImageMetaData(coreMeta, pullHistory, readTemplates(in));
+    }
+
+    private void writeTemplates(final DataOutputStream out, final ImageTemplateHolder templates) throws IOException {
+
+        writeNullableString(out, templates.getRegistryUrl());
+        writeNullableString(out, templates.getRestartPolicy());
+        out.writeBoolean(templates.isHostNetworkingEnabled());
+        out.writeBoolean(templates.isPrivilegedMode());
+
+        out.writeInt(templates.getCapabilities().size());
+        for (DockerCapability capability : templates.getCapabilities()) {
+            writeString(out, capability.name());
+        }
+
+        out.writeInt(templates.getPorts().size());
+        for (PortTemplateItem port : templates.getPorts()) {
+
+            out.writeInt(port.getPort());
+            writeNullableString(out, port.getDescription());
+            writeString(out, port.getProtocolAsProtocol().name());
+        }
+
+        out.writeInt(templates.getVolumes().size());
+        for (VolumeTemplateItem volume : templates.getVolumes()) {
+
+            writeString(out, volume.getVolume());
+            writeNullableString(out, volume.getDescription());
+            out.writeBoolean(volume.isReadonly());
+        }
+
+        out.writeInt(templates.getEnv().size());
+        for (EnvironmentTemplateItem env : templates.getEnv()) {
+
+            writeString(out, env.getEnv());
+            writeNullableString(out, env.getDescription());
+            writeNullableString(out, env.getExampleValue());
+        }
+
+        out.writeInt(templates.getDevices().size());
+        for (DeviceTemplateItem device : templates.getDevices()) {
+
+            writeString(out, device.getDevice());
+            writeNullableString(out, device.getDescription());
+        }
+    }
+
+    private ImageTemplateHolder readTemplates(final DataInputStream in) throws IOException {
+
+        final ImageTemplateHolder templates = new ImageTemplateHolder(readNullableString(in),
+                                                                      readNullableString(in),
+                                                                      in.readBoolean(),
+                                                                      in.readBoolean());
+
+        final int capabilityCount = in.readInt();
+        for (int i = 0; i < capabilityCount; i++) {
+            templates.addCapability(DockerCapability.valueOf(readString(in)));
+        }
+
+        final int portCount = in.readInt();
+        for (int i = 0; i < portCount; i++) {
+            templates.addPort(new PortTemplateItem(in.readInt(), readNullableString(in), PortTemplateItem.Protocol.valueOf(readString(in))));
+        }
+
+        final int volumeCount = in.readInt();
+        for (int i = 0; i < volumeCount; i++) {
+            templates.addVolume(new VolumeTemplateItem(readString(in), readNullableString(in), in.readBoolean()));
+        }
+
+        final int envCount = in.readInt();
+        for (int i = 0; i < envCount; i++) {
+            templates.addEnvironment(new EnvironmentTemplateItem(readString(in), readNullableString(in), readNullableString(in)));
+        }
+
+        final int deviceCount = in.readInt();
+        for (int i = 0; i < deviceCount; i++) {
+            templates.addDevice(new DeviceTemplateItem(readString(in), readNullableString(in)));
+        }
+
+        return templates;
+    }
+
+    private void writeTagBranch(final DataOutputStream out, final TagBranch tagBranch) throws IOException {
+
+        writeNullableInt(out, tagBranch.getKey().getId());
+        writeString(out, tagBranch.getBranchName());
+        out.writeBoolean(tagBranch.isBranchProtected());
+
+        final Tag latestTag = tagBranch.getLatestTag();
+        out.writeBoolean(null != latestTag);
+        if (null != latestTag) {
+
+            writeString(out, latestTag.getVersion());
+            writeDateTime(out, latestTag.getBuildDate());
+
+            out.writeInt(latestTag.getDigests().size());
+            for (TagDigest digest : latestTag.getDigests()) {
+
+                out.writeLong(digest.getSize());
+                writeString(out, digest.getDigest());
+                writeNullableString(out, digest.getArchitecture());
+                writeNullableString(out, digest.getArchVariant());
+            }
+        }
+    }
+
+    private TagBranch readTagBranch(final DataInputStream in, final ImageKey imageKey) throws IOException {
+
+        final TagBranchKey tagBranchKey    = new TagBranchKey(readNullableInt(in), imageKey);
+        final String       branchName      = readString(in);
+        final boolean      branchProtected = in.readBoolean();
+
+        Tag latestTag = null;
+        if (in.readBoolean()) {
+
+            final String        version   = readString(in);
+            final LocalDateTime buildDate = readDateTime(in);
+
+            final int            digestCount = in.readInt();
+            final Set<TagDigest> digests     = new HashSet<>();
+            for (int i = 0; i < digestCount; i++) {
+                digests.add(new TagDigest(in.readLong(), readString(in), readNullableString(in), readNullableString(in)));
+            }
+
+            latestTag = new Tag(version, buildDate, digests);
+        }
+
+        return new TagBranch(tagBranchKey, branchName, branchProtected, latestTag);
+    }
+
+    private static ImagePullStatistic.StatGroupMode findGroupMode(final ImagePullStatistic statistic) {
+
+        for (ImagePullStatistic.StatGroupMode groupMode : ImagePullStatistic.StatGroupMode.values()) {
+
+            if (statistic.isGroupedBy(groupMode)) {
+                return groupMode;
+            }
+        }
+
+        throw new IllegalStateException("Pull statistic has no group mode: " + statistic);
+    }
+
+    private static void writeDateTime(final DataOutputStream out, final LocalDateTime value) throws IOException {
+
+        out.writeBoolean(null != value);
+        if (null != value) {
+
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+
+    private static void writeNullableInt(final DataOutputStream out, final Integer value) throws IOException {
+
+        out.writeBoolean(null != value);
+        if (null != value) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readNullableInt(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    /**
+     * Strings are written as raw UTF-8 rather than with writeUTF, which cannot hold more than 64KB.
+     */
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableString(final DataOutputStream out, final String value) throws IOException {
+
+        out.writeBoolean(null != value);
+        if (null != value) {
+            writeString(out, value);
+        }
+    }
+
+    private static String readNullableString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? readString(in) : null;
+    }
+}
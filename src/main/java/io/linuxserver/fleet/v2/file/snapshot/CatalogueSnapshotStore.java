@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.file.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * A directory of versioned catalogue snapshots. Each snapshot is written to a temporary file and then moved
+ * into place, so anything watching the directory never sees one half written. Only the most recent few are kept.
+ * </p>
+ */
+public class CatalogueSnapshotStore {
+
+    private static final Logger  LOGGER            = LoggerFactory.getLogger(CatalogueSnapshotStore.class);
+    private static final Pattern SnapshotFileName  = Pattern.compile("catalogue-(\\d+)\\.snapshot");
+    private static final int     RetainedSnapshots = 3;
+
+    private final Path                   directory;
+    private final CatalogueSnapshotCodec codec;
+
+    public CatalogueSnapshotStore(final Path directory) {
+
+        this.directory = directory;
+        this.codec     = new CatalogueSnapshotCodec();
+    }
+
+    public final Path getDirectory() {
+        return directory;
+    }
+
+    public final void write(final CatalogueSnapshot snapshot) throws IOException {
+
+        Files.createDirectories(directory);
+
+        final Path file     = directory.resolve("catalogue-" + snapshot.getVersion() + ".snapshot");
+        final Path tempFile = directory.resolve(file.getFileName() + ".tmp");
+
+        try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+            codec.write(snapshot, out);
+        }
+
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.info("Wrote {} to {}", snapshot, file);
+
+        removeOldSnapshots();
+    }
+
+    /**
+     * @return
+     *      The most recent snapshot in the directory, or null if there are none.
+     */
+    public final CatalogueSnapshot readLatest() throws IOException {
+
+        final List<Path> snapshotFiles = listSnapshotFiles();
+        if (snapshotFiles.isEmpty()) {
+            return null;
+        }
+
+        final Path latest = snapshotFiles.get(snapshotFiles.size() - 1);
+        try (final InputStream in = new BufferedInputStream(Files.newInputStream(latest))) {
+            return codec.read(in);
+        }
+    }
+
+    /**
+     * @return
+     *      The version of the most recent snapshot in the directory, or -1 if there are none. Only the file name is read.
+     */
+    public final long findLatestVersion() throws IOException {
+
+        final List<Path> snapshotFiles = listSnapshotFiles();
+        return snapshotFiles.isEmpty() ? -1 : parseVersion(snapshotFiles.get(snapshotFiles.size() - 1));
+    }
+
+    /**
+     * @return
+     *      A version for the next snapshot, taken from the clock but always above any already in the directory. The
+     *      snapshot may be written by a node whose clock is behind the one which wrote the last, and would otherwise
+     *      be removed as the oldest straight after being written.
+     */
+    public final long nextVersion() throws IOException {
+        return Math.max(findLatestVersion() + 1, System.currentTimeMillis());
+    }
+
+    private void removeOldSnapshots() throws IOException {
+
+        final List<Path> snapshotFiles = listSnapshotFiles();
+        for (int i = 0; i < snapshotFiles.size() - RetainedSnapshots; i++) {
+            Files.deleteIfExists(snapshotFiles.get(i));
+        }
+    }
+
+    /**
+     * @return
+     *      Every snapshot file in the directory, oldest first.
+     */
+    private List<Path> listSnapshotFiles() throws IOException {
+
+        final List<Path> snapshotFiles = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshotFiles;
+        }
+
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+
+            for (Path file : files) {
+
+                if (SnapshotFileName.matcher(file.getFileName().toString()).matches()) {
+                    snapshotFiles.add(file);
+                }
+            }
+        }
+
+        snapshotFiles.sort(Comparator.comparingLong(CatalogueSnapshotStore::parseVersion));
+        return snapshotFiles;
+    }
+
+    private static long parseVersion(final Path snapshotFile) {
+
+        final Matcher matcher = SnapshotFileName.matcher(snapshotFile.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a catalogue snapshot: " + snapshotFile);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+}
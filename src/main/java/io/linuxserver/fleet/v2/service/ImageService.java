@@ -23,6 +23,7 @@ import io.linuxserver.fleet.dockerhub.util.DockerTagFinder;
 import io.linuxserver.fleet.v2.cache.RepositoryCache;
 import io.linuxserver.fleet.v2.db.ImageDAO;
 import io.linuxserver.fleet.v2.file.FileManager;
+import io.linuxserver.fleet.v2.file.snapshot.CatalogueSnapshot;
 import io.linuxserver.fleet.v2.key.ImageKey;
 import io.linuxserver.fleet.v2.key.ImageLookupKey;
 import io.linuxserver.fleet.v2.key.RepositoryKey;
@@ -37,21 +38,56 @@ import io.linuxserver.fleet.v2.types.meta.ItemSyncSpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class ImageService extends AbstractAppService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ImageService.class);
 
+    /**
+     * How often the cache is rebuilt in full, regardless of whether or not it appears to have drifted.
+     */
+    private static final Duration FullReloadInterval = Duration.ofDays(1);
+
+    /**
+     * How far back each refresh looks before the point the previous one got up to. Rows are stamped when they
+     * are written rather than when they are committed, so a slow transaction can land behind the watermark.
+     */
+    private static final Duration RefreshOverlap     = Duration.ofMinutes(1);
+
     private final ImageDAO        imageDAO;
     private final FileManager     fileManager;
     private final RepositoryCache repositoryCache;
     private final TemplateMerger  templateMerger;
 
+    /**
+     * Held for the whole of a reload or refresh, so that only one runs at a time. The database is read while
+     * holding only this, and the monitor on the service is taken just to apply what was read.
+     */
+    private final Object reloadLock = new Object();
+
+    private LocalDateTime  refreshedUpTo;
+    private LocalDateTime  lastFullReloadAt;
+    private List<Runnable> writesDuringLoad;
+
     public ImageService(final FleetAppController controller, final ImageDAO imageDAO) {
+        this(controller, imageDAO, null);
+    }
+
+    /**
+     * @param warmStartSnapshot
+     *      If given, the cache is filled from this snapshot rather than the database, so that pages can be served
+     *      straight away. {@link #reloadCache()} must then be called to bring the cache into line with the database.
+     */
+    public ImageService(final FleetAppController controller, final ImageDAO imageDAO, final CatalogueSnapshot warmStartSnapshot) {
         super(controller);
 
         this.imageDAO        = imageDAO;
@@ -59,15 +95,151 @@ public class ImageService extends AbstractAppService {
         this.repositoryCache = new RepositoryCache();
         this.templateMerger  = new TemplateMerger();
 
-        reloadCache();
+        if (null == warmStartSnapshot) {
+            reloadCache();
+
+        } else {
+
+            repositoryCache.replaceAllItems(warmStartSnapshot.getRepositories());
+            LOGGER.info("Warm started cache from {}", warmStartSnapshot);
+        }
     }
 
+    /**
+     * <p>
+     * Rebuilds the cache in full from the database. The load itself does not block writes through this service.
+     * Anything written while it is in flight is replayed over the new generation before it is swapped in.
+     * </p>
+     */
     public final void reloadCache() {
 
-        final List<Repository> allItems = imageDAO.fetchAllRepositories();
+        synchronized (reloadLock) {
+
+            startRecordingWrites();
+            try {
+
+                final CatalogueSummary summary  = imageDAO.fetchCatalogueSummary();
+                final List<Repository> allItems = imageDAO.fetchAllRepositories();
+
+                synchronized (this) {
 
-        repositoryCache.clear();
-        repositoryCache.addAllItems(allItems);
+                    repositoryCache.replaceAllItems(allItems);
+                    writesDuringLoad.forEach(Runnable::run);
+
+                    refreshedUpTo    = summary.getCheckedAt();
+                    lastFullReloadAt = LocalDateTime.now();
+                }
+
+            } finally {
+                stopRecordingWrites();
+            }
+        }
+    }
+
+    /**
+     * @return
+     *      false while the cache is still being served from a warm-start snapshot, and has not yet been
+     *      loaded from the database.
+     */
+    public final synchronized boolean isCacheReconciled() {
+        return null != lastFullReloadAt;
+    }
+
+    public final long getCacheModificationCount() {
+        return repositoryCache.getModificationCount();
+    }
+
+    /**
+     * <p>
+     * Brings the cache up to date with anything written to the database since it was last refreshed, whether by
+     * another node or from outside of Fleet. Only the repositories and images which have changed are refetched.
+     * Removals leave nothing behind to find, so the cache is rebuilt in full if the number of repositories or
+     * images no longer matches the database, and every so often regardless.
+     * </p>
+     */
+    public final void refreshCache() {
+
+        synchronized (reloadLock) {
+
+            final LocalDateTime lastReload;
+            final LocalDateTime since;
+            synchronized (this) {
+
+                lastReload = lastFullReloadAt;
+                since      = null == refreshedUpTo ? null : refreshedUpTo.minus(RefreshOverlap);
+            }
+
+            if (null == lastReload) {
+
+                LOGGER.info("Cache has not yet been loaded from the database. Loading in full.");
+                reloadCache();
+                return;
+            }
+
+            if (!LocalDateTime.now().isBefore(lastReload.plus(FullReloadInterval))) {
+
+                LOGGER.info("Rebuilding cache in full, as it was last rebuilt at {}", lastReload);
+                reloadCache();
+                return;
+            }
+
+            final boolean drifted;
+            final int     refreshedRepositoryCount;
+            final int     changedImageCount;
+
+            startRecordingWrites();
+            try {
+
+                final CatalogueSummary summary = imageDAO.fetchCatalogueSummary();
+
+                final List<Repository>   changedRepositories   = new ArrayList<>();
+                final Set<RepositoryKey> refreshedRepositories = new HashSet<>();
+                for (RepositoryKey repositoryKey : imageDAO.fetchRepositoryKeysModifiedSince(since)) {
+
+                    final Repository repository = imageDAO.fetchRepository(repositoryKey);
+                    if (null != repository) {
+
+                        changedRepositories.add(repository);
+                        refreshedRepositories.add(repositoryKey);
+                    }
+                }
+
+                final List<ImageKey> changedImageKeys = imageDAO.fetchImageKeysModifiedSince(since).stream()
+                        .filter(imageKey -> !refreshedRepositories.contains(imageKey.getRepositoryKey()))
+                        .collect(Collectors.toList());
+
+                final List<Image> changedImages = changedImageKeys.isEmpty() ? new ArrayList<>() : imageDAO.fetchImages(changedImageKeys);
+
+                synchronized (this) {
+
+                    changedRepositories.forEach(repositoryCache::addItem);
+                    changedImages.forEach(this::updateCache);
+                    writesDuringLoad.forEach(Runnable::run);
+
+                    refreshedUpTo = summary.getCheckedAt();
+
+                    drifted = repositoryCache.size() != summary.getRepositoryCount() || repositoryCache.getImageCount() != summary.getImageCount();
+                    if (drifted) {
+                        LOGGER.info("Cache holds {} repositories and {} images but expected {}. Rebuilding in full.",
+                                    repositoryCache.size(), repositoryCache.getImageCount(), summary);
+                    }
+                }
+
+                refreshedRepositoryCount = refreshedRepositories.size();
+                changedImageCount        = changedImages.size();
+
+            } finally {
+                stopRecordingWrites();
+            }
+
+            if (drifted) {
+
+                reloadCache();
+                return;
+            }
+
+            LOGGER.info("Refreshed {} repositories and {} images changed since {}", refreshedRepositoryCount, changedImageCount, since);
+        }
     }
 
     public final Image updateImageSpec(final ImageKey imageKey, final ItemSyncSpec updatedSpec) {
@@ -98,7 +270,7 @@ public class ImageService extends AbstractAppService {
         }
 
         final Repository storedRepository = result.getResult();
-        repositoryCache.addItem(storedRepository);
+        applyToCache(() -> repositoryCache.addItem(storedRepository));
 
         return storedRepository;
     }
@@ -114,7 +286,7 @@ public class ImageService extends AbstractAppService {
 
         final Repository repositoryOutline = result.getResult();
         LOGGER.info("Successfully created outline for repository");
-        repositoryCache.addItem(repositoryOutline);
+        applyToCache(() -> repositoryCache.addItem(repositoryOutline));
 
         return repositoryOutline;
     }
@@ -131,7 +303,7 @@ public class ImageService extends AbstractAppService {
 
         final Image imageOutline = result.getResult();
         LOGGER.info("Successfully created outline for image {}", imageOutline);
-        updateCache(imageOutline);
+        applyToCache(() -> updateCache(imageOutline));
 
         return imageOutline;
     }
@@ -144,7 +316,7 @@ public class ImageService extends AbstractAppService {
             throw new RuntimeException("Unable to remove persisted image: " + removalResult.getStatusMessage());
         }
 
-        repositoryCache.findItem(cachedImage.getRepositoryKey()).removeImage(cachedImage);
+        applyToCache(() -> removeCachedImage(cachedImage.getKey()));
     }
 
     public final void removeRepository(final RepositoryKey repositoryKey) {
@@ -157,7 +329,7 @@ public class ImageService extends AbstractAppService {
                 throw new RuntimeException("Unable to remove repository " + repositoryKey);
             }
 
-            repositoryCache.removeItem(cached.getKey());
+            applyToCache(() -> repositoryCache.removeItem(cached.getKey()));
 
         } else {
             throw new IllegalArgumentException("Unable to find cached repository " + repositoryKey);
@@ -168,6 +340,69 @@ public class ImageService extends AbstractAppService {
         return storeImage(image, imageDAO::storeImage);
     }
 
+    /**
+     * <p>
+     * Stores a batch of images in one go. The cache is updated for each image which was stored successfully.
+     * </p>
+     *
+     * @return
+     *      One result per image, in the same order.
+     */
+    public final synchronized List<InsertUpdateResult<Image>> storeImages(final List<Image> images) {
+
+        final List<InsertUpdateResult<Image>> results = imageDAO.storeImages(images);
+        for (int i = 0; i < results.size(); i++) {
+
+            final InsertUpdateResult<Image> result = results.get(i);
+            if (result.isError()) {
+                LOGGER.error("Unable to store image {}. Update returned error: {}", images.get(i), result.getStatusMessage());
+            } else {
+
+                final Image storedImage = result.getResult();
+                applyToCache(() -> updateCache(storedImage));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * <p>
+     * Brings the cache up to date with changes written by another node. A change to a repository refetches
+     * the whole repository, so any changes to its images in the same batch are covered by that. Otherwise
+     * only the changed images are refetched.
+     * </p>
+     */
+    public final synchronized void applyExternalChanges(final List<ChangeLogEntry> changes) {
+
+        final Set<RepositoryKey> refreshedRepositories = new HashSet<>();
+        for (ChangeLogEntry change : changes) {
+
+            if (change.isRepositoryChange() && refreshedRepositories.add(change.getRepositoryKey())) {
+
+                final Repository repository = imageDAO.fetchRepository(change.getRepositoryKey());
+                if (null == repository) {
+                    applyToCache(() -> repositoryCache.removeItem(change.getRepositoryKey()));
+                } else {
+                    applyToCache(() -> repositoryCache.addItem(repository));
+                }
+            }
+        }
+
+        for (ChangeLogEntry change : changes) {
+
+            if (change.isRepositoryChange() || refreshedRepositories.contains(change.getRepositoryKey())) {
+                continue;
+            }
+
+            final Image image = imageDAO.fetchImage(change.getImageKey());
+            if (null != image) {
+                applyToCache(() -> updateCache(image));
+            } else {
+                applyToCache(() -> removeCachedImage(change.getImageKey()));
+            }
+        }
+    }
+
     public final Image storeImageTemplateMetaData(final Image image) {
         return storeImage(image, imageDAO::storeImageMetaData);
     }
@@ -197,6 +432,16 @@ public class ImageService extends AbstractAppService {
     }
 
     public Image applyImageUpstreamUpdate(final ImageKey imageKey, final DockerImage latestImage) {
+        return storeImage(prepareImageUpstreamUpdate(imageKey, latestImage));
+    }
+
+    /**
+     * <p>
+     * Builds an updated copy of the cached image from its upstream counterpart, matching each tracked branch
+     * against the upstream tags. Nothing is stored.
+     * </p>
+     */
+    public final Image prepareImageUpstreamUpdate(final ImageKey imageKey, final DockerImage latestImage) {
 
         final Image cachedImage = findImage(imageKey);
         final Image cloned      = cachedImage.cloneForUpdate(latestImage.getPullCount(),
@@ -222,8 +467,60 @@ public class ImageService extends AbstractAppService {
             }
         }
 
-        return storeImage(cloned);
+        return cloned;
+    }
+
+    /**
+     * <p>
+     * Determines whether or not an image's tags need to be fetched again. This is the case when the image has
+     * been updated upstream since it was last synchronised, or when it has a tracked branch which has not
+     * yet been resolved to a tag (e.g. a newly tracked branch).
+     * </p>
+     */
+    public final boolean isTagSyncRequired(final ImageKey imageKey, final LocalDateTime upstreamLastUpdated) {
 
+        final Image cachedImage = getImage(imageKey);
+        if (null == cachedImage || null == cachedImage.getLastUpdated() || null == upstreamLastUpdated) {
+            return true;
+        }
+
+        if (cachedImage.hasUnresolvedTagBranches()) {
+            return true;
+        }
+
+        // Stored times are only held to the second
+        return !cachedImage.getLastUpdated().truncatedTo(ChronoUnit.SECONDS).equals(upstreamLastUpdated.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * <p>
+     * Applies only the cheap listing-level data (pull count, star count and description) from an upstream
+     * image, leaving tag branches and the last updated time untouched. The image is only written if something
+     * has actually changed.
+     * </p>
+     * <p>
+     * This may run alongside a tag sync of the same image, so the comparison is made against whatever is cached
+     * at the time of writing, and only the stats themselves are written to the database.
+     * </p>
+     */
+    public final synchronized Image applyImageStatsUpdate(final ImageKey imageKey, final DockerImage latestImage) {
+
+        final Image cachedImage = findImage(imageKey);
+
+        final boolean statsUnchanged = cachedImage.getPullCount() == latestImage.getPullCount()
+                && cachedImage.getStarCount() == latestImage.getStarCount()
+                && Objects.equals(cachedImage.getDescription(), latestImage.getDescription());
+
+        if (statsUnchanged) {
+            return cachedImage;
+        }
+
+        final Image updated = cachedImage.cloneForUpdate(latestImage.getPullCount(),
+                                                         latestImage.getStarCount(),
+                                                         latestImage.getDescription(),
+                                                         cachedImage.getLastUpdated());
+
+        return storeImage(updated, imageDAO::storeImageStats);
     }
 
     public void trackBranchOnImage(final ImageKey imageKey, final String branchName) {
@@ -310,7 +607,7 @@ public class ImageService extends AbstractAppService {
         }
 
         final Image storedImage = result.getResult();
-        updateCache(storedImage);
+        applyToCache(() -> updateCache(storedImage));
 
         return storedImage;
     }
@@ -324,6 +621,37 @@ public class ImageService extends AbstractAppService {
         return image;
     }
 
+    /**
+     * <p>
+     * Applies a write to the cache. If a reload or refresh is reading from the database at the same time, the
+     * write is also kept so that it can be replayed over what was read, which may predate it.
+     * </p>
+     */
+    private synchronized void applyToCache(final Runnable write) {
+
+        write.run();
+        if (null != writesDuringLoad) {
+            writesDuringLoad.add(write);
+        }
+    }
+
+    private synchronized void startRecordingWrites() {
+        writesDuringLoad = new ArrayList<>();
+    }
+
+    private synchronized void stopRecordingWrites() {
+        writesDuringLoad = null;
+    }
+
+    private void removeCachedImage(final ImageKey imageKey) {
+
+        final Image      cachedImage      = repositoryCache.findImage(imageKey);
+        final Repository cachedRepository = repositoryCache.findItem(imageKey.getRepositoryKey());
+        if (null != cachedImage && null != cachedRepository) {
+            cachedRepository.removeImage(cachedImage);
+        }
+    }
+
     private void updateCache(final Image storedImage) {
 
         final Repository imageParentRepository = repositoryCache.findItem(storedImage.getRepositoryKey());
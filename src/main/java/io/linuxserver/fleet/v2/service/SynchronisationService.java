@@ -21,67 +21,220 @@ import io.linuxserver.fleet.core.FleetAppController;
 import io.linuxserver.fleet.v2.client.docker.queue.DockerApiDelegate;
 import io.linuxserver.fleet.v2.client.docker.queue.DockerApiTaskConsumer;
 import io.linuxserver.fleet.v2.client.docker.queue.DockerImageUpdateRequest;
+import io.linuxserver.fleet.v2.client.docker.queue.RetryPolicy;
+import io.linuxserver.fleet.v2.client.docker.queue.RetryStage;
 import io.linuxserver.fleet.v2.client.docker.queue.TaskQueue;
+import io.linuxserver.fleet.v2.db.SyncCadenceDAO;
 import io.linuxserver.fleet.v2.key.ImageKey;
-import io.linuxserver.fleet.v2.key.ImageLookupKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.service.sync.SyncCadenceTracker;
+import io.linuxserver.fleet.v2.service.sync.SyncHandle;
+import io.linuxserver.fleet.v2.service.sync.SyncPipeline;
+import io.linuxserver.fleet.v2.service.sync.SyncProgressTracker;
+import io.linuxserver.fleet.v2.service.sync.SyncQueueJournal;
+import io.linuxserver.fleet.v2.service.sync.SyncStatus;
+import io.linuxserver.fleet.v2.thread.RetryReleaseThread;
+import io.linuxserver.fleet.v2.thread.TaskPriority;
 import io.linuxserver.fleet.v2.types.Image;
 import io.linuxserver.fleet.v2.types.Repository;
 import io.linuxserver.fleet.v2.types.docker.DockerImage;
 import io.linuxserver.fleet.v2.types.internal.ImageOutlineRequest;
+import io.linuxserver.fleet.v2.types.internal.ImageSyncCadence;
+import io.linuxserver.fleet.v2.types.internal.RepositoryDiff;
+import io.linuxserver.fleet.v2.types.internal.SyncQueueEntry;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 public class SynchronisationService extends AbstractAppService {
 
-    private final TaskQueue<DockerImageUpdateRequest> syncQueue;
-    private final DockerApiTaskConsumer               taskConsumer;
+    private static final int  DeadLetterCapacity = 50;
+    private static final long MaxRetryDelayMillis = 30 * 60 * 1000L;
 
-    public SynchronisationService(FleetAppController controller) {
+    private final TaskQueue<DockerImageUpdateRequest>  syncQueue;
+    private final RetryStage<DockerImageUpdateRequest> retryStage;
+    private final List<DockerApiTaskConsumer>          taskConsumers;
+    private final SyncProgressTracker                  progressTracker;
+    private final SyncQueueJournal                     queueJournal;
+    private final SyncPipeline                         syncPipeline;
+    private final SyncCadenceTracker                   cadenceTracker;
+    private final SyncCadenceDAO                       cadenceDAO;
+
+    /**
+     * The most recent handle for each image which still has work outstanding. Handles are dropped as soon as they complete.
+     */
+    private final ConcurrentMap<ImageKey, SyncHandle>  pendingHandles;
+
+    public SynchronisationService(final FleetAppController controller,
+                                  final SyncQueueJournal queueJournal,
+                                  final SyncCadenceDAO cadenceDAO) {
         super(controller);
 
-        syncQueue = new TaskQueue<>();
-        taskConsumer = new DockerApiTaskConsumer(this);
-        taskConsumer.start();
+        this.queueJournal = queueJournal;
+        this.cadenceDAO   = cadenceDAO;
+
+        syncQueue       = new TaskQueue<>();
+        retryStage      = new RetryStage<>(syncQueue, makeRetryPolicy(controller), DeadLetterCapacity);
+        taskConsumers   = new ArrayList<>();
+        progressTracker = new SyncProgressTracker();
+        pendingHandles  = new ConcurrentHashMap<>();
+        cadenceTracker  = new SyncCadenceTracker(controller.getAppProperties().getMinSyncInterval(),
+                                                 controller.getAppProperties().getMaxSyncInterval());
+
+        new RetryReleaseThread(controller, retryStage, "DockerSyncRetry").start();
+
+        syncPipeline = new SyncPipeline(controller,
+                                        controller.getAppProperties().getSyncPipelineDiffWorkers(),
+                                        controller.getAppProperties().getSyncPipelineBatchSize());
+
+        final int workerCount = controller.getAppProperties().getSyncWorkerCount();
+        getLogger().info("Starting {} synchronisation consumer(s)", workerCount);
+
+        for (int i = 1; i <= workerCount; i++) {
+
+            final DockerApiTaskConsumer taskConsumer = new DockerApiTaskConsumer(this, i);
+            taskConsumers.add(taskConsumer);
+            taskConsumer.start();
+        }
     }
 
-    public final void synchroniseUpstreamRepository(final Repository repository) {
+    /**
+     * <p>
+     * Brings a cached repository in line with a single upstream listing of it. Images which have appeared
+     * upstream are outlined and queued for synchronisation, images which have gone are removed, and the stats
+     * of every other image are refreshed. Of those, only images which have been pushed to upstream are queued for
+     * a tag synchronisation, along with any images still waiting on unresolved branches which are due a check.
+     * </p>
+     * <p>
+     * The cadence of each image only comes into deciding which changed images are queued for a tag sync. An image's
+     * cadence moves on when it is due or has been pushed to, so that checks in between do not keep putting it off.
+     * </p>
+     * <p>
+     * Images which have gone upstream are removed even if the repository has synchronisation disabled, but
+     * nothing else is done for such repositories.
+     * </p>
+     */
+    public final void reconcileRepository(final Repository repository) {
 
-        if (repository.isSyncEnabled()) {
+        final List<DockerImage> apiImages = getController().getConfiguredDockerDelegate().getImagesForRepository(repository.getKey());
+        final RepositoryDiff    diff      = RepositoryDiff.between(repository, apiImages);
 
-            getLogger().info("synchroniseUpstreamRepository checking {} for new images since last sync", repository);
+        removeImagesGoneUpstream(repository, apiImages, diff);
 
-            final List<DockerImage> apiImages = getController().getConfiguredDockerDelegate().getImagesForRepository(repository.getKey());
-            for (DockerImage apiImage : apiImages) {
+        if (!repository.isSyncEnabled()) {
 
-                final Image cachedImage = getController().getImageService()
-                        .lookupImage(new ImageLookupKey(apiImage.getRepository() + "/" + apiImage.getName()));
+            getLogger().info("Will not reconcile upstream repository {} any further as synchronisation is disabled", repository);
+            return;
+        }
 
-                if (null == cachedImage) {
+        getLogger().info("Reconciling {} with upstream: {}", repository, diff);
 
-                    getLogger().info("Found image from API which is not currently cached. Will add to system: {}", apiImage);
-                    final ImageOutlineRequest outlineRequest = new ImageOutlineRequest(repository.getKey(),
-                                                                                       apiImage.getName(),
-                                                                                       apiImage.getDescription(),
-                                                                                       apiImage.getBuildDate());
+        final LocalDateTime          now     = LocalDateTime.now();
+        final List<ImageSyncCadence> checked = new ArrayList<>();
 
-                    final Image imageOutline = getController().getImageService().createImageOutline(outlineRequest);
-                    synchroniseImage(imageOutline.getKey());
+        for (DockerImage apiImage : diff.getAddedImages()) {
+
+            getLogger().info("Found image from API which is not currently cached. Will add to system: {}", apiImage);
+            final ImageOutlineRequest outlineRequest = new ImageOutlineRequest(repository.getKey(),
+                                                                               apiImage.getName(),
+                                                                               apiImage.getDescription(),
+                                                                               apiImage.getBuildDate());
+
+            final Image imageOutline = getController().getImageService().createImageOutline(outlineRequest);
+            checked.add(cadenceTracker.recordCheck(imageOutline.getKey(), apiImage.getBuildDate(), now));
+            synchroniseImage(imageOutline.getKey());
+        }
+
+        final Set<ImageKey> changedImages = new HashSet<>(diff.getChangedImages());
+        for (Map.Entry<ImageKey, DockerImage> matched : diff.getMatchedImages().entrySet()) {
+
+            final Image cachedImage = repository.findImage(matched.getKey());
+            if (null != cachedImage && cachedImage.isSyncEnabled()) {
+
+                getController().getImageService().applyImageStatsUpdate(cachedImage.getKey(), matched.getValue());
+
+                // Unresolved branches rarely resolve between checks, so are only chased when the image is due
+                final boolean due    = cadenceTracker.isDue(cachedImage.getKey(), now);
+                final boolean pushed = RepositoryDiff.isPushedSinceLastSync(cachedImage, matched.getValue());
+
+                if (due || pushed) {
+                    checked.add(cadenceTracker.recordCheck(cachedImage.getKey(), matched.getValue().getBuildDate(), now));
+                }
+
+                if (changedImages.contains(cachedImage.getKey()) && (due || pushed)) {
+
+                    getLogger().info("Image {} has changed upstream since it was last synchronised", cachedImage);
+                    synchroniseImage(cachedImage.getKey());
                 }
             }
+        }
 
-        } else {
-            getLogger().info("Will not check upstream repository {} as synchronisation is disabled", repository);
+        storeCadences(checked);
+    }
+
+    private void removeImagesGoneUpstream(final Repository repository, final List<DockerImage> apiImages, final RepositoryDiff diff) {
+
+        if (apiImages.isEmpty()) {
+
+            getLogger().warn("Found no images for repository {} upstream. Playing it safe and not removing any cached images.", repository);
+            return;
+        }
+
+        for (Image removedImage : diff.getRemovedImages()) {
+
+            getLogger().info("Found removed image upstream. Deleting from cache: {}", removedImage);
+            getController().getImageService().removeImage(removedImage.getKey());
+            cadenceTracker.forget(removedImage.getKey());
+        }
+    }
+
+    /**
+     * <p>
+     * Picks up the cadence of each image from when the application last ran, so quiet images are not all checked at once.
+     * </p>
+     */
+    public final void restoreSyncCadences() {
+
+        final List<ImageSyncCadence> cadences = cadenceDAO.fetchAllCadences();
+        cadenceTracker.restoreCadences(cadences);
+
+        getLogger().info("Restored sync cadence for {} image(s)", cadences.size());
+    }
+
+    private void storeCadences(final List<ImageSyncCadence> cadences) {
+
+        if (cadences.isEmpty()) {
+            return;
+        }
+
+        try {
+            cadenceDAO.storeCadences(cadences);
+        } catch (RuntimeException e) {
+            getLogger().warn("Unable to store sync cadence of {} image(s). They will be worked out again after a restart.", cadences.size(), e);
         }
     }
 
     public final void synchroniseCachedRepository(final Repository repository) {
+        synchroniseCachedRepository(repository, false);
+    }
+
+    public final void synchroniseCachedRepository(final Repository repository, final boolean forceFullSync) {
 
         if (repository.isSyncEnabled()) {
             for (Image image : repository.getImages()) {
                 if (image.isSyncEnabled()) {
-                    boolean submitted = synchroniseImage(image.getKey());
-                    if (!submitted) {
+                    final SyncHandle handle = synchroniseImage(image.getKey(), forceFullSync);
+                    if (!handle.isAccepted()) {
                         getLogger().warn("Unable to place sync request for image {} on queue", image.getKey());
                     }
                 } else {
@@ -93,23 +246,187 @@ public class SynchronisationService extends AbstractAppService {
         }
     }
 
-    public final boolean synchroniseImage(final ImageKey imageKey) {
-        return syncQueue.submitTask(new DockerImageUpdateRequest(imageKey));
+    public final SyncHandle synchroniseImage(final ImageKey imageKey) {
+        return synchroniseImage(imageKey, false);
+    }
+
+    public final SyncHandle synchroniseImage(final ImageKey imageKey, final boolean forceFullSync) {
+        return synchroniseImage(imageKey, forceFullSync, TaskPriority.Bulk);
+    }
+
+    /**
+     * @param priority
+     *      The lane the request should wait in. Requests a user is waiting on should jump ahead of scheduled work.
+     * @return
+     *      A handle which completes once the image has been synchronised.
+     */
+    public final SyncHandle synchroniseImage(final ImageKey imageKey, final boolean forceFullSync, final TaskPriority priority) {
+
+        // Journalled first, as a worker may claim the request as soon as it is on the queue
+        queueJournal.recordQueued(new SyncQueueEntry(imageKey, forceFullSync, priority));
+
+        final SyncHandle handle = submit(new DockerImageUpdateRequest(imageKey, forceFullSync, priority));
+        if (!handle.isAccepted()) {
+            queueJournal.recordWithdrawn(imageKey);
+        }
+        return handle;
+    }
+
+    /**
+     * <p>
+     * Places any requests which were still outstanding when the application last stopped back on the queue,
+     * including those which were being worked on at the time. Requests for images which are no longer cached
+     * are completed straight away. When clustered, requests for repositories owned by other nodes are left for them.
+     * </p>
+     */
+    public final void restoreOutstandingRequests() {
+
+        int restored = 0;
+        int resumed  = 0;
+        for (SyncQueueEntry entry : queueJournal.fetchOutstanding()) {
+
+            if (null == getController().getImageService().getImage(entry.getImageKey())) {
+
+                queueJournal.recordCompleted(entry.getImageKey());
+                continue;
+            }
+
+            if (!getController().getClusterMembership().ownsRepository(entry.getImageKey().getRepositoryKey())) {
+                continue;
+            }
+
+            submit(new DockerImageUpdateRequest(entry.getImageKey(), entry.isForceSync(), entry.getPriority()));
+
+            restored++;
+            if (entry.isClaimed()) {
+                resumed++;
+            }
+        }
+
+        getLogger().info("Restored {} outstanding sync request(s), of which {} were in flight when last stopped", restored, resumed);
+    }
+
+    /**
+     * <p>
+     * Makes sure the durable record of the queue is up to date. Anything in flight is left claimed, so is resumed
+     * when the application next starts.
+     * </p>
+     */
+    public final void checkpointQueue() {
+        queueJournal.checkpoint();
+    }
+
+    private SyncHandle submit(final DockerImageUpdateRequest request) {
+
+        final ImageKey   imageKey = request.getImageKey();
+        final SyncHandle handle   = new SyncHandle(imageKey, syncQueue.submitTask(request), request.getCompletion());
+
+        if (handle.isAccepted()) {
+
+            pendingHandles.put(imageKey, handle);
+            handle.getCompletion().whenComplete((result, error) -> pendingHandles.remove(imageKey, handle));
+        }
+        return handle;
+    }
+
+    public final SyncStatus getImageSyncStatus(final ImageKey imageKey) {
+
+        final Predicate<DockerImageUpdateRequest> forImage = task -> task.getImageKey().equals(imageKey);
+        return progressTracker.getImageStatus(imageKey, countQueuedTasks(forImage), syncQueue.countRunningTasks(forImage));
+    }
+
+    public final SyncStatus getRepositorySyncStatus(final RepositoryKey repositoryKey) {
+
+        final Predicate<DockerImageUpdateRequest> forRepository = task -> task.getImageKey().getRepositoryKey().equals(repositoryKey);
+        return progressTracker.getRepositoryStatus(repositoryKey, countQueuedTasks(forRepository), syncQueue.countRunningTasks(forRepository));
+    }
+
+    /**
+     * Tasks waiting to be retried still have work outstanding, so are counted alongside those on the queue.
+     */
+    private int countQueuedTasks(final Predicate<DockerImageUpdateRequest> filter) {
+        return syncQueue.countQueuedTasks(filter) + retryStage.countWaitingTasks(filter);
+    }
+
+    /**
+     * <p>
+     * Waits, without holding up the caller, for any outstanding work on the image to finish, or for the timeout
+     * to pass, whichever comes first. The status is then read at that point.
+     * </p>
+     */
+    public final CompletableFuture<SyncStatus> awaitImageSync(final ImageKey imageKey, final Duration timeout) {
+
+        final SyncHandle handle = pendingHandles.get(imageKey);
+        if (null == handle) {
+            return CompletableFuture.completedFuture(getImageSyncStatus(imageKey));
+        }
+        return awaitQuietly(handle.getCompletion(), timeout).thenApply(ignored -> getImageSyncStatus(imageKey));
+    }
+
+    public final CompletableFuture<SyncStatus> awaitRepositorySync(final RepositoryKey repositoryKey, final Duration timeout) {
+
+        final CompletableFuture<?>[] outstanding = pendingHandles.values().stream()
+                .filter(handle -> handle.getImageKey().getRepositoryKey().equals(repositoryKey))
+                .map(SyncHandle::getCompletion)
+                .toArray(CompletableFuture[]::new);
+
+        return awaitQuietly(CompletableFuture.allOf(outstanding), timeout).thenApply(ignored -> getRepositorySyncStatus(repositoryKey));
+    }
+
+    private static CompletableFuture<Void> awaitQuietly(final CompletableFuture<Void> completion, final Duration timeout) {
+
+        return completion.handle((result, error) -> (Void) null)
+                         .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public final SyncCadenceTracker getCadenceTracker() {
+        return cadenceTracker;
+    }
+
+    public final SyncProgressTracker getProgressTracker() {
+        return progressTracker;
     }
 
     public final TaskQueue<DockerImageUpdateRequest> getSyncQueue() {
         return syncQueue;
     }
 
+    public final SyncQueueJournal getQueueJournal() {
+        return queueJournal;
+    }
+
+    public final SyncPipeline getSyncPipeline() {
+        return syncPipeline;
+    }
+
+    public final RetryStage<DockerImageUpdateRequest> getRetryStage() {
+        return retryStage;
+    }
+
     public final DockerApiDelegate getConfiguredDockerDelegate() {
         return getController().getConfiguredDockerDelegate();
     }
 
     public final boolean isConsumerRunning() {
-        return taskConsumer.isThreadRunning();
+        return getRunningConsumerCount() > 0;
+    }
+
+    public final int getRunningConsumerCount() {
+        return (int) taskConsumers.stream().filter(DockerApiTaskConsumer::isThreadRunning).count();
+    }
+
+    public final int getConsumerCount() {
+        return taskConsumers.size();
     }
 
     public final boolean isSyncQueueEmpty() {
         return getSyncQueue().isEmpty();
     }
+
+    private static RetryPolicy makeRetryPolicy(final FleetAppController controller) {
+
+        return new RetryPolicy(controller.getAppProperties().getSyncRetryAttempts(),
+                               controller.getAppProperties().getSyncRetryDelayMillis(),
+                               MaxRetryDelayMillis);
+    }
 }
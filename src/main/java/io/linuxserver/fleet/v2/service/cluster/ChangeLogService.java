@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.cluster;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.v2.db.ChangeLogDAO;
+import io.linuxserver.fleet.v2.service.AbstractAppService;
+import io.linuxserver.fleet.v2.types.internal.ChangeLogEntry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Keeps this node's cache in step with changes written by other nodes. Each write to a repository or image
+ * is recorded in the change log alongside the change itself, so rather than reloading everything this node
+ * only refetches what the log says has changed since it last looked.
+ * </p>
+ */
+public class ChangeLogService extends AbstractAppService {
+
+    private static final int               PageSize       = 500;
+    private static final Duration          GapTimeout     = Duration.ofSeconds(30);
+    private static final DateTimeFormatter PollTimeFormat = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm:ss");
+
+    private final ChangeLogDAO            changeLogDAO;
+    private final String                  originNodeId;
+    private final ChangeSequenceWatermark watermark;
+    private final AtomicLong              changesApplied;
+
+    private volatile LocalDateTime lastPolledAt;
+
+    /**
+     * <p>
+     * The current end of the log is read straight away, so this must be created before the image cache is
+     * first loaded. Anything written while the cache loads is then applied again on the first poll, which is harmless.
+     * </p>
+     */
+    public ChangeLogService(final FleetAppController controller, final ChangeLogDAO changeLogDAO, final String originNodeId) {
+        super(controller);
+
+        this.changeLogDAO = changeLogDAO;
+        this.originNodeId = originNodeId;
+
+        watermark      = new ChangeSequenceWatermark(changeLogDAO.fetchLatestSequence(), GapTimeout);
+        changesApplied = new AtomicLong();
+    }
+
+    /**
+     * <p>
+     * Applies any changes made by other nodes since the last poll.
+     * </p>
+     */
+    public final void poll() {
+
+        long cursor = watermark.getWatermark();
+
+        List<ChangeLogEntry> page;
+        do {
+
+            page = changeLogDAO.fetchChangesSince(cursor, PageSize);
+
+            final List<ChangeLogEntry> unapplied = new ArrayList<>();
+            for (ChangeLogEntry entry : page) {
+
+                if (!watermark.isApplied(entry.getSequence())) {
+                    unapplied.add(entry);
+                }
+                cursor = entry.getSequence();
+            }
+
+            applyChanges(unapplied);
+
+        } while (page.size() == PageSize);
+
+        lastPolledAt = LocalDateTime.now();
+        watermark.advance(lastPolledAt);
+    }
+
+    public final void pruneHistory(final Duration retention) {
+
+        changeLogDAO.pruneChangesBefore(LocalDateTime.now().minus(retention));
+        getLogger().info("Pruned change log entries older than {}", retention);
+    }
+
+    public final long getAppliedSequence() {
+        return watermark.getWatermark();
+    }
+
+    public final long getChangesApplied() {
+        return changesApplied.get();
+    }
+
+    public final String getLastPolledAtAsString() {
+        return null == lastPolledAt ? "Never" : lastPolledAt.format(PollTimeFormat);
+    }
+
+    private void applyChanges(final List<ChangeLogEntry> unapplied) {
+
+        final List<ChangeLogEntry> external = new ArrayList<>();
+        for (ChangeLogEntry entry : unapplied) {
+
+            if (!originNodeId.equals(entry.getOrigin())) {
+                external.add(entry);
+            }
+        }
+
+        if (!external.isEmpty()) {
+
+            getController().getImageService().applyExternalChanges(external);
+            changesApplied.addAndGet(external.size());
+
+            getLogger().debug("Applied {} change(s) made by other nodes", external.size());
+        }
+
+        unapplied.forEach(entry -> watermark.markApplied(entry.getSequence()));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.cluster;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * <p>
+ * Tracks how far through the change log this node has got. Sequences are handed out when a change is
+ * written but only become visible once it is committed, so a later change can be seen before an earlier one.
+ * The watermark therefore only moves over an unbroken run of applied sequences, and anything applied beyond
+ * it is remembered so it is not applied twice. A gap which stays open for longer than the timeout is assumed
+ * to belong to a change which was rolled back, and is skipped.
+ * </p>
+ */
+public class ChangeSequenceWatermark {
+
+    private final Duration           gapTimeout;
+    private final NavigableSet<Long> appliedAhead;
+
+    private long          watermark;
+    private LocalDateTime gapOpenedAt;
+
+    public ChangeSequenceWatermark(final long initialSequence, final Duration gapTimeout) {
+
+        this.gapTimeout = gapTimeout;
+        this.watermark  = initialSequence;
+
+        appliedAhead = new TreeSet<>();
+    }
+
+    /**
+     * @return
+     *      The sequence up to which every change has been applied.
+     */
+    public final synchronized long getWatermark() {
+        return watermark;
+    }
+
+    public final synchronized boolean isApplied(final long sequence) {
+        return sequence <= watermark || appliedAhead.contains(sequence);
+    }
+
+    public final synchronized void markApplied(final long sequence) {
+
+        if (sequence > watermark) {
+            appliedAhead.add(sequence);
+        }
+    }
+
+    /**
+     * <p>
+     * Moves the watermark as far as it can go. Should be called once after each poll of the change log.
+     * </p>
+     */
+    public final synchronized void advance(final LocalDateTime now) {
+
+        closeContiguousRun();
+
+        if (appliedAhead.isEmpty()) {
+
+            gapOpenedAt = null;
+            return;
+        }
+
+        if (null == gapOpenedAt) {
+            gapOpenedAt = now;
+
+        } else if (!now.isBefore(gapOpenedAt.plus(gapTimeout))) {
+
+            watermark   = appliedAhead.first() - 1;
+            gapOpenedAt = null;
+
+            closeContiguousRun();
+            if (!appliedAhead.isEmpty()) {
+                gapOpenedAt = now;
+            }
+        }
+    }
+
+    private void closeContiguousRun() {
+
+        while (!appliedAhead.isEmpty() && appliedAhead.first() == watermark + 1) {
+            watermark = appliedAhead.pollFirst();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.cluster;
+
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>
+ * Decides which repositories this node synchronises. When several nodes share a database, each repository is
+ * synchronised by exactly one of them at a time.
+ * </p>
+ */
+public interface ClusterMembership {
+
+    /**
+     * A lone node, which owns every repository.
+     */
+    ClusterMembership Standalone = new ClusterMembership() {
+
+        @Override
+        public boolean isClustered() {
+            return false;
+        }
+
+        @Override
+        public String getNodeId() {
+            return "standalone";
+        }
+
+        @Override
+        public boolean ownsRepository(final RepositoryKey repositoryKey) {
+            return true;
+        }
+
+        @Override
+        public List<String> getLiveNodes() {
+            return Collections.singletonList(getNodeId());
+        }
+
+        @Override
+        public Set<RepositoryKey> getOwnedRepositories() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public boolean isLeader() {
+            return true;
+        }
+
+        @Override
+        public boolean confirmLeadership() {
+            return true;
+        }
+
+        @Override
+        public long getLeadershipToken() {
+            return 0;
+        }
+
+        @Override
+        public void refresh() {
+        }
+
+        @Override
+        public void leave() {
+        }
+    };
+
+    boolean isClustered();
+
+    String getNodeId();
+
+    boolean ownsRepository(final RepositoryKey repositoryKey);
+
+    List<String> getLiveNodes();
+
+    /**
+     * The repositories this node currently holds a lease on. Only meaningful when clustered.
+     */
+    Set<RepositoryKey> getOwnedRepositories();
+
+    /**
+     * True if this node held the lead when it last refreshed, and that lead has not since lapsed.
+     */
+    boolean isLeader();
+
+    /**
+     * Checks with the database that this node is still the leader, by way of its fencing token. Cluster schedules
+     * call this before every run, so a stale leader never acts on an outdated view of itself.
+     */
+    boolean confirmLeadership();
+
+    /**
+     * The fencing token of the current lead, which goes up every time the lead changes hands. 0 if not the leader.
+     */
+    long getLeadershipToken();
+
+    /**
+     * Announces that this node is still alive, claims or gives up repositories to match the current set of live nodes,
+     * and takes or renews the lead if it is free.
+     */
+    void refresh();
+
+    /**
+     * Gives up every lease held by this node, and the lead if it holds it, so the remaining nodes can take them straight away.
+     */
+    void leave();
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.cluster;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * Places each member at many points around a ring of hashes, and gives each shard to the member found next
+ * along from the shard's own hash. When a member joins or leaves, only the shards either side of its points
+ * change hands, rather than almost every shard as with a plain modulo.
+ * </p>
+ */
+public class ConsistentHashRing {
+
+    private final TreeMap<Long, String> ring;
+
+    public ConsistentHashRing(final Collection<String> members, final int pointsPerMember) {
+
+        ring = new TreeMap<>();
+        for (String member : members) {
+
+            for (int i = 0; i < pointsPerMember; i++) {
+                ring.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * @return
+     *      The member which owns the shard, or null if the ring has no members.
+     */
+    public final String getOwner(final String shardKey) {
+
+        if (ring.isEmpty()) {
+            return null;
+        }
+
+        final Map.Entry<Long, String> owner = ring.ceilingEntry(hash(shardKey));
+        return null == owner ? ring.firstEntry().getValue() : owner.getValue();
+    }
+
+    /**
+     * String.hashCode clusters similar strings together, so the first eight bytes of an MD5 digest are used instead.
+     */
+    private static long hash(final String value) {
+
+        try {
+
+            final byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
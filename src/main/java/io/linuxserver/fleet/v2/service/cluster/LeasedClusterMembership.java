@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.cluster;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.v2.db.ClusterDAO;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.types.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>
+ * Membership backed by the database. Each node keeps a heartbeat row up to date, and lays every live node out on a
+ * consistent hash ring to decide which repositories it should own. It then takes a time-limited lease on each of
+ * those repositories, and gives up any lease on a repository the ring has moved elsewhere. A repository which is
+ * still leased by another node is left alone until that lease is released or runs out, so no repository is ever
+ * synchronised by two nodes at once.
+ * </p>
+ * <p>
+ * Every node also bids for the lead on each refresh. The lead is a lease of its own, and whichever node takes it
+ * over bumps its fencing token, so should the leader stop refreshing, another node takes over within one lease
+ * duration plus one heartbeat.
+ * </p>
+ * <p>
+ * If a refresh fails, this node stops treating its repositories (and the lead) as held once their leases would have run out.
+ * </p>
+ */
+public class LeasedClusterMembership implements ClusterMembership {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LeasedClusterMembership.class);
+
+    private static final int PointsPerNode = 64;
+
+    private final FleetAppController controller;
+    private final ClusterDAO         clusterDAO;
+    private final String             nodeId;
+    private final Duration           leaseDuration;
+
+    private volatile List<String>       liveNodes;
+    private volatile Set<RepositoryKey> ownedRepositories;
+    private volatile long               leasesValidUntil;
+    private volatile long               leadershipToken;
+
+    public LeasedClusterMembership(final FleetAppController controller,
+                                   final ClusterDAO clusterDAO,
+                                   final String nodeId,
+                                   final Duration leaseDuration) {
+
+        this.controller    = controller;
+        this.clusterDAO    = clusterDAO;
+        this.nodeId        = nodeId;
+        this.leaseDuration = leaseDuration;
+
+        liveNodes         = Collections.singletonList(nodeId);
+        ownedRepositories = Collections.emptySet();
+    }
+
+    @Override
+    public boolean isClustered() {
+        return true;
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public boolean ownsRepository(final RepositoryKey repositoryKey) {
+        return System.currentTimeMillis() < leasesValidUntil && ownedRepositories.contains(repositoryKey);
+    }
+
+    @Override
+    public List<String> getLiveNodes() {
+        return liveNodes;
+    }
+
+    @Override
+    public Set<RepositoryKey> getOwnedRepositories() {
+        return ownedRepositories;
+    }
+
+    @Override
+    public boolean isLeader() {
+        return leadershipToken > 0 && System.currentTimeMillis() < leasesValidUntil;
+    }
+
+    @Override
+    public boolean confirmLeadership() {
+
+        if (!isLeader()) {
+            return false;
+        }
+
+        try {
+            return clusterDAO.isLeadershipCurrent(nodeId, leadershipToken);
+        } catch (RuntimeException e) {
+
+            LOGGER.warn("Unable to confirm leadership of node {}. Assuming it has been lost.", nodeId, e);
+            return false;
+        }
+    }
+
+    @Override
+    public long getLeadershipToken() {
+        return isLeader() ? leadershipToken : 0;
+    }
+
+    @Override
+    public synchronized void refresh() {
+
+        final long refreshStartedAt = System.currentTimeMillis();
+        final int  leaseSeconds     = (int) leaseDuration.getSeconds();
+
+        clusterDAO.heartbeat(nodeId);
+
+        final List<String> nodes = new ArrayList<>(clusterDAO.fetchLiveNodes(leaseSeconds));
+        if (!nodes.contains(nodeId)) {
+            nodes.add(nodeId);
+        }
+        Collections.sort(nodes);
+
+        final ConsistentHashRing ring = new ConsistentHashRing(nodes, PointsPerNode);
+
+        final List<RepositoryKey> wanted   = new ArrayList<>();
+        final List<RepositoryKey> unwanted = new ArrayList<>();
+        for (Repository repository : controller.getImageService().getAllRepositories()) {
+
+            if (nodeId.equals(ring.getOwner(toShardKey(repository.getKey())))) {
+                wanted.add(repository.getKey());
+            } else if (ownedRepositories.contains(repository.getKey())) {
+                unwanted.add(repository.getKey());
+            }
+        }
+
+        if (!unwanted.isEmpty()) {
+
+            LOGGER.info("Handing over {} repository lease(s) to other nodes: {}", unwanted.size(), unwanted);
+            clusterDAO.releaseLeases(unwanted, nodeId);
+        }
+
+        final Set<RepositoryKey> owned = clusterDAO.claimLeases(wanted, nodeId, leaseSeconds);
+        if (owned.size() < wanted.size()) {
+            LOGGER.info("{} repository lease(s) are still held by other nodes and will be claimed once released", wanted.size() - owned.size());
+        }
+
+        final long token = clusterDAO.acquireLeadership(nodeId, leaseSeconds);
+        if (token != leadershipToken) {
+
+            if (token > 0) {
+                LOGGER.info("Node {} is now the cluster leader (fencing token {})", nodeId, token);
+            } else if (leadershipToken > 0) {
+                LOGGER.warn("Node {} is no longer the cluster leader", nodeId);
+            }
+        }
+
+        liveNodes         = Collections.unmodifiableList(nodes);
+        ownedRepositories = Collections.unmodifiableSet(owned);
+        leadershipToken   = token;
+        leasesValidUntil  = refreshStartedAt + leaseDuration.toMillis();
+    }
+
+    @Override
+    public synchronized void leave() {
+
+        LOGGER.info("Node {} leaving cluster", nodeId);
+
+        ownedRepositories = Collections.emptySet();
+        leadershipToken   = 0;
+        leasesValidUntil  = 0;
+        clusterDAO.leave(nodeId);
+    }
+
+    private static String toShardKey(final RepositoryKey repositoryKey) {
+        return String.valueOf(repositoryKey.getId());
+    }
+}
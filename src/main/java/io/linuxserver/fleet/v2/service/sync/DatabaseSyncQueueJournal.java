@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.sync;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.v2.db.SyncQueueDAO;
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.thread.AbstractAppThread;
+import io.linuxserver.fleet.v2.types.internal.SyncQueueEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Write-behind journal backed by the SyncQueue table. Changes are buffered and written in batches by a
+ * background thread every few hundred milliseconds, so bursts (such as a whole repository being queued)
+ * go to the database together. Changes are always written in the order they were recorded.
+ * </p>
+ * <p>
+ * Anything still buffered when the process is killed outright is lost, in which case the affected images
+ * are picked up again by the next scheduled reconciliation. A graceful shutdown calls {@link #checkpoint()}.
+ * </p>
+ */
+public class DatabaseSyncQueueJournal implements SyncQueueJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseSyncQueueJournal.class);
+
+    private static final long WriteIntervalMillis = 250;
+    private static final int  MaxBatchSize        = 500;
+
+    private final SyncQueueDAO                syncQueueDAO;
+    private final BlockingQueue<JournalEntry> pendingEntries;
+    private final Object                      writeLock;
+
+    public DatabaseSyncQueueJournal(final FleetAppController controller, final SyncQueueDAO syncQueueDAO) {
+
+        this.syncQueueDAO = syncQueueDAO;
+
+        pendingEntries = new LinkedBlockingQueue<>();
+        writeLock      = new Object();
+
+        new JournalWriterThread(controller, this).start();
+    }
+
+    @Override
+    public void recordQueued(final SyncQueueEntry entry) {
+        pendingEntries.add(new JournalEntry(JournalEntryType.Queued, entry.getImageKey(), entry, null));
+    }
+
+    @Override
+    public void recordWithdrawn(final ImageKey imageKey) {
+        pendingEntries.add(new JournalEntry(JournalEntryType.Withdrawn, imageKey, null, null));
+    }
+
+    @Override
+    public void recordClaimed(final ImageKey imageKey, final String claimedBy) {
+        pendingEntries.add(new JournalEntry(JournalEntryType.Claimed, imageKey, null, claimedBy));
+    }
+
+    @Override
+    public void recordCompleted(final ImageKey imageKey) {
+        pendingEntries.add(new JournalEntry(JournalEntryType.Completed, imageKey, null, null));
+    }
+
+    @Override
+    public List<SyncQueueEntry> fetchOutstanding() {
+        return syncQueueDAO.fetchOutstandingRequests();
+    }
+
+    @Override
+    public void checkpoint() {
+
+        synchronized (writeLock) {
+
+            final List<JournalEntry> batch = new ArrayList<>();
+            while (pendingEntries.drainTo(batch, MaxBatchSize) > 0) {
+
+                write(batch);
+                batch.clear();
+            }
+        }
+        LOGGER.info("Sync queue journal checkpointed");
+    }
+
+    private void writeNextBatch() throws InterruptedException {
+
+        Thread.sleep(WriteIntervalMillis);
+
+        synchronized (writeLock) {
+
+            final List<JournalEntry> batch = new ArrayList<>();
+            if (pendingEntries.drainTo(batch, MaxBatchSize) > 0) {
+                write(batch);
+            }
+        }
+    }
+
+    /**
+     * Consecutive entries of the same type are written as a single JDBC batch.
+     */
+    private void write(final List<JournalEntry> batch) {
+
+        int start = 0;
+        while (start < batch.size()) {
+
+            final JournalEntryType type = batch.get(start).type;
+
+            int end = start + 1;
+            while (end < batch.size() && batch.get(end).type == type) {
+                end++;
+            }
+
+            try {
+                writeRun(type, batch.subList(start, end));
+            } catch (RuntimeException e) {
+                LOGGER.error("Unable to write {} {} sync queue journal entries. They will not survive a restart.", end - start, type, e);
+            }
+
+            start = end;
+        }
+    }
+
+    private void writeRun(final JournalEntryType type, final List<JournalEntry> run) {
+
+        switch (type) {
+
+            case Queued:
+                syncQueueDAO.enqueueRequests(run.stream().map(entry -> entry.queuedEntry).collect(Collectors.toList()));
+                break;
+
+            case Claimed:
+
+                final Map<ImageKey, String> claimants = new LinkedHashMap<>();
+                run.forEach(entry -> claimants.put(entry.imageKey, entry.claimedBy));
+                syncQueueDAO.claimRequests(claimants);
+                break;
+
+            case Completed:
+                syncQueueDAO.completeRequests(run.stream().map(entry -> entry.imageKey).collect(Collectors.toList()));
+                break;
+
+            case Withdrawn:
+                syncQueueDAO.withdrawRequests(run.stream().map(entry -> entry.imageKey).collect(Collectors.toList()));
+                break;
+        }
+    }
+
+    private enum JournalEntryType {
+        Queued, Withdrawn, Claimed, Completed
+    }
+
+    private static final class JournalEntry {
+
+        private final JournalEntryType type;
+        private final ImageKey         imageKey;
+        private final SyncQueueEntry   queuedEntry;
+        private final String           claimedBy;
+
+        private JournalEntry(final JournalEntryType type, final ImageKey imageKey, final SyncQueueEntry queuedEntry, final String claimedBy) {
+
+            this.type        = type;
+            this.imageKey    = imageKey;
+            this.queuedEntry = queuedEntry;
+            this.claimedBy   = claimedBy;
+        }
+    }
+
+    private static final class JournalWriterThread extends AbstractAppThread {
+
+        private final DatabaseSyncQueueJournal journal;
+
+        private JournalWriterThread(final FleetAppController controller, final DatabaseSyncQueueJournal journal) {
+            super(controller, "SyncQueueJournalWriter");
+
+            this.journal = journal;
+            setDaemon(true);
+        }
+
+        @Override
+        protected void doRunSinglePass() throws Exception {
+            journal.writeNextBatch();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.sync;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.types.Image;
+import io.linuxserver.fleet.v2.types.Repository;
+import io.linuxserver.fleet.v2.types.internal.ImageSyncCadence;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Works out when each image is next due to be checked upstream. Images are checked a few times for every push
+ * they are expected to receive, judged by a weighted average of the gaps between the pushes seen so far. The longer
+ * an image goes without a push, the longer that gap is assumed to be, so quiet images drift towards the maximum
+ * interval while busy ones settle at the minimum.
+ * </p>
+ */
+public class SyncCadenceTracker {
+
+    /**
+     * How many times an image is checked for each push it is expected to receive.
+     */
+    private static final int    ChecksPerChange = 4;
+
+    /**
+     * The weight given to the most recent gap between pushes, against all those before it.
+     */
+    private static final double RecentGapWeight = 0.5;
+
+    private final Duration                                  minInterval;
+    private final Duration                                  maxInterval;
+    private final ConcurrentMap<ImageKey, ImageSyncCadence> cadences;
+
+    public SyncCadenceTracker(final Duration minInterval, final Duration maxInterval) {
+
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+
+        cadences = new ConcurrentHashMap<>();
+    }
+
+    public final void restoreCadences(final Collection<ImageSyncCadence> restored) {
+        restored.forEach(cadence -> cadences.put(cadence.getImageKey(), cadence));
+    }
+
+    /**
+     * @return
+     *      True if the image should be checked upstream. Images which have never been checked are always due.
+     */
+    public final boolean isDue(final ImageKey imageKey, final LocalDateTime now) {
+
+        final ImageSyncCadence cadence = cadences.get(imageKey);
+        return null == cadence || cadence.isDue(now);
+    }
+
+    /**
+     * <p>
+     * Records that the image has just been checked upstream, and works out when it should next be checked.
+     * </p>
+     *
+     * @param upstreamBuildDate
+     *      When the image was last pushed to, as reported upstream. May be null.
+     */
+    public final ImageSyncCadence recordCheck(final ImageKey imageKey, final LocalDateTime upstreamBuildDate, final LocalDateTime now) {
+        return cadences.compute(imageKey, (key, previous) -> nextCadence(key, previous, upstreamBuildDate, now));
+    }
+
+    public final void forget(final ImageKey imageKey) {
+        cadences.remove(imageKey);
+    }
+
+    public final ImageSyncCadence getCadence(final ImageKey imageKey) {
+        return cadences.get(imageKey);
+    }
+
+    /**
+     * @return
+     *      The cadence of each image in the repository which has one, keyed by the image key as a string.
+     */
+    public final Map<String, ImageSyncCadence> getCadences(final Repository repository) {
+
+        final Map<String, ImageSyncCadence> repositoryCadences = new HashMap<>();
+        for (Image image : repository.getImages()) {
+
+            final ImageSyncCadence cadence = cadences.get(image.getKey());
+            if (null != cadence) {
+                repositoryCadences.put(image.getKey().toString(), cadence);
+            }
+        }
+        return repositoryCadences;
+    }
+
+    private ImageSyncCadence nextCadence(final ImageKey imageKey,
+                                         final ImageSyncCadence previous,
+                                         final LocalDateTime upstreamBuildDate,
+                                         final LocalDateTime now) {
+
+        LocalDateTime lastChangedAt = null == previous ? null : previous.getLastChangedAt();
+        Duration      meanChangeGap = null == previous ? null : previous.getMeanChangeGap();
+
+        if (null != upstreamBuildDate && (null == lastChangedAt || upstreamBuildDate.isAfter(lastChangedAt))) {
+
+            if (null != lastChangedAt) {
+
+                final Duration gap = Duration.between(lastChangedAt, upstreamBuildDate);
+                meanChangeGap = null == meanChangeGap ? gap : weightedGap(meanChangeGap, gap);
+            }
+            lastChangedAt = upstreamBuildDate;
+        }
+
+        // Time spent without a push is a lower bound on the gap to the next one
+        final Duration quietFor    = null == lastChangedAt ? maxInterval : Duration.between(lastChangedAt, now);
+        final Duration expectedGap = null == meanChangeGap || quietFor.compareTo(meanChangeGap) > 0 ? quietFor : meanChangeGap;
+        final Duration interval    = clamp(expectedGap.dividedBy(ChecksPerChange));
+
+        return new ImageSyncCadence(imageKey, lastChangedAt, meanChangeGap, interval, now.plus(interval));
+    }
+
+    private static Duration weightedGap(final Duration meanGap, final Duration latestGap) {
+        return Duration.ofSeconds(Math.round(meanGap.getSeconds() * (1 - RecentGapWeight) + latestGap.getSeconds() * RecentGapWeight));
+    }
+
+    private Duration clamp(final Duration interval) {
+
+        if (interval.compareTo(minInterval) < 0) {
+            return minInterval;
+        } else if (interval.compareTo(maxInterval) > 0) {
+            return maxInterval;
+        }
+        return interval;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.sync;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>
+ * Returned to whoever asked for an image to be synchronised. The completion is shared with the queued
+ * request, so it also completes if the request is merged into another one for the same image.
+ * </p>
+ */
+public class SyncHandle {
+
+    private final ImageKey                imageKey;
+    private final LocalDateTime           submittedAt;
+    private final boolean                 accepted;
+    private final CompletableFuture<Void> completion;
+
+    public SyncHandle(final ImageKey imageKey, final boolean accepted, final CompletableFuture<Void> completion) {
+
+        this.imageKey    = imageKey;
+        this.submittedAt = LocalDateTime.now();
+        this.accepted    = accepted;
+        this.completion  = completion;
+    }
+
+    public final ImageKey getImageKey() {
+        return imageKey;
+    }
+
+    public final LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * @return
+     *      True if the request was queued, or merged into one which was already queued.
+     */
+    public final boolean isAccepted() {
+        return accepted;
+    }
+
+    public final boolean isDone() {
+        return completion.isDone();
+    }
+
+    public final boolean isFailed() {
+        return completion.isCompletedExceptionally();
+    }
+
+    public final CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    @Override
+    public final String toString() {
+        return "SyncHandle[" + imageKey + ", accepted=" + accepted + ", done=" + isDone() + "]";
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.sync;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.db.query.InsertUpdateResult;
+import io.linuxserver.fleet.v2.client.docker.queue.DockerImageUpdateResponse;
+import io.linuxserver.fleet.v2.thread.AbstractAppThread;
+import io.linuxserver.fleet.v2.thread.TaskExecutionException;
+import io.linuxserver.fleet.v2.types.Image;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Carries responses from Docker Hub through the rest of an image synchronisation once they have been fetched.
+ * Responses are first matched against each image's tracked branches by the diff workers, and the resulting
+ * updates are then written to the database in batches by a single writer. Each stage is fed through a bounded
+ * queue, so a slow stage holds up the one before it rather than letting work pile up in memory.
+ * </p>
+ */
+public class SyncPipeline {
+
+    private static final int StageCapacity = 100;
+
+    private final FleetAppController        controller;
+    private final BlockingQueue<PendingSync> diffQueue;
+    private final BlockingQueue<PendingSync> persistQueue;
+    private final int                        batchSize;
+    private final AtomicLong                 batchesWritten;
+    private final AtomicLong                 imagesWritten;
+
+    public SyncPipeline(final FleetAppController controller, final int diffWorkers, final int batchSize) {
+
+        this.controller = controller;
+        this.batchSize  = batchSize;
+
+        diffQueue      = new ArrayBlockingQueue<>(StageCapacity);
+        persistQueue   = new ArrayBlockingQueue<>(StageCapacity);
+        batchesWritten = new AtomicLong();
+        imagesWritten  = new AtomicLong();
+
+        for (int i = 1; i <= diffWorkers; i++) {
+            new DiffWorker("DockerSyncDiff-" + i).start();
+        }
+        new PersistWriter("DockerSyncPersist").start();
+    }
+
+    /**
+     * <p>
+     * Places a fetched response into the pipeline, waiting for space if the diff stage is full.
+     * </p>
+     *
+     * @param onFinished
+     *      Called exactly once, from whichever stage finishes with the response, with the failure if there was one or
+     *      null if the update was stored (or there was nothing to store).
+     */
+    public final void submit(final DockerImageUpdateResponse response, final Consumer<RuntimeException> onFinished) throws InterruptedException {
+        diffQueue.put(new PendingSync(response, onFinished));
+    }
+
+    public final int getDiffBacklog() {
+        return diffQueue.size();
+    }
+
+    public final int getPersistBacklog() {
+        return persistQueue.size();
+    }
+
+    public final long getBatchesWritten() {
+        return batchesWritten.get();
+    }
+
+    public final long getImagesWritten() {
+        return imagesWritten.get();
+    }
+
+    private static final class PendingSync {
+
+        private final DockerImageUpdateResponse  response;
+        private final Consumer<RuntimeException> onFinished;
+
+        private Image updatedImage;
+
+        private PendingSync(final DockerImageUpdateResponse response, final Consumer<RuntimeException> onFinished) {
+
+            this.response   = response;
+            this.onFinished = onFinished;
+        }
+    }
+
+    private final class DiffWorker extends AbstractAppThread {
+
+        private DiffWorker(final String name) {
+            super(controller, name);
+        }
+
+        @Override
+        protected void doRunSinglePass() throws InterruptedException {
+
+            final PendingSync pending = diffQueue.take();
+
+            try {
+                pending.updatedImage = pending.response.prepareImageUpdate();
+            } catch (Exception e) {
+
+                getLogger().error("Unable to work out update for {}", pending.response, e);
+                pending.onFinished.accept(new TaskExecutionException(e));
+                return;
+            }
+
+            if (null == pending.updatedImage) {
+                pending.onFinished.accept(null);
+            } else {
+                persistQueue.put(pending);
+            }
+        }
+    }
+
+    private final class PersistWriter extends AbstractAppThread {
+
+        private PersistWriter(final String name) {
+            super(controller, name);
+        }
+
+        @Override
+        protected void doRunSinglePass() throws InterruptedException {
+
+            final List<PendingSync> batch = new ArrayList<>(batchSize);
+            batch.add(persistQueue.take());
+            persistQueue.drainTo(batch, batchSize - 1);
+
+            final List<Image> images = new ArrayList<>(batch.size());
+            batch.forEach(pending -> images.add(pending.updatedImage));
+
+            final List<InsertUpdateResult<Image>> results;
+            try {
+                results = controller.getImageService().storeImages(images);
+            } catch (Exception e) {
+
+                getLogger().error("Unable to store batch of {} image(s)", batch.size(), e);
+                batch.forEach(pending -> pending.onFinished.accept(new TaskExecutionException(e)));
+                return;
+            }
+
+            batchesWritten.incrementAndGet();
+            for (int i = 0; i < batch.size(); i++) {
+
+                final InsertUpdateResult<Image> result = results.get(i);
+                if (result.isError()) {
+                    batch.get(i).onFinished.accept(new TaskExecutionException(new RuntimeException("Failed to store image: " + result.getStatusMessage())));
+                } else {
+
+                    imagesWritten.incrementAndGet();
+                    batch.get(i).onFinished.accept(null);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.sync;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Keeps a running tally of finished synchronisation tasks, per image and per repository. Only finished
+ * work is tracked here; what is still queued or running is read from the queue itself.
+ * </p>
+ */
+public class SyncProgressTracker {
+
+    private final ConcurrentMap<ImageKey, Progress>      imageProgress;
+    private final ConcurrentMap<RepositoryKey, Progress> repositoryProgress;
+
+    public SyncProgressTracker() {
+
+        imageProgress      = new ConcurrentHashMap<>();
+        repositoryProgress = new ConcurrentHashMap<>();
+    }
+
+    public final void recordOutcome(final ImageKey imageKey, final boolean succeeded) {
+
+        final LocalDateTime completedAt = LocalDateTime.now();
+
+        imageProgress.computeIfAbsent(imageKey, key -> new Progress()).record(succeeded, completedAt);
+        repositoryProgress.computeIfAbsent(imageKey.getRepositoryKey(), key -> new Progress()).record(succeeded, completedAt);
+    }
+
+    public final SyncStatus getImageStatus(final ImageKey imageKey, final int queued, final int running) {
+        return imageProgress.getOrDefault(imageKey, Progress.None).toStatus(queued, running);
+    }
+
+    public final SyncStatus getRepositoryStatus(final RepositoryKey repositoryKey, final int queued, final int running) {
+        return repositoryProgress.getOrDefault(repositoryKey, Progress.None).toStatus(queued, running);
+    }
+
+    private static final class Progress {
+
+        private static final Progress None = new Progress();
+
+        private long          done;
+        private long          failed;
+        private LocalDateTime lastCompletedAt;
+        private boolean       lastSucceeded;
+
+        private synchronized void record(final boolean succeeded, final LocalDateTime completedAt) {
+
+            if (succeeded) {
+                done++;
+            } else {
+                failed++;
+            }
+
+            lastCompletedAt = completedAt;
+            lastSucceeded   = succeeded;
+        }
+
+        private synchronized SyncStatus toStatus(final int queued, final int running) {
+            return new SyncStatus(queued, running, done, failed, lastCompletedAt, lastSucceeded);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.sync;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.types.internal.SyncQueueEntry;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Keeps a durable record of the sync queue, so outstanding requests can be placed back on the queue
+ * after a restart. The in-memory queue remains the source of truth while the application is running.
+ * </p>
+ */
+public interface SyncQueueJournal {
+
+    /**
+     * A journal which records nothing, used when the sync queue is not durable.
+     */
+    SyncQueueJournal None = new SyncQueueJournal() {
+
+        @Override
+        public void recordQueued(final SyncQueueEntry entry) {
+        }
+
+        @Override
+        public void recordWithdrawn(final ImageKey imageKey) {
+        }
+
+        @Override
+        public void recordClaimed(final ImageKey imageKey, final String claimedBy) {
+        }
+
+        @Override
+        public void recordCompleted(final ImageKey imageKey) {
+        }
+
+        @Override
+        public List<SyncQueueEntry> fetchOutstanding() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void checkpoint() {
+        }
+    };
+
+    /**
+     * Must be recorded before the request is placed on the queue, so that it can never be journalled after a
+     * worker has already claimed (or completed) it.
+     */
+    void recordQueued(final SyncQueueEntry entry);
+
+    /**
+     * Takes back a request which was recorded as queued but was then not accepted onto the queue.
+     */
+    void recordWithdrawn(final ImageKey imageKey);
+
+    /**
+     * Marks a request as being worked on. Requests which are still claimed after a restart were in flight when the
+     * application stopped, so are resumed.
+     */
+    void recordClaimed(final ImageKey imageKey, final String claimedBy);
+
+    /**
+     * Removes a request, unless it was queued again after it was claimed.
+     */
+    void recordCompleted(final ImageKey imageKey);
+
+    List<SyncQueueEntry> fetchOutstanding();
+
+    /**
+     * Blocks until everything recorded so far has been written.
+     */
+    void checkpoint();
+}
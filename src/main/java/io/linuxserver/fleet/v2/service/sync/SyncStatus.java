@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.sync;
+
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * Point in time view of the synchronisation of a single image or a whole repository. The done and failed
+ * counts cover everything processed since the application started.
+ * </p>
+ */
+public class SyncStatus {
+
+    private final int           queued;
+    private final int           running;
+    private final long          done;
+    private final long          failed;
+    private final LocalDateTime lastCompletedAt;
+    private final boolean       lastSucceeded;
+
+    public SyncStatus(final int queued,
+                      final int running,
+                      final long done,
+                      final long failed,
+                      final LocalDateTime lastCompletedAt,
+                      final boolean lastSucceeded) {
+
+        this.queued          = queued;
+        this.running         = running;
+        this.done            = done;
+        this.failed          = failed;
+        this.lastCompletedAt = lastCompletedAt;
+        this.lastSucceeded   = lastSucceeded;
+    }
+
+    public final int getQueued() {
+        return queued;
+    }
+
+    public final int getRunning() {
+        return running;
+    }
+
+    public final long getDone() {
+        return done;
+    }
+
+    public final long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return
+     *      When the most recent task finished, or null if none has finished yet.
+     */
+    public final LocalDateTime getLastCompletedAt() {
+        return lastCompletedAt;
+    }
+
+    public final boolean isLastSucceeded() {
+        return lastSucceeded;
+    }
+
+    public final boolean isIdle() {
+        return queued == 0 && running == 0;
+    }
+
+    @Override
+    public final String toString() {
+        return "SyncStatus[queued=" + queued + ", running=" + running + ", done=" + done + ", failed=" + failed + "]";
+    }
+}
@@ -21,11 +21,14 @@ import io.linuxserver.fleet.v2.LoggerOwner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 public abstract class AbstractAppTask<DELEGATE extends AsyncTaskDelegate, RESPONSE extends AsyncTaskResponse> implements AsyncTask<DELEGATE, RESPONSE>, LoggerOwner {
 
     private final Logger LOGGER = LoggerFactory.getLogger(getClass());
 
-    public final String name;
+    public final String                  name;
+    private final CompletableFuture<Void> completion;
 
     public AbstractAppTask(final String name) {
 
@@ -33,7 +36,8 @@ public abstract class AbstractAppTask<DELEGATE extends AsyncTaskDelegate, RESPON
             throw new IllegalArgumentException("name must not be null");
         }
 
-        this.name = name;
+        this.name       = name;
+        this.completion = new CompletableFuture<>();
     }
 
     @Override
@@ -47,6 +51,11 @@ public abstract class AbstractAppTask<DELEGATE extends AsyncTaskDelegate, RESPON
         }
     }
 
+    @Override
+    public final CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
     @Override
     public final Logger getLogger() {
         return LOGGER;
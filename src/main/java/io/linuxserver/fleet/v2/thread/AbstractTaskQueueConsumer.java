@@ -39,18 +39,82 @@ public abstract class AbstractTaskQueueConsumer<DELEGATE extends AsyncTaskDelega
     protected void doRunSinglePass() throws Exception {
 
         final T task = taskQueue.retrieveNextTask();
+        onTaskStarted(task);
 
+        final R response;
         try {
 
             getLogger().info("Processing single task {}", task);
-            final R response = task.performTaskOn(taskDelegate);
-
-            handleTaskResponse(response);
+            response = task.performTaskOn(taskDelegate);
 
         } catch (TaskExecutionException e) {
+
             getLogger().error("Unable to complete the processing of task {}", task, e);
+            finishTask(task, e);
+            return;
+
+        } catch (RuntimeException e) {
+
+            finishTask(task, e);
+            throw e;
+        }
+
+        handOffResponse(task, response);
+    }
+
+    /**
+     * <p>
+     * Passes the task's response on to be handled, leaving this consumer free to take its next task. The task
+     * is still treated as running until {@link #finishTask(AsyncTask, RuntimeException)} has been called for it,
+     * which implementations must do once the response has been handled, whether or not that succeeded.
+     * </p>
+     */
+    protected abstract void handOffResponse(final T task, final R response) throws InterruptedException;
+
+    /**
+     * <p>
+     * Releases the task from the queue and, unless it is going to be retried, completes it. Safe to call from any thread.
+     * </p>
+     *
+     * @param failure
+     *      Why the task failed, or null if it succeeded.
+     */
+    protected final void finishTask(final T task, final RuntimeException failure) {
+
+        taskQueue.completeTask(task);
+
+        // A task which is coming back round has not finished yet, so anyone waiting on it carries on waiting
+        if (null == failure || !retryFailedTask(task, failure)) {
+
+            onTaskCompleted(task, null == failure);
+
+            if (null == failure) {
+                task.getCompletion().complete(null);
+            } else {
+                task.getCompletion().completeExceptionally(failure);
+            }
         }
     }
 
-    protected abstract void handleTaskResponse(final R response);
+    /**
+     * Called as soon as the task has been taken from the queue, before it is processed.
+     */
+    protected void onTaskStarted(final T task) {
+        // No-op by default
+    }
+
+    /**
+     * @return
+     *      True if the failed task has been set aside to be tried again later. No retries are made by default.
+     */
+    protected boolean retryFailedTask(final T task, final RuntimeException failure) {
+        return false;
+    }
+
+    /**
+     * Called once the task has left the queue, before anyone waiting on its completion is released.
+     */
+    protected void onTaskCompleted(final T task, final boolean succeeded) {
+        // No-op by default
+    }
 }
@@ -17,6 +17,15 @@
 
 package io.linuxserver.fleet.v2.thread;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AsyncTask<DELEGATE extends AsyncTaskDelegate, RESPONSE extends AsyncTaskResponse> {
    RESPONSE performTaskOn(DELEGATE delegate);
+
+   /**
+    * @return
+    *      Completed once a consumer has finished with this task, or with whichever task it was merged into.
+    *      Completes exceptionally if the task could not be processed.
+    */
+   CompletableFuture<Void> getCompletion();
 }
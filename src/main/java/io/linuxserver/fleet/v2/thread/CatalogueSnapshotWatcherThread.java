@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.v2.db.SnapshotImageDAO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Watches the snapshot directory and switches the image cache over to each new snapshot as it appears. The
+ * directory is also checked every so often regardless, as file system events are not delivered everywhere
+ * (network mounts in particular).
+ * </p>
+ */
+public class CatalogueSnapshotWatcherThread extends AbstractAppThread {
+
+    private static final Duration FallbackCheckInterval = Duration.ofSeconds(30);
+
+    private final SnapshotImageDAO snapshotDAO;
+    private final WatchService     watchService;
+
+    public CatalogueSnapshotWatcherThread(final FleetAppController controller, final SnapshotImageDAO snapshotDAO, final Path directory) {
+        super(controller, "CatalogueSnapshotWatcher");
+
+        this.snapshotDAO  = snapshotDAO;
+        this.watchService = makeWatchService(directory);
+    }
+
+    @Override
+    protected void doRunSinglePass() throws Exception {
+
+        if (null == watchService) {
+            Thread.sleep(FallbackCheckInterval.toMillis());
+
+        } else {
+
+            final WatchKey watchKey = watchService.poll(FallbackCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+            if (null != watchKey) {
+
+                watchKey.pollEvents();
+                watchKey.reset();
+            }
+        }
+
+        if (snapshotDAO.reloadIfNewer()) {
+            getController().getImageService().reloadCache();
+        }
+    }
+
+    private WatchService makeWatchService(final Path directory) {
+
+        try {
+
+            Files.createDirectories(directory);
+
+            final WatchService service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            return service;
+
+        } catch (IOException e) {
+
+            getLogger().warn("Unable to watch " + directory + " for new snapshots. It will be checked every " + FallbackCheckInterval.getSeconds() + "s instead.", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.v2.service.cluster.ChangeLogService;
+
+import java.time.Duration;
+
+/**
+ * <p>
+ * Periodically applies changes made by other nodes in the cluster to this node's cache.
+ * </p>
+ */
+public class ChangeLogPollThread extends AbstractAppThread {
+
+    private final ChangeLogService changeLogService;
+    private final Duration         pollInterval;
+
+    public ChangeLogPollThread(final FleetAppController controller, final ChangeLogService changeLogService, final Duration pollInterval) {
+        super(controller, "ChangeLogPoll");
+
+        this.changeLogService = changeLogService;
+        this.pollInterval     = pollInterval;
+    }
+
+    @Override
+    protected void doRunSinglePass() throws Exception {
+
+        Thread.sleep(pollInterval.toMillis());
+
+        try {
+            changeLogService.poll();
+        } catch (RuntimeException e) {
+            getLogger().error("Unable to apply changes from other nodes. Cached data may be stale until this recovers.", e);
+        }
+    }
+}
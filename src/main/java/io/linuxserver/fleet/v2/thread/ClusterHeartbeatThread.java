@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.v2.service.cluster.ClusterMembership;
+
+import java.time.Duration;
+
+/**
+ * <p>
+ * Keeps this node's membership of the cluster, and its repository leases, up to date.
+ * </p>
+ */
+public class ClusterHeartbeatThread extends AbstractAppThread {
+
+    private final ClusterMembership membership;
+    private final Duration          heartbeatInterval;
+
+    public ClusterHeartbeatThread(final FleetAppController controller, final ClusterMembership membership, final Duration heartbeatInterval) {
+        super(controller, "ClusterHeartbeat");
+
+        this.membership        = membership;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    @Override
+    protected void doRunSinglePass() throws Exception {
+
+        Thread.sleep(heartbeatInterval.toMillis());
+
+        try {
+            membership.refresh();
+        } catch (RuntimeException e) {
+            getLogger().error("Unable to refresh cluster membership. Leases will lapse if this continues.", e);
+        }
+    }
+}
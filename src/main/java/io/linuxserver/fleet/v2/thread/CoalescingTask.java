@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread;
+
+/**
+ * <p>
+ * A task which can absorb a later, equal request for the same work while it is still waiting to be
+ * processed, so the newer request is not lost when the queue refuses to hold a duplicate.
+ * </p>
+ */
+public interface CoalescingTask<TASK> {
+
+    /**
+     * @return
+     *      A single task which satisfies both this task and the newer one. May be either of them.
+     */
+    TASK coalesceWith(final TASK newerTask);
+}
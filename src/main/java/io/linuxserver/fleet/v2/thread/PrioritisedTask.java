@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread;
+
+/**
+ * <p>
+ * A task which states how urgently it should be processed, and which group it belongs to so that
+ * tasks of the same priority can be shared out fairly between groups.
+ * </p>
+ */
+public interface PrioritisedTask {
+
+    TaskPriority getPriority();
+
+    /**
+     * @return
+     *      Tasks with equal fairness keys are taken in turn with tasks from other groups, rather than all in a row.
+     */
+    Object getFairnessKey();
+}
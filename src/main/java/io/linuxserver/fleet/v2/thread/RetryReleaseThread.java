@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.v2.client.docker.queue.RetryStage;
+
+/**
+ * <p>
+ * Moves failed tasks back onto their queue once their backoff has passed.
+ * </p>
+ */
+public class RetryReleaseThread extends AbstractAppThread {
+
+    private final RetryStage<?> retryStage;
+
+    public RetryReleaseThread(final FleetAppController controller, final RetryStage<?> retryStage, final String threadName) {
+        super(controller, threadName);
+
+        this.retryStage = retryStage;
+    }
+
+    @Override
+    protected void doRunSinglePass() throws Exception {
+        retryStage.releaseNextDueTask();
+    }
+}
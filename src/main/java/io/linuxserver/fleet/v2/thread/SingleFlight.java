@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Ensures that only one call for any given key is in progress at a time. Callers which arrive
+ * while a call for their key is already running wait for it and share its result (or its failure)
+ * rather than making the same call again. Nothing is kept once the call completes, so a caller
+ * arriving afterwards always triggers a fresh call.
+ * </p>
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight;
+
+    public SingleFlight() {
+        inFlight = new ConcurrentHashMap<>();
+    }
+
+    public final V execute(final K key, final Supplier<V> call) {
+
+        final CompletableFuture<V> ours     = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, ours);
+
+        if (null != existing) {
+            return awaitResult(existing);
+        }
+
+        try {
+
+            final V result = call.get();
+            ours.complete(result);
+            return result;
+
+        } catch (RuntimeException | Error e) {
+
+            ours.completeExceptionally(e);
+            throw e;
+
+        } finally {
+            inFlight.remove(key, ours);
+        }
+    }
+
+    public final int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private V awaitResult(final CompletableFuture<V> future) {
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+}
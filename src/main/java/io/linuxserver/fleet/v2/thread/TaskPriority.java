@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread;
+
+/**
+ * <p>
+ * Lanes in which queued tasks wait. A task is only handed out from a lane once every lane
+ * declared before it is empty.
+ * </p>
+ */
+public enum TaskPriority {
+
+    /**
+     * Requested directly by a user who is waiting on the result.
+     */
+    Interactive,
+
+    /**
+     * Follow-up work needed because a tracked branch has been added or changed.
+     */
+    TrackedBranchChange,
+
+    /**
+     * Routine work generated by schedules, often in large numbers.
+     */
+    Bulk;
+
+    public final boolean isHigherThan(final TaskPriority other) {
+        return ordinal() < other.ordinal();
+    }
+}
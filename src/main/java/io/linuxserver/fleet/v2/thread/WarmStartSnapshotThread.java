@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.v2.file.snapshot.CatalogueSnapshot;
+import io.linuxserver.fleet.v2.file.snapshot.CatalogueSnapshotStore;
+import io.linuxserver.fleet.v2.service.ImageService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * Keeps the warm-start snapshot in line with the image cache. The snapshot is only rewritten once the cache
+ * has stopped changing, so a sync storing images one after another leads to a single write rather than one
+ * per image. A cache which never settles is still written every few minutes.
+ * </p>
+ */
+public class WarmStartSnapshotThread extends AbstractAppThread {
+
+    private static final Duration CheckInterval = Duration.ofSeconds(10);
+    private static final Duration MaxDelay      = Duration.ofMinutes(2);
+
+    private final CatalogueSnapshotStore snapshotStore;
+    private final Object                 writeLock;
+
+    private long          writtenCount;
+    private long          lastSeenCount;
+    private LocalDateTime changedSince;
+
+    public WarmStartSnapshotThread(final FleetAppController controller, final CatalogueSnapshotStore snapshotStore) {
+        super(controller, "WarmStartSnapshot");
+
+        this.snapshotStore = snapshotStore;
+        this.writeLock     = new Object();
+        this.writtenCount  = -1;
+        this.lastSeenCount = -1;
+    }
+
+    @Override
+    protected void doRunSinglePass() throws Exception {
+
+        Thread.sleep(CheckInterval.toMillis());
+
+        synchronized (writeLock) {
+
+            final long currentCount = getController().getImageService().getCacheModificationCount();
+            if (currentCount == writtenCount) {
+                return;
+            }
+
+            final LocalDateTime now = LocalDateTime.now();
+            if (null == changedSince) {
+                changedSince = now;
+            }
+
+            final boolean settled = currentCount == lastSeenCount;
+            lastSeenCount = currentCount;
+
+            if (settled || !now.isBefore(changedSince.plus(MaxDelay))) {
+                writeIfChanged();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Writes the cache out straight away if it has changed since the last snapshot. Nothing is written while
+     * the cache is still being served from the snapshot it was warm started with.
+     * </p>
+     */
+    public final void writeIfChanged() {
+
+        synchronized (writeLock) {
+
+            final ImageService imageService = getController().getImageService();
+            if (!imageService.isCacheReconciled()) {
+                return;
+            }
+
+            final long currentCount = imageService.getCacheModificationCount();
+            if (currentCount == writtenCount) {
+                return;
+            }
+
+            try {
+
+                snapshotStore.write(new CatalogueSnapshot(snapshotStore.nextVersion(), LocalDateTime.now(), imageService.getAllRepositories()));
+
+                writtenCount = currentCount;
+                changedSince = null;
+
+            } catch (IOException e) {
+                getLogger().error("Unable to write warm-start snapshot to " + snapshotStore.getDirectory(), e);
+            }
+        }
+    }
+}
@@ -101,6 +101,11 @@ public abstract class AbstractAppSchedule extends AbstractHasKey<ScheduleKey> im
         return getSpec().getDelayOffset();
     }
 
+    @Override
+    public final ScheduleScope getScope() {
+        return getSpec().getScope();
+    }
+
     @Override
     public final Logger getLogger() {
         return logger;
@@ -114,7 +119,10 @@ public abstract class AbstractAppSchedule extends AbstractHasKey<ScheduleKey> im
 
         try {
 
-            if (isAllowedToExecute()) {
+            if (!isScopeSatisfied()) {
+                logger.info("Schedule {} only runs on the cluster leader, which is not this node. Skipping.", scheduleName);
+
+            } else if (isAllowedToExecute()) {
 
                 logger.info("Starting run of schedule {}", scheduleName);
                 executeSchedule();
@@ -141,4 +149,14 @@ public abstract class AbstractAppSchedule extends AbstractHasKey<ScheduleKey> im
     protected boolean isAllowedToExecute() {
         return true;
     }
+
+    /**
+     * <p>
+     * Leadership is confirmed against the database before each run of a cluster schedule, so a node which has lost
+     * the lead without noticing (e.g. after a long pause) cannot run it alongside the new leader.
+     * </p>
+     */
+    private boolean isScopeSatisfied() {
+        return getScope() == ScheduleScope.Node || controller.getClusterMembership().confirmLeadership();
+    }
 }
@@ -37,5 +37,7 @@ public interface AppSchedule extends HasKey<ScheduleKey>, Runnable {
 
     TimeWithUnit getInterval();
 
+    ScheduleScope getScope();
+
     void executeSchedule();
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread.schedule;
+
+/**
+ * <p>
+ * Where a schedule runs when several nodes share a database.
+ * </p>
+ */
+public enum ScheduleScope {
+
+    /**
+     * Runs on every node, for work which only affects the node itself, such as refreshing its own cache.
+     */
+    Node,
+
+    /**
+     * Runs on the cluster leader only, for work which should happen once no matter how many nodes there are.
+     */
+    Cluster
+}
@@ -26,30 +26,35 @@ public final class ScheduleSpec extends AbstractHasKey<ScheduleKey> {
     private final TimeWithUnit                 interval;
     private final TimeWithUnit                 delayOffset;
     private final Class<? extends AppSchedule> specForClass;
+    private final ScheduleScope                scope;
 
     private ScheduleSpec(final ScheduleKey key,
                          final String scheduleName,
                          final TimeWithUnit interval,
                          final TimeWithUnit delayOffset,
-                         final Class<? extends AppSchedule> specForClass) {
+                         final Class<? extends AppSchedule> specForClass,
+                         final ScheduleScope scope) {
         super(key);
 
         this.scheduleName    = scheduleName;
         this.interval        = interval;
         this.delayOffset     = delayOffset;
         this.specForClass    = specForClass;
+        this.scope           = scope;
     }
 
     public static ScheduleSpec makeInitial(final ScheduleKey key,
                                            final String scheduleName,
                                            final TimeWithUnit interval,
                                            final TimeWithUnit delayOffset,
-                                           final Class<? extends AppSchedule> specForClass) {
+                                           final Class<? extends AppSchedule> specForClass,
+                                           final ScheduleScope scope) {
         return new ScheduleSpec(key,
                                 scheduleName,
                                 interval,
                                 delayOffset,
-                                specForClass);
+                                specForClass,
+                                scope);
     }
 
     public final String getScheduleName() {
@@ -67,4 +72,8 @@ public final class ScheduleSpec extends AbstractHasKey<ScheduleKey> {
     public final Class<? extends AppSchedule> getScheduleClass() {
         return specForClass;
     }
+
+    public final ScheduleScope getScope() {
+        return scope;
+    }
 }
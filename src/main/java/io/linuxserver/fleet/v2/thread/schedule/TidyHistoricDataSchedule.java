@@ -19,8 +19,16 @@ package io.linuxserver.fleet.v2.thread.schedule;
 
 import io.linuxserver.fleet.core.FleetAppController;
 
+import java.time.Duration;
+
 public class TidyHistoricDataSchedule extends AbstractAppSchedule {
 
+    /**
+     * How long changes are kept in the change log. Nodes start from the end of the log and poll it every
+     * few seconds, so this is far more than any of them should need.
+     */
+    private static final Duration ChangeLogRetention = Duration.ofDays(1);
+
     public TidyHistoricDataSchedule(final ScheduleSpec spec,
                                     final FleetAppController controller) {
         super(spec, controller);
@@ -28,6 +36,6 @@ public class TidyHistoricDataSchedule extends AbstractAppSchedule {
 
     @Override
     public void executeSchedule() {
-        getLogger().info("Currently not implemented. This is a placeholder schedule");
+        getController().getChangeLogService().pruneHistory(ChangeLogRetention);
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread.schedule.cache;
+
+import io.linuxserver.fleet.core.FleetAppController;
+import io.linuxserver.fleet.v2.file.snapshot.CatalogueSnapshot;
+import io.linuxserver.fleet.v2.file.snapshot.CatalogueSnapshotStore;
+import io.linuxserver.fleet.v2.thread.schedule.AbstractAppSchedule;
+import io.linuxserver.fleet.v2.thread.schedule.ScheduleSpec;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * Writes the cached catalogue to the snapshot directory, for serve-only nodes to pick up.
+ * </p>
+ */
+public final class ExportCatalogueSnapshotSchedule extends AbstractAppSchedule {
+
+    public ExportCatalogueSnapshotSchedule(final ScheduleSpec spec,
+                                           final FleetAppController controller) {
+        super(spec, controller);
+    }
+
+    @Override
+    public void executeSchedule() {
+
+        final CatalogueSnapshotStore snapshotStore = getController().getCatalogueSnapshotStore();
+        if (null == snapshotStore) {
+
+            getLogger().debug("No snapshot directory has been configured, so there is nothing to export");
+            return;
+        }
+
+        try {
+
+            final CatalogueSnapshot snapshot = new CatalogueSnapshot(snapshotStore.nextVersion(),
+                                                                     LocalDateTime.now(),
+                                                                     getController().getImageService().getAllRepositories());
+            snapshotStore.write(snapshot);
+
+        } catch (IOException e) {
+            getLogger().error("Unable to export catalogue snapshot to " + snapshotStore.getDirectory(), e);
+        }
+    }
+}
@@ -30,11 +30,6 @@ public final class RefreshCacheSchedule extends AbstractAppSchedule {
 
     @Override
     public void executeSchedule() {
-        getController().getImageService().reloadCache();
-    }
-
-    @Override
-    protected boolean isAllowedToExecute() {
-        return getController().getSynchronisationService().isSyncQueueEmpty();
+        getController().getImageService().refreshCache();
     }
 }
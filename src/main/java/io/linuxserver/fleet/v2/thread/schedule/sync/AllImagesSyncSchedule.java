@@ -1,5 +1,5 @@
 /*
- * Copyright (c)  2019 LinuxServer.io
+ * Copyright (c) 2019 LinuxServer.io
  *
  * This program is free software: you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -24,6 +24,13 @@ import io.linuxserver.fleet.v2.types.Repository;
 
 import java.util.List;
 
+/**
+ * <p>
+ * Safety net behind {@link ReconcileRepositoriesSchedule}, which only queues tag syncs for images whose listing
+ * has changed. Every image is queued for a tag sync now and again regardless, so that a missed push or a sync
+ * which failed for good is eventually put right. When clustered, only repositories owned by this node are synced.
+ * </p>
+ */
 public final class AllImagesSyncSchedule extends AbstractAppSchedule {
 
     public AllImagesSyncSchedule(final ScheduleSpec spec,
@@ -36,7 +43,10 @@ public final class AllImagesSyncSchedule extends AbstractAppSchedule {
 
         final List<Repository> allRepositories = getController().getImageService().getAllRepositories();
         for (Repository repository : allRepositories) {
-            getController().getSynchronisationService().synchroniseCachedRepository(repository);
+
+            if (getController().getClusterMembership().ownsRepository(repository.getKey())) {
+                getController().getSynchronisationService().synchroniseCachedRepository(repository);
+            }
         }
     }
 }
@@ -121,6 +121,22 @@ public class Image extends AbstractSyncItem<ImageKey, Image> {
         return new ArrayList<>(tagBranches);
     }
 
+    /**
+     * @return
+     *      true if any of this image's tracked branches has not yet been matched to an upstream tag.
+     */
+    public final boolean hasUnresolvedTagBranches() {
+
+        for (TagBranch tagBranch : tagBranches) {
+
+            final Tag latestTag = tagBranch.getLatestTag();
+            if (null == latestTag || Tag.DefaultUnknown.getVersion().equals(latestTag.getVersion())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public final TagBranch findTagBranchByName(final String branchName) {
 
         for (TagBranch tagBranch : tagBranches) {
@@ -18,10 +18,14 @@
 package io.linuxserver.fleet.v2.types;
 
 import io.linuxserver.fleet.v2.cache.ImageCache;
+import io.linuxserver.fleet.v2.cache.ItemCache.ItemCacheListener;
+import io.linuxserver.fleet.v2.cache.ItemCacheSnapshot;
+import io.linuxserver.fleet.v2.key.ImageKey;
 import io.linuxserver.fleet.v2.key.RepositoryKey;
 import io.linuxserver.fleet.v2.types.meta.ItemSyncSpec;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -29,6 +33,11 @@ public class Repository extends AbstractSyncItem<RepositoryKey, Repository> {
 
     private final ImageCache images;
 
+    /**
+     * Sorted view of the images, rebuilt only when the underlying image cache moves to a new version.
+     */
+    private volatile SortedImages sortedImages;
+
     public Repository(final RepositoryKey key, final ItemSyncSpec syncSpec) {
         super(key, syncSpec);
         images = new ImageCache();
@@ -47,15 +56,45 @@ public class Repository extends AbstractSyncItem<RepositoryKey, Repository> {
         images.addItem(image);
     }
 
+    public final void addImages(final Collection<Image> allImages) {
+        images.addAllItems(allImages);
+    }
+
     public final String getName() {
         return getKey().getName();
     }
 
+    public final void registerImageListener(final ItemCacheListener<Image> listener) {
+        images.registerCacheListener(listener);
+    }
+
+    public final void unregisterImageListener(final ItemCacheListener<Image> listener) {
+        images.unregisterCacheListener(listener);
+    }
+
+    public final boolean isImageCached(final ImageKey imageKey) {
+        return images.isItemCached(imageKey);
+    }
+
+    public final Image findImage(final ImageKey imageKey) {
+        return images.findItem(imageKey);
+    }
+
     public final List<Image> getImages() {
 
-        final List<Image> imageList = new ArrayList<>(images.getAllItems());
-        Collections.sort(imageList);
-        return imageList;
+        final ItemCacheSnapshot<ImageKey, Image> snapshot = images.getSnapshot();
+
+        SortedImages current = sortedImages;
+        if (null == current || current.version != snapshot.getVersion()) {
+
+            final List<Image> imageList = new ArrayList<>(snapshot.getAllItems());
+            Collections.sort(imageList);
+
+            current      = new SortedImages(snapshot.getVersion(), Collections.unmodifiableList(imageList));
+            sortedImages = current;
+        }
+
+        return current.images;
     }
 
     public final long getTotalPulls() {
@@ -99,4 +138,16 @@ public class Repository extends AbstractSyncItem<RepositoryKey, Repository> {
     public final String toString() {
         return getName() + "[nImages=" + images.size() + "]";
     }
+
+    private static final class SortedImages {
+
+        private final long        version;
+        private final List<Image> images;
+
+        private SortedImages(final long version, final List<Image> images) {
+
+            this.version = version;
+            this.images  = images;
+        }
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.types.api;
+
+import io.linuxserver.fleet.v2.service.sync.SyncStatus;
+
+public class ApiSyncStatusWrapper extends AbstractApiWrapper<SyncStatus> {
+
+    public ApiSyncStatusWrapper(final SyncStatus originalObject) {
+        super(originalObject);
+    }
+
+    public final int getQueued() {
+        return getOriginalObject().getQueued();
+    }
+
+    public final int getRunning() {
+        return getOriginalObject().getRunning();
+    }
+
+    public final long getDone() {
+        return getOriginalObject().getDone();
+    }
+
+    public final long getFailed() {
+        return getOriginalObject().getFailed();
+    }
+
+    public final boolean isIdle() {
+        return getOriginalObject().isIdle();
+    }
+
+    public final String getLastCompletedAt() {
+        return null == getOriginalObject().getLastCompletedAt() ? null : getOriginalObject().getLastCompletedAt().toString();
+    }
+
+    public final boolean isLastSucceeded() {
+        return getOriginalObject().isLastSucceeded();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.types.internal;
+
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * How many repositories and images the database held, and the database's own time when it was asked.
+ * </p>
+ */
+public class CatalogueSummary {
+
+    private final LocalDateTime checkedAt;
+    private final int           repositoryCount;
+    private final int           imageCount;
+
+    public CatalogueSummary(final LocalDateTime checkedAt, final int repositoryCount, final int imageCount) {
+
+        this.checkedAt       = checkedAt;
+        this.repositoryCount = repositoryCount;
+        this.imageCount      = imageCount;
+    }
+
+    public final LocalDateTime getCheckedAt() {
+        return checkedAt;
+    }
+
+    public final int getRepositoryCount() {
+        return repositoryCount;
+    }
+
+    public final int getImageCount() {
+        return imageCount;
+    }
+
+    @Override
+    public final String toString() {
+        return "CatalogueSummary[checkedAt=" + checkedAt + ", repositories=" + repositoryCount + ", images=" + imageCount + "]";
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.types.internal;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+
+/**
+ * <p>
+ * A single write to a repository, or to one of its images, as recorded in the change log.
+ * </p>
+ */
+public class ChangeLogEntry {
+
+    private final long          sequence;
+    private final RepositoryKey repositoryKey;
+    private final ImageKey      imageKey;
+    private final String        origin;
+
+    /**
+     * @param imageKey
+     *      The image which was changed, or null if the change was made to the repository itself.
+     * @param origin
+     *      The node which made the change.
+     */
+    public ChangeLogEntry(final long sequence, final RepositoryKey repositoryKey, final ImageKey imageKey, final String origin) {
+
+        this.sequence      = sequence;
+        this.repositoryKey = repositoryKey;
+        this.imageKey      = imageKey;
+        this.origin        = origin;
+    }
+
+    public final long getSequence() {
+        return sequence;
+    }
+
+    public final RepositoryKey getRepositoryKey() {
+        return repositoryKey;
+    }
+
+    public final ImageKey getImageKey() {
+        return imageKey;
+    }
+
+    public final boolean isRepositoryChange() {
+        return null == imageKey;
+    }
+
+    public final String getOrigin() {
+        return origin;
+    }
+
+    @Override
+    public final String toString() {
+        return "ChangeLogEntry[" + sequence + ", " + (isRepositoryChange() ? repositoryKey : imageKey) + ", origin=" + origin + "]";
+    }
+}
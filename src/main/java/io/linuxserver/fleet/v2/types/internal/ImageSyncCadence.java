@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.types.internal;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * <p>
+ * How often an image is checked upstream, worked out from how often it has been seen to change.
+ * </p>
+ */
+public class ImageSyncCadence {
+
+    private static final DateTimeFormatter DueTimeFormat = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm:ss");
+
+    private final ImageKey      imageKey;
+    private final LocalDateTime lastChangedAt;
+    private final Duration      meanChangeGap;
+    private final Duration      interval;
+    private final LocalDateTime nextDueAt;
+
+    /**
+     * @param lastChangedAt
+     *      When the image was last pushed to upstream, or null if that has never been seen.
+     * @param meanChangeGap
+     *      The weighted average time between pushes, or null until at least two have been seen.
+     */
+    public ImageSyncCadence(final ImageKey imageKey,
+                            final LocalDateTime lastChangedAt,
+                            final Duration meanChangeGap,
+                            final Duration interval,
+                            final LocalDateTime nextDueAt) {
+
+        this.imageKey      = imageKey;
+        this.lastChangedAt = lastChangedAt;
+        this.meanChangeGap = meanChangeGap;
+        this.interval      = interval;
+        this.nextDueAt     = nextDueAt;
+    }
+
+    public final ImageKey getImageKey() {
+        return imageKey;
+    }
+
+    public final LocalDateTime getLastChangedAt() {
+        return lastChangedAt;
+    }
+
+    public final Duration getMeanChangeGap() {
+        return meanChangeGap;
+    }
+
+    public final Duration getInterval() {
+        return interval;
+    }
+
+    public final LocalDateTime getNextDueAt() {
+        return nextDueAt;
+    }
+
+    public final String getNextDueAtAsString() {
+        return DueTimeFormat.format(nextDueAt);
+    }
+
+    public final boolean isDue(final LocalDateTime now) {
+        return !now.isBefore(nextDueAt);
+    }
+
+    /**
+     * @return
+     *      The interval in its largest whole unit, e.g. "45m", "6h" or "2d".
+     */
+    public final String getIntervalDescription() {
+
+        if (interval.toDays() > 0) {
+            return interval.toDays() + "d";
+        } else if (interval.toHours() > 0) {
+            return interval.toHours() + "h";
+        }
+        return interval.toMinutes() + "m";
+    }
+
+    @Override
+    public final String toString() {
+        return "ImageSyncCadence[" + imageKey + ", every " + getIntervalDescription() + ", nextDueAt=" + nextDueAt + "]";
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.types.internal;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.types.Image;
+import io.linuxserver.fleet.v2.types.Repository;
+import io.linuxserver.fleet.v2.types.docker.DockerImage;
+
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * <p>
+ * The differences between a cached repository and a single upstream listing of it, worked out
+ * by image name in one pass over each side.
+ * </p>
+ * <ul>
+ *     <li>Added: listed upstream but not cached.</li>
+ *     <li>Removed: cached but no longer listed upstream.</li>
+ *     <li>Matched: present on both sides, along with the upstream view of each.</li>
+ *     <li>Changed: matched images which need their tags synchronised again.</li>
+ * </ul>
+ */
+public class RepositoryDiff {
+
+    private final List<DockerImage>           addedImages;
+    private final List<Image>                 removedImages;
+    private final Map<ImageKey, DockerImage>  matchedImages;
+    private final List<ImageKey>              changedImages;
+
+    private RepositoryDiff() {
+
+        addedImages   = new ArrayList<>();
+        removedImages = new ArrayList<>();
+        matchedImages = new HashMap<>();
+        changedImages = new ArrayList<>();
+    }
+
+    public static RepositoryDiff between(final Repository cachedRepository, final List<DockerImage> upstreamImages) {
+
+        final RepositoryDiff diff = new RepositoryDiff();
+
+        final Map<String, DockerImage> upstreamByName = new HashMap<>();
+        upstreamImages.forEach(apiImage -> upstreamByName.put(apiImage.getName(), apiImage));
+
+        final Set<String> cachedNames = new HashSet<>();
+        for (Image cachedImage : cachedRepository.getImages()) {
+
+            cachedNames.add(cachedImage.getName());
+
+            final DockerImage apiImage = upstreamByName.get(cachedImage.getName());
+            if (null == apiImage) {
+                diff.removedImages.add(cachedImage);
+
+            } else {
+
+                diff.matchedImages.put(cachedImage.getKey(), apiImage);
+                if (isTagSyncRequired(cachedImage, apiImage)) {
+                    diff.changedImages.add(cachedImage.getKey());
+                }
+            }
+        }
+
+        for (DockerImage apiImage : upstreamImages) {
+
+            if (!cachedNames.contains(apiImage.getName())) {
+                diff.addedImages.add(apiImage);
+            }
+        }
+
+        return diff;
+    }
+
+    /**
+     * <p>
+     * An image needs its tags synchronising if it has been pushed to since it was last synchronised, or if
+     * any of its branches have yet to be resolved.
+     * </p>
+     */
+    private static boolean isTagSyncRequired(final Image cachedImage, final DockerImage apiImage) {
+        return cachedImage.hasUnresolvedTagBranches() || isPushedSinceLastSync(cachedImage, apiImage);
+    }
+
+    /**
+     * <p>
+     * Docker Hub reports its times with sub-second precision, whereas stored times are held to the second.
+     * </p>
+     */
+    public static boolean isPushedSinceLastSync(final Image cachedImage, final DockerImage apiImage) {
+
+        if (null == apiImage.getBuildDate()) {
+            return false;
+        }
+
+        if (null == cachedImage.getLastUpdated()) {
+            return true;
+        }
+
+        return apiImage.getBuildDate().truncatedTo(ChronoUnit.SECONDS).isAfter(cachedImage.getLastUpdated().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    public final List<DockerImage> getAddedImages() {
+        return addedImages;
+    }
+
+    public final List<Image> getRemovedImages() {
+        return removedImages;
+    }
+
+    public final Map<ImageKey, DockerImage> getMatchedImages() {
+        return matchedImages;
+    }
+
+    public final List<ImageKey> getChangedImages() {
+        return changedImages;
+    }
+
+    @Override
+    public final String toString() {
+        return "RepositoryDiff[added=" + addedImages.size() + ", removed=" + removedImages.size()
+            + ", matched=" + matchedImages.size() + ", changed=" + changedImages.size() + "]";
+    }
+}
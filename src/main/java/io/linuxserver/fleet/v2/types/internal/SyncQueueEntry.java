@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.types.internal;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.thread.TaskPriority;
+
+/**
+ * <p>
+ * A sync request as held in the durable queue.
+ * </p>
+ */
+public class SyncQueueEntry {
+
+    private final ImageKey     imageKey;
+    private final boolean      forceSync;
+    private final TaskPriority priority;
+    private final String       claimedBy;
+
+    public SyncQueueEntry(final ImageKey imageKey, final boolean forceSync, final TaskPriority priority) {
+        this(imageKey, forceSync, priority, null);
+    }
+
+    /**
+     * @param claimedBy
+     *      The consumer which was working on the request when it was last seen, or null if it was still waiting.
+     */
+    public SyncQueueEntry(final ImageKey imageKey, final boolean forceSync, final TaskPriority priority, final String claimedBy) {
+
+        this.imageKey  = imageKey;
+        this.forceSync = forceSync;
+        this.priority  = priority;
+        this.claimedBy = claimedBy;
+    }
+
+    public final ImageKey getImageKey() {
+        return imageKey;
+    }
+
+    public final boolean isForceSync() {
+        return forceSync;
+    }
+
+    public final TaskPriority getPriority() {
+        return priority;
+    }
+
+    public final String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public final boolean isClaimed() {
+        return null != claimedBy;
+    }
+
+    @Override
+    public final String toString() {
+        return "SyncQueueEntry[" + imageKey + ", force=" + forceSync + ", priority=" + priority + ", claimedBy=" + claimedBy + "]";
+    }
+}
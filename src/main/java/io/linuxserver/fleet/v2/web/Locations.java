@@ -44,6 +44,7 @@ public interface Locations {
         String Image      = "image";
         String Schedule   = "schedule";
         String Sync       = "sync";
+        String Status     = "status";
         String Stats      = "stats";
         String Track      = "track";
         String Template   = "template";
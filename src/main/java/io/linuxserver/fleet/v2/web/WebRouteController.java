@@ -68,67 +68,105 @@ public class WebRouteController {
 
         webInstance.routes(() -> {
 
-            final LoginController loginController = new LoginController(app);
-            get( Locations.Login, loginController, roles(AppRole.Anyone));
-            post(Locations.Login, loginController, roles(AppRole.Anyone));
-
             get(Locations.Home,  new HomeController( app), roles(AppRole.Anyone));
             get(Locations.Image, new ImageController(app), roles(AppRole.Anyone));
 
-            get(Locations.Admin.Repositories, new AdminRepositoryController(app), roles(AppRole.Admin));
-            get(Locations.Admin.Images,       new AdminImageController(     app), roles(AppRole.Admin));
-            get(Locations.Admin.Schedules,    new AdminScheduleController(  app), roles(AppRole.Admin));
+            final LegacyExternalApiController externalApiController = new LegacyExternalApiController(app);
+            get(Locations.Api.Images, externalApiController::fetchAllImages, roles(AppRole.Anyone));
 
-            final AdminImageEditController imageEditController = new AdminImageEditController(app);
-            get( Locations.Admin.ImageEdit, imageEditController, roles(AppRole.Admin));
-            post(Locations.Admin.ImageEdit, imageEditController, roles(AppRole.Admin));
+            if (app.isServeOnly()) {
+                addServeOnlyRoutes();
+            } else {
+                addManagementRoutes(app);
+            }
+        });
 
-            final AdminUserController userController = new AdminUserController(app);
-            get( Locations.Admin.Users, userController, roles(AppRole.Admin));
-            post(Locations.Admin.Users, userController, roles(AppRole.Admin));
+        Runtime.getRuntime().addShutdownHook(new Thread(webInstance::stop));
+    }
 
-            path(Locations.Internal.Api, () -> {
+    /**
+     * <p>
+     * Serve-only nodes have no users and cannot change anything, so only the read-only parts of the
+     * internal API needed by the public pages are exposed.
+     * </p>
+     */
+    private void addServeOnlyRoutes() {
 
-                path(Locations.Internal.Repository, () -> {
+        path(Locations.Internal.Api, () -> {
 
-                    put(   apiController::updateRepositorySpec, roles(AppRole.Admin));
-                    post(  apiController::addNewRepository,     roles(AppRole.Admin));
-                    delete(apiController::deleteRepository,     roles(AppRole.Admin));
+            path(Locations.Internal.Image, () -> {
 
-                    path(Locations.Internal.Sync, () -> {
-                       put(apiController::syncRepository, roles(AppRole.Admin));
-                    });
+                path(Locations.Internal.Stats, () -> {
+                    get(apiController::getImagePullHistory, roles(AppRole.Anyone));
                 });
+            });
+        });
+    }
 
-                path(Locations.Internal.Image, () -> {
+    private void addManagementRoutes(final FleetAppController app) {
 
-                    put(apiController::updateImageSpec, roles(AppRole.Admin));
+        final LoginController loginController = new LoginController(app);
+        get( Locations.Login, loginController, roles(AppRole.Anyone));
+        post(Locations.Login, loginController, roles(AppRole.Anyone));
 
-                    path(Locations.Internal.Sync, () -> {
-                        put(apiController::syncImage, roles(AppRole.Admin));
-                    });
+        get(Locations.Admin.Repositories, new AdminRepositoryController(app), roles(AppRole.Admin));
+        get(Locations.Admin.Images,       new AdminImageController(     app), roles(AppRole.Admin));
+        get(Locations.Admin.Schedules,    new AdminScheduleController(  app), roles(AppRole.Admin));
+
+        final AdminImageEditController imageEditController = new AdminImageEditController(app);
+        get( Locations.Admin.ImageEdit, imageEditController, roles(AppRole.Admin));
+        post(Locations.Admin.ImageEdit, imageEditController, roles(AppRole.Admin));
+
+        final AdminUserController userController = new AdminUserController(app);
+        get( Locations.Admin.Users, userController, roles(AppRole.Admin));
+        post(Locations.Admin.Users, userController, roles(AppRole.Admin));
+
+        path(Locations.Internal.Api, () -> {
+
+            path(Locations.Internal.Repository, () -> {
+
+                put(   apiController::updateRepositorySpec, roles(AppRole.Admin));
+                post(  apiController::addNewRepository,     roles(AppRole.Admin));
+                delete(apiController::deleteRepository,     roles(AppRole.Admin));
 
-                    path(Locations.Internal.Stats, () -> {
-                        get(apiController::getImagePullHistory, roles(AppRole.Anyone));
+                path(Locations.Internal.Sync, () -> {
+
+                    put(apiController::syncRepository, roles(AppRole.Admin));
+
+                    path(Locations.Internal.Status, () -> {
+                        get(apiController::getRepositorySyncStatus, roles(AppRole.Anyone));
                     });
+                });
+            });
 
-                    path(Locations.Internal.Track, () -> {
+            path(Locations.Internal.Image, () -> {
 
-                        put(   apiController::trackNewBranch,      roles(AppRole.Admin));
-                        delete(apiController::removeTrackedBranch, roles(AppRole.Admin));
+                put(apiController::updateImageSpec, roles(AppRole.Admin));
+
+                path(Locations.Internal.Sync, () -> {
+
+                    put(apiController::syncImage, roles(AppRole.Admin));
+
+                    path(Locations.Internal.Status, () -> {
+                        get(apiController::getImageSyncStatus, roles(AppRole.Anyone));
                     });
                 });
 
-                path(Locations.Internal.Schedule, () -> {
-                   put(apiController::runSchedule, roles(AppRole.Admin));
+                path(Locations.Internal.Stats, () -> {
+                    get(apiController::getImagePullHistory, roles(AppRole.Anyone));
+                });
+
+                path(Locations.Internal.Track, () -> {
+
+                    put(   apiController::trackNewBranch,      roles(AppRole.Admin));
+                    delete(apiController::removeTrackedBranch, roles(AppRole.Admin));
                 });
             });
 
-            final LegacyExternalApiController externalApiController = new LegacyExternalApiController(app);
-            get(Locations.Api.Images, externalApiController::fetchAllImages, roles(AppRole.Anyone));
+            path(Locations.Internal.Schedule, () -> {
+               put(apiController::runSchedule, roles(AppRole.Admin));
+            });
         });
-
-        Runtime.getRuntime().addShutdownHook(new Thread(webInstance::stop));
     }
 
     private static String printBanner() {
@@ -21,25 +21,31 @@ import io.javalin.http.Context;
 import io.linuxserver.fleet.core.FleetAppController;
 import io.linuxserver.fleet.v2.key.RepositoryKey;
 import io.linuxserver.fleet.v2.service.ImageService;
+import io.linuxserver.fleet.v2.service.SynchronisationService;
+import io.linuxserver.fleet.v2.types.Repository;
 import io.linuxserver.fleet.v2.web.PageModelSpec;
 
 public class AdminImageController extends AbstractPageHandler {
 
-    private ImageService imageService;
+    private ImageService           imageService;
+    private SynchronisationService syncService;
 
     public AdminImageController(final FleetAppController controller) {
         super(controller);
         imageService = controller.getImageService();
+        syncService  = controller.getSynchronisationService();
     }
 
     @Override
     protected PageModelSpec handlePageLoad(final Context ctx) {
 
         final RepositoryKey repositoryKey = ctx.queryParam("repositoryKey", RepositoryKey.class).getOrNull();
-        if (null != repositoryKey) {
+        final Repository repository = null == repositoryKey ? null : imageService.getRepository(repositoryKey);
+        if (null != repository) {
 
             final PageModelSpec modelSpec = new PageModelSpec("views/pages/admin/images.ftl");
-            modelSpec.addModelAttribute("repository", imageService.getRepository(repositoryKey));
+            modelSpec.addModelAttribute("repository", repository);
+            modelSpec.addModelAttribute("cadences",   syncService.getCadenceTracker().getCadences(repository));
             return modelSpec;
 
         } else {
@@ -39,9 +39,19 @@ public class AdminScheduleController extends AbstractPageHandler {
     protected PageModelSpec handlePageLoad(final Context ctx) {
 
         final PageModelSpec modelSpec = new PageModelSpec("views/pages/admin/schedules.ftl");
-        modelSpec.addModelAttribute("schedules",       scheduleService.getLoadedSchedules());
-        modelSpec.addModelAttribute("queueSize",       syncService.getSyncQueue().size());
-        modelSpec.addModelAttribute("consumerRunning", syncService.isConsumerRunning());
+        modelSpec.addModelAttribute("schedules",        scheduleService.getLoadedSchedules());
+        modelSpec.addModelAttribute("queueSize",        syncService.getSyncQueue().size());
+        modelSpec.addModelAttribute("consumerRunning",  syncService.isConsumerRunning());
+        modelSpec.addModelAttribute("consumerCount",    syncService.getConsumerCount());
+        modelSpec.addModelAttribute("runningConsumers", syncService.getRunningConsumerCount());
+        modelSpec.addModelAttribute("requestStats",     getController().getDockerHubGovernor().getStats());
+        modelSpec.addModelAttribute("circuitBreaker",   getController().getDockerHubCircuitBreaker());
+        modelSpec.addModelAttribute("circuitState",     getController().getDockerHubCircuitBreaker().getState().name());
+        modelSpec.addModelAttribute("retryingTasks",    syncService.getRetryStage().getWaitingTaskCount());
+        modelSpec.addModelAttribute("deadLetters",      syncService.getRetryStage().getDeadLetters());
+        modelSpec.addModelAttribute("syncPipeline",     syncService.getSyncPipeline());
+        modelSpec.addModelAttribute("cluster",          getController().getClusterMembership());
+        modelSpec.addModelAttribute("changeLog",        getController().getChangeLogService());
         return modelSpec;
     }
 
@@ -30,6 +30,7 @@ import io.linuxserver.fleet.v2.types.api.ApiImagePullHistoryWrapper;
 import io.linuxserver.fleet.v2.types.api.ApiImageWrapper;
 import io.linuxserver.fleet.v2.types.api.ApiRepositoryWrapper;
 import io.linuxserver.fleet.v2.types.api.ApiScheduleWrapper;
+import io.linuxserver.fleet.v2.types.api.ApiSyncStatusWrapper;
 import io.linuxserver.fleet.v2.types.internal.RepositoryOutlineRequest;
 import io.linuxserver.fleet.v2.types.meta.ItemSyncSpec;
 import io.linuxserver.fleet.v2.types.meta.history.ImagePullStatistic.StatGroupMode;
@@ -39,9 +40,15 @@ import io.linuxserver.fleet.v2.web.request.json.UpdateImageSpecRequest;
 import io.linuxserver.fleet.v2.web.request.json.UpdateRepositoryRequest;
 
 import java.sql.Connection;
+import java.time.Duration;
 
 public class InternalApiController extends AbstractAppService {
 
+    /**
+     * Upper bound on how long a status request may be held open waiting for outstanding work to finish.
+     */
+    private static final int MAX_STATUS_WAIT_SECONDS = 60;
+
     public InternalApiController(final FleetAppController controller) {
         super(controller);
     }
@@ -145,7 +152,41 @@ public class InternalApiController extends AbstractAppService {
             final ImageKey imageKeyParam = ctx.formParam("imageKey", ImageKey.class).get();
             getController().synchroniseImage(imageKeyParam);
 
-            ctx.json("OK");
+            ctx.json(new ApiSyncStatusWrapper(getController().getSynchronisationService().getImageSyncStatus(imageKeyParam)));
+
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <p>
+     * Returns the queued/running/done/failed counts for an image. If waitSeconds is given, the response is held
+     * back until any outstanding work on the image has finished, or until that many seconds have passed.
+     * </p>
+     */
+    public void getImageSyncStatus(final Context ctx) {
+
+        try {
+
+            final ImageKey imageKeyParam = ctx.queryParam("imageKey", ImageKey.class).get();
+            final Duration wait          = getStatusWait(ctx);
+
+            ctx.json(getController().getSynchronisationService().awaitImageSync(imageKeyParam, wait).thenApply(ApiSyncStatusWrapper::new));
+
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(e.getMessage(), e);
+        }
+    }
+
+    public void getRepositorySyncStatus(final Context ctx) {
+
+        try {
+
+            final RepositoryKey repositoryKeyParam = ctx.queryParam("repositoryKey", RepositoryKey.class).get();
+            final Duration      wait               = getStatusWait(ctx);
+
+            ctx.json(getController().getSynchronisationService().awaitRepositorySync(repositoryKeyParam, wait).thenApply(ApiSyncStatusWrapper::new));
 
         } catch (IllegalArgumentException e) {
             throw new ApiException(e.getMessage(), e);
@@ -208,4 +249,10 @@ public class InternalApiController extends AbstractAppService {
             throw new ApiException(e.getMessage(), e);
         }
     }
+
+    private Duration getStatusWait(final Context ctx) {
+
+        final int waitSeconds = ctx.queryParam("waitSeconds", Integer.class, "0").check(seconds -> seconds >= 0).get();
+        return Duration.ofSeconds(Math.min(waitSeconds, MAX_STATUS_WAIT_SECONDS));
+    }
 }
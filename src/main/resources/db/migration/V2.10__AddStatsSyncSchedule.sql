@@ -0,0 +1,13 @@
+INSERT INTO
+    Schedule (`name`, `interval`, `delay`, `java_class`)
+VALUE
+    ('SyncImageStats', '15:minutes', '2:minutes', 'io.linuxserver.fleet.v2.thread.schedule.sync.ImageStatsSyncSchedule');
+
+-- Full tag synchronisation is now triggered by the stats schedule when an image changes upstream,
+-- so the blanket sync only needs to run as an occasional safety net.
+UPDATE
+    Schedule
+SET
+    `interval` = '1:days'
+WHERE
+    `name` = 'SyncAllCachedImages';
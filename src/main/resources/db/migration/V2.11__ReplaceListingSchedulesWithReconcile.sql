@@ -0,0 +1,11 @@
+-- A single reconciliation pass now lists each repository once and handles new, removed and changed images
+-- together, so the separate listing schedules are no longer needed.
+DELETE FROM
+    Schedule
+WHERE
+    `name` IN ('GetMissingImages', 'CleanRemovedImages', 'SyncAllCachedImages', 'SyncImageStats');
+
+INSERT INTO
+    Schedule (`name`, `interval`, `delay`, `java_class`)
+VALUE
+    ('ReconcileRepositories', '15:minutes', '1:minutes', 'io.linuxserver.fleet.v2.thread.schedule.sync.ReconcileRepositoriesSchedule');
@@ -0,0 +1,108 @@
+DELIMITER //
+
+-- Outstanding image sync requests, so they survive a restart. A row is removed once the request it holds has been
+-- processed, unless it was requested again while it was being processed (the revision moves on with every request).
+CREATE TABLE SyncQueue (
+    `image_id`         INT          NOT NULL PRIMARY KEY,
+    `force_sync`       TINYINT      NOT NULL DEFAULT 0,
+    `priority`         VARCHAR(32)  NOT NULL DEFAULT 'Bulk',
+    `revision`         INT          NOT NULL DEFAULT 1,
+    `queued_at`        TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP(),
+    `claimed_by`       VARCHAR(64)  DEFAULT NULL,
+    `claimed_revision` INT          DEFAULT NULL,
+    `claimed_at`       TIMESTAMP    NULL DEFAULT NULL,
+    FOREIGN KEY (`image_id`) REFERENCES Image(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB;
+//
+
+CREATE OR REPLACE PROCEDURE `SyncQueue_Enqueue`
+(
+    in_image_id   INT,
+    in_force_sync TINYINT,
+    in_priority   VARCHAR(32)
+)
+BEGIN
+
+    INSERT INTO SyncQueue
+    (
+        `image_id`,
+        `force_sync`,
+        `priority`
+    )
+    VALUES
+    (
+        in_image_id,
+        in_force_sync,
+        in_priority
+    )
+    ON DUPLICATE KEY UPDATE
+        `force_sync` = `force_sync` OR in_force_sync,
+        `priority`   = IF(FIELD(in_priority, 'Interactive', 'TrackedBranchChange', 'Bulk') < FIELD(`priority`, 'Interactive', 'TrackedBranchChange', 'Bulk'), in_priority, `priority`),
+        `revision`   = `revision` + 1;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `SyncQueue_Claim`
+(
+    in_image_id   INT,
+    in_claimed_by VARCHAR(64)
+)
+BEGIN
+
+    UPDATE
+        SyncQueue
+    SET
+        `claimed_by`       = in_claimed_by,
+        `claimed_revision` = `revision`,
+        `claimed_at`       = CURRENT_TIMESTAMP()
+    WHERE
+        `image_id` = in_image_id;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `SyncQueue_Complete`
+(
+    in_image_id INT
+)
+BEGIN
+
+    DELETE FROM
+        SyncQueue
+    WHERE
+        `image_id` = in_image_id AND `revision` = `claimed_revision`;
+
+    -- Anything left was requested again while it was being processed, so is still outstanding
+    UPDATE
+        SyncQueue
+    SET
+        `claimed_by`       = NULL,
+        `claimed_revision` = NULL,
+        `claimed_at`       = NULL
+    WHERE
+        `image_id` = in_image_id;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `SyncQueue_GetAll` ()
+BEGIN
+
+    SELECT
+        queue.`image_id`     AS `ImageId`,
+        images.`name`        AS `ImageName`,
+        images.`repository`  AS `RepositoryId`,
+        repositories.`name`  AS `RepositoryName`,
+        queue.`force_sync`   AS `ForceSync`,
+        queue.`priority`     AS `Priority`,
+        queue.`claimed_by`   AS `ClaimedBy`
+    FROM
+        SyncQueue queue
+    JOIN
+        Image images ON images.`id` = queue.`image_id`
+    JOIN
+        Repository repositories ON repositories.`id` = images.`repository`
+    ORDER BY
+        queue.`queued_at`;
+
+END //
+
+DELIMITER ;
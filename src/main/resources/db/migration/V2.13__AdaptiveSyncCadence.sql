@@ -0,0 +1,78 @@
+DELIMITER //
+
+-- How often each image is checked upstream, learnt from how often it has been pushed to
+CREATE TABLE ImageSyncCadence (
+    `image_id`                INT        NOT NULL PRIMARY KEY,
+    `last_changed_at`         TIMESTAMP  NULL DEFAULT NULL,
+    `mean_change_gap_seconds` BIGINT     DEFAULT NULL,
+    `interval_seconds`        BIGINT     NOT NULL,
+    `next_due_at`             TIMESTAMP  NOT NULL DEFAULT CURRENT_TIMESTAMP(),
+    FOREIGN KEY (`image_id`) REFERENCES Image(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB;
+//
+
+-- Repositories are now only listed when one of their images is due, so the pass itself can run more often
+UPDATE
+    Schedule
+SET
+    `interval` = '5:minutes'
+WHERE
+    `name` = 'ReconcileRepositories';
+//
+
+CREATE OR REPLACE PROCEDURE `ImageSyncCadence_Store`
+(
+    in_image_id                INT,
+    in_last_changed_at         TIMESTAMP,
+    in_mean_change_gap_seconds BIGINT,
+    in_interval_seconds        BIGINT,
+    in_next_due_at             TIMESTAMP
+)
+BEGIN
+
+    INSERT INTO ImageSyncCadence
+    (
+        `image_id`,
+        `last_changed_at`,
+        `mean_change_gap_seconds`,
+        `interval_seconds`,
+        `next_due_at`
+    )
+    VALUES
+    (
+        in_image_id,
+        in_last_changed_at,
+        in_mean_change_gap_seconds,
+        in_interval_seconds,
+        in_next_due_at
+    )
+    ON DUPLICATE KEY UPDATE
+        `last_changed_at`         = in_last_changed_at,
+        `mean_change_gap_seconds` = in_mean_change_gap_seconds,
+        `interval_seconds`        = in_interval_seconds,
+        `next_due_at`             = in_next_due_at;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `ImageSyncCadence_GetAll` ()
+BEGIN
+
+    SELECT
+        cadence.`image_id`                AS `ImageId`,
+        images.`name`                     AS `ImageName`,
+        images.`repository`               AS `RepositoryId`,
+        repositories.`name`               AS `RepositoryName`,
+        cadence.`last_changed_at`         AS `LastChangedAt`,
+        cadence.`mean_change_gap_seconds` AS `MeanChangeGapSeconds`,
+        cadence.`interval_seconds`        AS `IntervalSeconds`,
+        cadence.`next_due_at`             AS `NextDueAt`
+    FROM
+        ImageSyncCadence cadence
+    JOIN
+        Image images ON images.`id` = cadence.`image_id`
+    JOIN
+        Repository repositories ON repositories.`id` = images.`repository`;
+
+END //
+
+DELIMITER ;
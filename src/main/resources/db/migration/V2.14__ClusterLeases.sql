@@ -0,0 +1,122 @@
+DELIMITER //
+
+-- Every node sharing this database, along with when it was last heard from
+CREATE TABLE ClusterNode (
+    `node_id`      VARCHAR(64) NOT NULL PRIMARY KEY,
+    `joined_at`    TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP(),
+    `heartbeat_at` TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP()
+) ENGINE=InnoDB;
+//
+
+-- Which node is synchronising each repository, and until when
+CREATE TABLE ShardLease (
+    `repository_id` INT         NOT NULL PRIMARY KEY,
+    `node_id`       VARCHAR(64) NOT NULL,
+    `expires_at`    TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP(),
+    FOREIGN KEY (`repository_id`) REFERENCES Repository(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB;
+//
+
+CREATE OR REPLACE PROCEDURE `ClusterNode_Heartbeat`
+(
+    in_node_id VARCHAR(64)
+)
+BEGIN
+
+    INSERT INTO ClusterNode
+    (
+        `node_id`
+    )
+    VALUES
+    (
+        in_node_id
+    )
+    ON DUPLICATE KEY UPDATE
+        `heartbeat_at` = CURRENT_TIMESTAMP();
+
+END //
+
+CREATE OR REPLACE PROCEDURE `ClusterNode_GetLive`
+(
+    in_expiry_seconds INT
+)
+BEGIN
+
+    SELECT
+        `node_id` AS `NodeId`
+    FROM
+        ClusterNode
+    WHERE
+        `heartbeat_at` > CURRENT_TIMESTAMP() - INTERVAL in_expiry_seconds SECOND
+    ORDER BY
+        `node_id`;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `ClusterNode_Leave`
+(
+    in_node_id VARCHAR(64)
+)
+BEGIN
+
+    DELETE FROM ShardLease WHERE `node_id` = in_node_id;
+    DELETE FROM ClusterNode WHERE `node_id` = in_node_id;
+
+END //
+
+-- Takes the lease if it is free, has run out, or is already held by this node. A lease held by another node is
+-- left alone, and the row lock taken by the update means two nodes can never both take the same lapsed lease.
+CREATE OR REPLACE PROCEDURE `ShardLease_Claim`
+(
+    in_repository_id INT,
+    in_node_id       VARCHAR(64),
+    in_lease_seconds INT,
+    OUT out_granted  TINYINT
+)
+BEGIN
+
+    INSERT IGNORE INTO ShardLease
+    (
+        `repository_id`,
+        `node_id`,
+        `expires_at`
+    )
+    VALUES
+    (
+        in_repository_id,
+        in_node_id,
+        CURRENT_TIMESTAMP() + INTERVAL in_lease_seconds SECOND
+    );
+
+    UPDATE
+        ShardLease
+    SET
+        `node_id`    = in_node_id,
+        `expires_at` = CURRENT_TIMESTAMP() + INTERVAL in_lease_seconds SECOND
+    WHERE
+        `repository_id` = in_repository_id AND (`node_id` = in_node_id OR `expires_at` < CURRENT_TIMESTAMP());
+
+    SELECT
+        COUNT(*) > 0 INTO out_granted
+    FROM
+        ShardLease
+    WHERE
+        `repository_id` = in_repository_id AND `node_id` = in_node_id;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `ShardLease_Release`
+(
+    in_repository_id INT,
+    in_node_id       VARCHAR(64)
+)
+BEGIN
+
+    DELETE FROM
+        ShardLease
+    WHERE
+        `repository_id` = in_repository_id AND `node_id` = in_node_id;
+
+END //
+
+DELIMITER ;
@@ -0,0 +1,112 @@
+DELIMITER //
+
+-- Whether a schedule runs on every node, or on the cluster leader only
+ALTER TABLE Schedule ADD COLUMN `scope` VARCHAR(16) NOT NULL DEFAULT 'Cluster';
+//
+
+-- Each node keeps its own cache, and each node reconciles only the repositories it holds the lease on
+UPDATE
+    Schedule
+SET
+    `scope` = 'Node'
+WHERE
+    `name` IN ('RefreshCache', 'ReconcileRepositories', 'CheckAppVersion');
+//
+
+-- The single row for the lead. The fencing token only ever goes up, and moves on every time the lead changes hands.
+CREATE TABLE ClusterLeader (
+    `role`          VARCHAR(32) NOT NULL PRIMARY KEY,
+    `node_id`       VARCHAR(64) NOT NULL,
+    `fencing_token` BIGINT      NOT NULL DEFAULT 1,
+    `expires_at`    TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP()
+) ENGINE=InnoDB;
+//
+
+CREATE OR REPLACE PROCEDURE `Schedule_GetSpecs` ()
+BEGIN
+
+    SELECT
+        `id`         AS `ScheduleId`,
+        `name`       AS `ScheduleName`,
+        `interval`   AS `ScheduleInterval`,
+        `delay`      AS `ScheduleDelayOffset`,
+        `java_class` AS `ScheduleClass`,
+        `scope`      AS `ScheduleScope`
+    FROM
+         Schedule;
+
+END //
+
+-- Takes the lead if nobody holds it or the holder's lease has run out, or renews it if already held. The token
+-- is read before the holder is changed, so it only moves on when the lead changes hands.
+CREATE OR REPLACE PROCEDURE `ClusterLeader_Acquire`
+(
+    in_node_id       VARCHAR(64),
+    in_lease_seconds INT,
+    OUT out_token    BIGINT
+)
+BEGIN
+
+    INSERT IGNORE INTO ClusterLeader
+    (
+        `role`,
+        `node_id`,
+        `expires_at`
+    )
+    VALUES
+    (
+        'Scheduler',
+        in_node_id,
+        CURRENT_TIMESTAMP() + INTERVAL in_lease_seconds SECOND
+    );
+
+    UPDATE
+        ClusterLeader
+    SET
+        `fencing_token` = IF(`node_id` = in_node_id, `fencing_token`, `fencing_token` + 1),
+        `node_id`       = in_node_id,
+        `expires_at`    = CURRENT_TIMESTAMP() + INTERVAL in_lease_seconds SECOND
+    WHERE
+        `role` = 'Scheduler' AND (`node_id` = in_node_id OR `expires_at` < CURRENT_TIMESTAMP());
+
+    SELECT
+        IF(`node_id` = in_node_id, `fencing_token`, 0) INTO out_token
+    FROM
+        ClusterLeader
+    WHERE
+        `role` = 'Scheduler';
+
+END //
+
+CREATE OR REPLACE PROCEDURE `ClusterLeader_IsCurrent`
+(
+    in_node_id       VARCHAR(64),
+    in_fencing_token BIGINT,
+    OUT out_current  TINYINT
+)
+BEGIN
+
+    SELECT
+        COUNT(*) > 0 INTO out_current
+    FROM
+        ClusterLeader
+    WHERE
+        `role` = 'Scheduler' AND `node_id` = in_node_id AND `fencing_token` = in_fencing_token AND `expires_at` > CURRENT_TIMESTAMP();
+
+END //
+
+-- Leaving now also gives up the lead, by letting its lease run out straight away. The row is kept so the
+-- fencing token carries on from where it was.
+CREATE OR REPLACE PROCEDURE `ClusterNode_Leave`
+(
+    in_node_id VARCHAR(64)
+)
+BEGIN
+
+    UPDATE ClusterLeader SET `expires_at` = CURRENT_TIMESTAMP() - INTERVAL 1 SECOND WHERE `node_id` = in_node_id;
+    DELETE FROM ShardLease WHERE `node_id` = in_node_id;
+    DELETE FROM ClusterNode WHERE `node_id` = in_node_id;
+
+END //
+
+DELIMITER ;
@@ -0,0 +1,90 @@
+DELIMITER //
+
+-- Every write made to a repository or image, in the order it was committed, so that other
+-- nodes can bring their caches up to date without reloading everything
+CREATE TABLE ChangeLog (
+    `sequence`        BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    `repository_id`   INT          NOT NULL,
+    `repository_name` VARCHAR(255) NOT NULL,
+    `image_id`        INT          NULL,
+    `image_name`      VARCHAR(255) NULL,
+    `origin`          VARCHAR(64)  NOT NULL,
+    `changed_at`      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP(),
+    INDEX `IDX_ChangeLog_ChangedAt` (`changed_at`)
+) ENGINE=InnoDB;
+//
+
+CREATE OR REPLACE PROCEDURE `ChangeLog_Record`
+(
+    in_repository_id   INT,
+    in_repository_name VARCHAR(255),
+    in_image_id        INT,
+    in_image_name      VARCHAR(255),
+    in_origin          VARCHAR(64)
+)
+BEGIN
+
+    INSERT INTO ChangeLog
+    (
+        `repository_id`,
+        `repository_name`,
+        `image_id`,
+        `image_name`,
+        `origin`
+    )
+    VALUES
+    (
+        in_repository_id,
+        in_repository_name,
+        in_image_id,
+        in_image_name,
+        in_origin
+    );
+
+END //
+
+CREATE OR REPLACE PROCEDURE `ChangeLog_GetLatestSequence`()
+BEGIN
+
+    SELECT
+        COALESCE(MAX(`sequence`), 0) AS `LatestSequence`
+    FROM
+        ChangeLog;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `ChangeLog_GetSince`
+(
+    in_sequence BIGINT,
+    in_limit    INT
+)
+BEGIN
+
+    SELECT
+        `sequence`        AS `ChangeSequence`,
+        `repository_id`   AS `RepositoryId`,
+        `repository_name` AS `RepositoryName`,
+        `image_id`        AS `ImageId`,
+        `image_name`      AS `ImageName`,
+        `origin`          AS `ChangeOrigin`
+    FROM
+        ChangeLog
+    WHERE
+        `sequence` > in_sequence
+    ORDER BY
+        `sequence`
+    LIMIT in_limit;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `ChangeLog_Prune`
+(
+    in_before TIMESTAMP
+)
+BEGIN
+
+    DELETE FROM ChangeLog
+    WHERE
+        `changed_at` < in_before;
+
+END //
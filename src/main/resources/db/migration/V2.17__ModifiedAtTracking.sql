@@ -0,0 +1,136 @@
+DELIMITER //
+
+-- When each row was last written. Unlike `modified`, which holds the time reported upstream,
+-- these are always set by the database so can be used to find everything changed since a point in time
+ALTER TABLE Repository
+    ADD COLUMN `modified_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    ADD INDEX `IDX_Repository_ModifiedAt` (`modified_at`);
+//
+
+ALTER TABLE Image
+    ADD COLUMN `modified_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    ADD INDEX `IDX_Image_ModifiedAt` (`modified_at`);
+//
+
+ALTER TABLE TagBranch
+    ADD COLUMN `modified_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    ADD INDEX `IDX_TagBranch_ModifiedAt` (`modified_at`);
+//
+
+ALTER TABLE ImageMetadata
+    ADD COLUMN `modified_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    ADD INDEX `IDX_ImageMetadata_ModifiedAt` (`modified_at`);
+//
+
+ALTER TABLE ImageTemplateBase
+    ADD COLUMN `modified_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    ADD INDEX `IDX_ImageTemplateBase_ModifiedAt` (`modified_at`);
+//
+
+ALTER TABLE ExternalUrl
+    ADD COLUMN `modified_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    ADD INDEX `IDX_ExternalUrl_ModifiedAt` (`modified_at`);
+//
+
+-- Refreshing the cache now only refetches what has changed, so can be done far more often
+UPDATE
+    Schedule
+SET
+    `interval` = '5:minutes'
+WHERE
+    `name` = 'RefreshCache';
+//
+
+-- Removing a branch, digest or template entry leaves no row behind to carry the change, so every recorded
+-- change now also stamps the image (or repository) it belongs to
+CREATE OR REPLACE PROCEDURE `ChangeLog_Record`
+(
+    in_repository_id   INT,
+    in_repository_name VARCHAR(255),
+    in_image_id        INT,
+    in_image_name      VARCHAR(255),
+    in_origin          VARCHAR(64)
+)
+BEGIN
+
+    INSERT INTO ChangeLog
+    (
+        `repository_id`,
+        `repository_name`,
+        `image_id`,
+        `image_name`,
+        `origin`
+    )
+    VALUES
+    (
+        in_repository_id,
+        in_repository_name,
+        in_image_id,
+        in_image_name,
+        in_origin
+    );
+
+    IF in_image_id IS NULL THEN
+        UPDATE Repository SET `modified_at` = CURRENT_TIMESTAMP(3) WHERE `id` = in_repository_id;
+    ELSE
+        UPDATE Image SET `modified_at` = CURRENT_TIMESTAMP(3) WHERE `id` = in_image_id;
+    END IF;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `Catalogue_GetSummary`()
+BEGIN
+
+    SELECT
+        CURRENT_TIMESTAMP(3)                 AS `CheckedAt`,
+        (SELECT COUNT(*) FROM Repository)    AS `RepositoryCount`,
+        (SELECT COUNT(*) FROM Image)         AS `ImageCount`;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `Repository_GetModifiedSince`
+(
+    in_since TIMESTAMP(3)
+)
+BEGIN
+
+    SELECT
+        `id`   AS `RepositoryId`,
+        `name` AS `RepositoryName`
+    FROM
+        Repository
+    WHERE
+        `modified_at` >= in_since;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `Image_GetModifiedSince`
+(
+    in_since TIMESTAMP(3)
+)
+BEGIN
+
+    SELECT
+        images.`id`         AS `ImageId`,
+        images.`name`       AS `ImageName`,
+        repositories.`id`   AS `RepositoryId`,
+        repositories.`name` AS `RepositoryName`
+    FROM
+        Image images
+    JOIN
+        Repository repositories ON repositories.`id` = images.`repository`
+    WHERE
+        images.`id` IN
+        (
+            SELECT `id`       FROM Image             WHERE `modified_at` >= in_since
+            UNION
+            SELECT `image_id` FROM TagBranch         WHERE `modified_at` >= in_since
+            UNION
+            SELECT `image_id` FROM ImageMetadata     WHERE `modified_at` >= in_since
+            UNION
+            SELECT `image_id` FROM ImageTemplateBase WHERE `modified_at` >= in_since
+            UNION
+            SELECT `image_id` FROM ExternalUrl       WHERE `modified_at` >= in_since
+        );
+
+END //
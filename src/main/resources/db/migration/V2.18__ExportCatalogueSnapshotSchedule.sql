@@ -0,0 +1,5 @@
+-- Only the leader needs to write snapshots for the serve-only nodes
+INSERT INTO
+    Schedule (`name`, `interval`, `delay`, `java_class`, `scope`)
+VALUE
+    ('ExportCatalogueSnapshot', '5:minutes', '1:minutes', 'io.linuxserver.fleet.v2.thread.schedule.cache.ExportCatalogueSnapshotSchedule', 'Cluster');
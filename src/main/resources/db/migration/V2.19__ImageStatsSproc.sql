@@ -0,0 +1,43 @@
+DELIMITER //
+
+-- Updates only the listing-level stats of an image, so that a stats sync cannot overwrite the build
+-- date or branches written by a tag sync of the same image
+CREATE OR REPLACE PROCEDURE `Image_StoreStats`
+(
+    in_id           INT,
+    in_pulls        BIGINT,
+    in_stars        INT,
+    in_description  TEXT,
+
+    OUT out_status enum('Updated', 'NoChange')
+)
+BEGIN
+
+    IF NOT EXISTS(SELECT `id` FROM Image WHERE `id` = in_id) THEN
+        SET out_status = 'NoChange';
+    ELSE
+
+        UPDATE
+            Image
+        SET
+            `pulls`       = in_pulls,
+            `stars`       = in_stars,
+            `description` = in_description
+        WHERE
+            `id` = in_id;
+
+        IF ROW_COUNT() <> 1 THEN
+            SET out_status = 'NoChange';
+        ELSE
+            SET out_status = 'Updated';
+        END IF;
+
+        CALL Image_StorePullHistory(in_id, in_pulls, out_status);
+
+        SELECT * FROM ImageKey_View WHERE `ImageId` = in_id;
+
+    END IF;
+
+END //
+
+DELIMITER ;
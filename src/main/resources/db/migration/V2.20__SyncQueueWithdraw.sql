@@ -0,0 +1,26 @@
+DELIMITER //
+
+-- Takes back a request which was journalled but then never made it onto the in-memory queue. The row is
+-- removed if nothing else had requested the image, otherwise its revision is wound back so that an in-flight
+-- claim of the earlier request can still complete it.
+CREATE OR REPLACE PROCEDURE `SyncQueue_Withdraw`
+(
+    in_image_id INT
+)
+BEGIN
+
+    DELETE FROM
+        SyncQueue
+    WHERE
+        `image_id` = in_image_id AND `revision` = 1 AND `claimed_revision` IS NULL;
+
+    UPDATE
+        SyncQueue
+    SET
+        `revision` = `revision` - 1
+    WHERE
+        `image_id` = in_image_id AND `revision` > 1;
+
+END //
+
+DELIMITER ;
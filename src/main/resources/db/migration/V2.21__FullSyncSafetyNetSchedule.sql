@@ -0,0 +1,6 @@
+-- Reconciliation only queues tag syncs for images whose listing has changed, so every image is still synced
+-- once a day in case a push was missed or an earlier sync gave up. Each node syncs the repositories it owns.
+INSERT INTO
+    Schedule (`name`, `interval`, `delay`, `java_class`, `scope`)
+VALUE
+    ('SyncAllCachedImages', '1:days', '30:minutes', 'io.linuxserver.fleet.v2.thread.schedule.sync.AllImagesSyncSchedule', 'Node');
@@ -0,0 +1,45 @@
+DELIMITER //
+
+-- Set-based form of ShardLease_Claim, taking a comma-separated list of repository ids so that a node can claim
+-- or renew all of its leases in one call. Returns the ids of every listed repository whose lease the node now holds.
+CREATE OR REPLACE PROCEDURE `ShardLease_ClaimAll`
+(
+    in_repository_ids TEXT,
+    in_node_id        VARCHAR(64),
+    in_lease_seconds  INT
+)
+BEGIN
+
+    INSERT IGNORE INTO ShardLease
+    (
+        `repository_id`,
+        `node_id`,
+        `expires_at`
+    )
+    SELECT
+        `id`,
+        in_node_id,
+        CURRENT_TIMESTAMP() + INTERVAL in_lease_seconds SECOND
+    FROM
+        Repository
+    WHERE
+        FIND_IN_SET(`id`, in_repository_ids);
+
+    UPDATE
+        ShardLease
+    SET
+        `node_id`    = in_node_id,
+        `expires_at` = CURRENT_TIMESTAMP() + INTERVAL in_lease_seconds SECOND
+    WHERE
+        FIND_IN_SET(`repository_id`, in_repository_ids) AND (`node_id` = in_node_id OR `expires_at` < CURRENT_TIMESTAMP());
+
+    SELECT
+        `repository_id` AS `RepositoryId`
+    FROM
+        ShardLease
+    WHERE
+        FIND_IN_SET(`repository_id`, in_repository_ids) AND `node_id` = in_node_id;
+
+END //
+
+DELIMITER ;
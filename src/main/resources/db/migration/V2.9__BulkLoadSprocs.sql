@@ -0,0 +1,177 @@
+DELIMITER //
+
+CREATE OR REPLACE PROCEDURE `Repository_GetAll` ()
+BEGIN
+
+    SELECT
+        *
+    FROM
+        Repository_View;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `Image_GetAll` ()
+BEGIN
+
+    SELECT
+        *
+    FROM
+        Image_View;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `Image_GetAllTagBranches` ()
+BEGIN
+
+    SELECT
+        *
+    FROM
+        TagBranch_View;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `Image_GetAllTagDigests` ()
+BEGIN
+
+    SELECT
+        *
+    FROM
+        TagDigest_View;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `Image_GetAllExternalUrls` ()
+BEGIN
+
+    SELECT
+        `image_id` AS `ImageId`,
+        `id`       AS `UrlId`,
+        `type`     AS `UrlType`,
+        `name`     AS `UrlName`,
+        `path`     AS `UrlPath`
+    FROM
+        ExternalUrl;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `Image_GetAllStats` ()
+BEGIN
+
+    SELECT
+        `image_id`                                AS ImageId,
+        MAX(`pull_count`)                         AS ImagePulls,
+        FROM_UNIXTIME(`pull_timestamp`, '%Y%m%d') AS TimeGroup,
+        'Week'                                    AS GroupMode
+    FROM
+        ImagePullHistory
+    WHERE
+        `pull_timestamp` > unix_timestamp(now() - interval 7 day)
+    GROUP BY
+        ImageId, TimeGroup
+
+    UNION ALL
+
+    SELECT
+        `image_id`                                AS ImageId,
+        MAX(`pull_count`)                         AS ImagePulls,
+        FROM_UNIXTIME(`pull_timestamp`, '%Y%m%d') AS TimeGroup,
+        'Month'                                   AS GroupMode
+    FROM
+        ImagePullHistory
+    WHERE
+        `pull_timestamp` > unix_timestamp(now() - interval 1 month)
+    GROUP BY
+        ImageId, TimeGroup
+
+    UNION ALL
+
+    SELECT
+        `image_id`                                  AS ImageId,
+        MAX(`pull_count`)                           AS ImagePulls,
+        FROM_UNIXTIME(`pull_timestamp`, '%Y%m%d%h') AS TimeGroup,
+        'Day'                                       AS GroupMode
+    FROM
+        ImagePullHistory
+    WHERE
+        `pull_timestamp` > unix_timestamp(date(now()))
+    GROUP BY
+        ImageId
+
+    ORDER BY
+        ImageId, GroupMode, TimeGroup;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `Image_GetAllTemplateBases` ()
+BEGIN
+
+    SELECT
+       `image_id`     AS `ImageId`,
+       `url`          AS `RepositoryUrl`,
+       `restart`      AS `RestartPolicy`,
+       `host_network` AS `HostNetworkEnabled`,
+       `privileged`   AS `PrivilegedMode`
+    FROM
+        `ImageTemplateBase`;
+
+END //
+
+CREATE OR REPLACE PROCEDURE `Image_GetAllTemplates` ()
+BEGIN
+
+    SELECT
+        `image_id`    AS `ImageId`,
+        'Port'        AS `ItemType`,
+        `port`        AS `ItemName`,
+        `description` AS `ItemDescription`,
+        `protocol`    AS `ItemSecondary`
+    FROM
+        `ImageTemplatePorts`
+
+    UNION ALL
+
+    SELECT
+        `image_id`    AS `ImageId`,
+        'Volume'      AS `ItemType`,
+        `volume`      AS `ItemName`,
+        `description` AS `ItemDescription`,
+        `read_only`   AS `ItemSecondary`
+    FROM
+        `ImageTemplateVolumes`
+
+    UNION ALL
+
+    SELECT
+        `image_id`    AS `ImageId`,
+        'Env'         AS `ItemType`,
+        `env_key`     AS `ItemName`,
+        `description` AS `ItemDescription`,
+        `example`     AS `ItemSecondary`
+    FROM
+        `ImageTemplateEnvironment`
+
+    UNION ALL
+
+    SELECT
+        `image_id`    AS `ImageId`,
+        'Device'      AS `ItemType`,
+        `device`      AS `ItemName`,
+        `description` AS `ItemDescription`,
+        NULL          AS `ItemSecondary`
+    FROM
+        `ImageTemplateDevices`
+
+    UNION ALL
+
+    SELECT
+        `image_id`    AS `ImageId`,
+        'Extra'       AS `ItemType`,
+        `extra_key`   AS `ItemName`,
+        `description` AS `ItemDescription`,
+        NULL          AS `ItemSecondary`
+    FROM
+        `ImageTemplateExtra`;
+
+END //
+
+DELIMITER ;
@@ -56,6 +56,7 @@
                                 <th>Name</th>
                                 <th><abbr title="Apply a mask against all tags under this repository">Version Mask</abbr></th>
                                 <th class="has-text-centered"><abbr title="Should this image be included as part of the main repository sync?">Sync</abbr></th>
+                                <th class="has-text-centered"><abbr title="How often this image is checked upstream, based on how often it has been pushed to">Cadence</abbr></th>
                                 <th class="has-text-centered"><abbr title="Is this image deemed stable?">Stable</abbr></th>
                                 <th class="has-text-centered"><abbr title="Should this image be displayed on the main page?">Hidden</abbr></th>
                                 <th class="has-text-centered"><abbr title="Is this image deprecated?">Dep.</abbr></th>
@@ -74,6 +75,14 @@
                                     <td class="editable-image-sync-enabled is-vcentered has-text-centered" style="width: 100px; max-width: 100px;">
                                         <@input.toggle id="Enabled_${image.key.id}" size="small" inputClasses="update-image-trigger" isToggled=(repository.syncEnabled && image.syncEnabled) isDisabled=(!repository.syncEnabled) title="${(!repository.syncEnabled)?string('Repository sync has been disabled.', '')}" />
                                     </td>
+                                    <td class="is-vcentered has-text-centered" style="width: 100px; max-width: 100px;">
+                                        <#if cadences["${image.key}"]??>
+                                            <#assign cadence = cadences["${image.key}"] />
+                                            <span title="Next check due ${cadence.nextDueAtAsString}">${cadence.intervalDescription}</span>
+                                        <#else>
+                                            <span class="has-text-grey-light" title="Not yet checked">-</span>
+                                        </#if>
+                                    </td>
                                     <td class="editable-image-stable is-vcentered has-text-centered" style="width: 100px; max-width: 100px;">
                                         <@input.toggle id="Stable_${image.key.id}" size="small" inputClasses="update-image-trigger" isToggled=image.stable />
                                     </td>
@@ -41,6 +41,7 @@
                                 <th>Last Run</th>
                                 <th>Next Run (Est.)</th>
                                 <th>Interval</th>
+                                <#if cluster.clustered><th><abbr title="Whether the schedule runs on every node, or on the cluster leader only">Runs On</abbr></th></#if>
                                 <th></th>
                             </tr>
                         </thead>
@@ -57,6 +58,7 @@
                                     </td>
                                     <td class="is-vcentered">${formatDate(schedule.nextRunTime, 'dd MMM yyyy HH:mm:ss')}</td>
                                     <td class="is-vcentered">${schedule.interval.timeDuration} ${schedule.interval.timeUnit?lower_case}</td>
+                                    <#if cluster.clustered><td class="is-vcentered">${("${schedule.scope}" == "Node")?string('Every node', 'Leader only')}</td></#if>
                                     <td>
                                         <@button.buttons isGrouped=true isRightAligned=true>
                                             <@button.button extraClasses="force-schedule-run" colour="normal-colour" size="small" title="Run this schedule now" extraAttributes='data-schedule-key="${schedule.key}"'>
@@ -86,13 +88,109 @@
 
                 <div class="column is-12">
                     <h3 class="title is-5">
-                        Request Consumer
+                        Request Consumers
                     </h3>
                     <h4 class="subtitle is-6">
-                        Asynchronous thread which subscribes to the request queue.
+                        Asynchronous threads which subscribe to the request queue.
                     </h4>
-                    The request consumer is currently ${consumerRunning?string('<span class="has-text-success has-fontweight-bold">running</span>', '<span class="has-text-danger has-fontweight-bold">not running</span>')}.
+                    The request consumers are currently ${consumerRunning?string('<span class="has-text-success has-fontweight-bold">running</span>', '<span class="has-text-danger has-fontweight-bold">not running</span>')}
+                    (#{runningConsumers} of #{consumerCount} active).
+                    <br />
+                    #{syncPipeline.diffBacklog} ${(syncPipeline.diffBacklog==1)?string('image is', 'images are')} waiting to be matched and #{syncPipeline.persistBacklog} to be stored.
+                    #{syncPipeline.imagesWritten} ${(syncPipeline.imagesWritten==1)?string('update', 'updates')} stored in #{syncPipeline.batchesWritten} ${(syncPipeline.batchesWritten==1)?string('batch', 'batches')} since startup.
                 </div>
+
+                <#if cluster.clustered>
+                    <div class="column is-12">
+                        <h3 class="title is-5">
+                            Cluster
+                        </h3>
+                        <h4 class="subtitle is-6">
+                            Repositories are shared out between all live nodes, and each is synchronised by one node at a time.
+                        </h4>
+                        This is node <strong>${cluster.nodeId}</strong>, one of #{cluster.liveNodes?size} live ${(cluster.liveNodes?size==1)?string('node', 'nodes')} (${cluster.liveNodes?join(", ")}).
+                        It currently holds the lease on #{cluster.ownedRepositories?size} ${(cluster.ownedRepositories?size==1)?string('repository', 'repositories')}.
+                        <br />
+                        <#if cluster.leader>
+                            This node is the <span class="has-text-success has-fontweight-bold">leader</span> (fencing token #{cluster.leadershipToken}), so runs the schedules marked leader only.
+                        <#else>
+                            Another node is the leader, so this node only runs the schedules marked every node.
+                        </#if>
+                        <br />
+                        Changes made by other nodes are applied up to change #{changeLog.appliedSequence}, #{changeLog.changesApplied} in total since startup. Last checked: ${changeLog.lastPolledAtAsString}.
+                    </div>
+                </#if>
+
+                <#if requestStats.restricted>
+                    <div class="column is-12">
+                        <h3 class="title is-5">
+                            Docker Hub Request Budget
+                        </h3>
+                        <h4 class="subtitle is-6">
+                            All calls to Docker Hub share a single budget, which adapts to the limits Docker Hub reports.
+                        </h4>
+                        Currently allowing #{requestStats.requestsPerMinute} requests per minute, with #{requestStats.availableTokens} of #{requestStats.capacity} available immediately.
+                        <#if requestStats.remainingBudget gte 0>
+                            Docker Hub reports #{requestStats.remainingBudget}<#if requestStats.budgetLimit gte 0> of #{requestStats.budgetLimit}</#if> requests remaining in its current window.
+                        </#if>
+                        <#if requestStats.blockedForSeconds gt 0>
+                            <span class="has-text-danger has-fontweight-bold">Requests are paused for another #{requestStats.blockedForSeconds}s.</span>
+                        </#if>
+                        <br />
+                        #{requestStats.queuedRequests} ${(requestStats.queuedRequests==1)?string('request is', 'requests are')} waiting for budget.
+                        #{requestStats.throttledResponses} throttled, #{requestStats.rejectedRequests} rejected since startup.
+                    </div>
+                </#if>
+
+                <div class="column is-12">
+                    <h3 class="title is-5">
+                        Failed Requests
+                    </h3>
+                    <h4 class="subtitle is-6">
+                        Failed sync requests are retried with an increasing delay. Calls to Docker Hub are paused while it is failing.
+                    </h4>
+                    <#if circuitState == "Closed">
+                        Docker Hub is <span class="has-text-success has-fontweight-bold">accepting requests</span>.
+                    <#elseif circuitState == "Open">
+                        Docker Hub is <span class="has-text-danger has-fontweight-bold">failing</span>. Requests are paused for another #{(circuitBreaker.millisUntilProbe / 1000)?floor}s.
+                    <#else>
+                        Docker Hub is <span class="has-text-warning has-fontweight-bold">being probed</span> to see if it has recovered.
+                    </#if>
+                    #{circuitBreaker.tripCount} ${(circuitBreaker.tripCount==1)?string('pause', 'pauses')}, #{circuitBreaker.shortCircuitedRequests} refused since startup.
+                    <br />
+                    #{retryingTasks} ${(retryingTasks==1)?string('request is', 'requests are')} waiting to be retried.
+                </div>
+
+                <#if deadLetters?has_content>
+                    <div class="column is-12">
+                        <h3 class="title is-5">
+                            Dead Requests
+                        </h3>
+                        <h4 class="subtitle is-6">
+                            The most recent sync requests which were given up on after too many failed attempts.
+                        </h4>
+                        <@table.table isFullWidth=true isHoverable=true isScrollable=true>
+                            <thead>
+                                <tr>
+                                    <th>Request</th>
+                                    <th>Attempts</th>
+                                    <th>Reason</th>
+                                    <th>Failed At</th>
+                                </tr>
+                            </thead>
+                            <tbody>
+                                <#list deadLetters as deadLetter>
+                                    <tr>
+                                        <td class="is-vcentered">${deadLetter.taskName}</td>
+                                        <td class="is-vcentered">#{deadLetter.attempts}</td>
+                                        <td class="is-vcentered">${deadLetter.reason}</td>
+                                        <td class="is-vcentered">${formatDate(deadLetter.failedAt, 'dd MMM yyyy HH:mm:ss')}</td>
+                                    </tr>
+                                </#list>
+                            </tbody>
+                        </@table.table>
+                    </div>
+                </#if>
             </div>
 
         </@container.container>
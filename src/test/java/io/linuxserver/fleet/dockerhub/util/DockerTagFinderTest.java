@@ -24,6 +24,7 @@ import org.junit.Test;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -83,4 +84,24 @@ public class DockerTagFinderTest {
 
         assertThat(DockerTagFinder.findVersionedTagMatchingBranch(tags, "latest"), is(equalTo(named)));
     }
+
+    @Test
+    public void shouldOnlyConsiderBranchResolvedOnceMatchingVersionedTagIsPresent() {
+
+        final DockerTag named = new DockerTag("latest", 1234L, LocalDateTime.now());
+        named.addDigest(new DockerTagManifestDigest(1234L, "digest1", "arch", "variant1"));
+
+        final DockerTag versioned = new DockerTag("v1234", 1234L, LocalDateTime.now());
+        versioned.addDigest(new DockerTagManifestDigest(1234L, "digest1", "arch", "variant1"));
+
+        final List<DockerTag> tags = new ArrayList<>();
+        tags.add(named);
+
+        assertThat(DockerTagFinder.isBranchResolved(tags, "latest"), is(false));
+
+        tags.add(versioned);
+
+        assertThat(DockerTagFinder.isBranchResolved(tags, "latest"), is(true));
+        assertThat(DockerTagFinder.areAllBranchesResolved(tags, Arrays.asList("latest", "development")), is(false));
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.cache;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.ImageLookupKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.types.Image;
+import io.linuxserver.fleet.v2.types.ImageCountData;
+import io.linuxserver.fleet.v2.types.Repository;
+import io.linuxserver.fleet.v2.types.meta.ItemSyncSpec;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class RepositoryCacheTest {
+
+    private RepositoryCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new RepositoryCache();
+    }
+
+    @Test
+    public void shouldNotChangeSnapshotAlreadyHeldByReader() {
+
+        cache.addItem(makeRepository(1, "linuxserver"));
+
+        final ItemCacheSnapshot<RepositoryKey, Repository> snapshot = cache.getSnapshot();
+        cache.addItem(makeRepository(2, "lsiodev"));
+
+        assertThat(snapshot.size(), is(equalTo(1)));
+        assertThat(cache.size(), is(equalTo(2)));
+        assertThat(cache.getSnapshot().getVersion() > snapshot.getVersion(), is(true));
+    }
+
+    @Test
+    public void shouldReplaceAllItemsInSingleGeneration() {
+
+        cache.addAllItems(Arrays.asList(makeRepository(1, "linuxserver"), makeRepository(2, "lsiodev")));
+
+        final long versionBeforeReplace = cache.getSnapshot().getVersion();
+        cache.replaceAllItems(Collections.singletonList(makeRepository(3, "lspipepr")));
+
+        assertThat(cache.getSnapshot().getVersion(), is(equalTo(versionBeforeReplace + 1)));
+        assertThat(cache.size(), is(equalTo(1)));
+        assertThat(cache.isItemCached(new RepositoryKey(1, "linuxserver")), is(false));
+        assertThat(cache.isItemCached(new RepositoryKey(3, "lspipepr")), is(true));
+    }
+
+    @Test
+    public void shouldAllowIterationWhileCacheIsModified() {
+
+        cache.addAllItems(Arrays.asList(makeRepository(1, "linuxserver"), makeRepository(2, "lsiodev")));
+
+        int iterated = 0;
+        for (Repository repository : cache.getAllItems()) {
+
+            cache.removeItem(repository.getKey());
+            iterated++;
+        }
+
+        assertThat(iterated, is(equalTo(2)));
+        assertThat(cache.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldIndexImagesAddedToCachedRepository() {
+
+        final Repository repository = makeRepository(1, "linuxserver");
+        cache.addItem(repository);
+
+        final Image image = makeImage(repository, 10, "sonarr");
+        repository.addImage(image);
+
+        assertThat(cache.lookupImage(new ImageLookupKey("linuxserver/sonarr")), is(equalTo(image)));
+        assertThat(cache.findImage(image.getKey()), is(equalTo(image)));
+        assertThat(cache.lookupImage(new ImageLookupKey("linuxserver/radarr")), is(nullValue()));
+
+        repository.removeImage(image);
+
+        assertThat(cache.lookupImage(new ImageLookupKey("linuxserver/sonarr")), is(nullValue()));
+        assertThat(cache.isImageCached(image.getKey()), is(false));
+    }
+
+    @Test
+    public void shouldDropIndexedImagesWhenRepositoryIsReplaced() {
+
+        final Repository original = makeRepository(1, "linuxserver");
+        original.addImage(makeImage(original, 10, "sonarr"));
+        original.addImage(makeImage(original, 11, "radarr"));
+        cache.addItem(original);
+
+        final Repository reloaded = makeRepository(1, "linuxserver");
+        reloaded.addImage(makeImage(reloaded, 11, "radarr"));
+        cache.replaceAllItems(Collections.singletonList(reloaded));
+
+        assertThat(cache.lookupImage(new ImageLookupKey("linuxserver/sonarr")), is(nullValue()));
+        assertThat(cache.lookupImage(new ImageLookupKey("linuxserver/radarr")).getKey().getId(), is(equalTo(11)));
+
+        // Writes against the stale repository must not leak back into the index
+        original.addImage(makeImage(original, 12, "lidarr"));
+        assertThat(cache.lookupImage(new ImageLookupKey("linuxserver/lidarr")), is(nullValue()));
+    }
+
+    @Test
+    public void shouldMoveModificationCountOnOnlyWhenSomethingChanges() {
+
+        final Repository repository = makeRepository(1, "linuxserver");
+        cache.addItem(repository);
+
+        final long afterAdd = cache.getModificationCount();
+        cache.lookupImage(new ImageLookupKey("linuxserver/sonarr"));
+        assertThat(cache.getModificationCount(), is(equalTo(afterAdd)));
+
+        repository.addImage(makeImage(repository, 10, "sonarr"));
+        assertThat(cache.getModificationCount() > afterAdd, is(true));
+
+        final long afterImage = cache.getModificationCount();
+        cache.removeItem(repository.getKey());
+        assertThat(cache.getModificationCount() > afterImage, is(true));
+    }
+
+    @Test
+    public void shouldIndexImagesOnceWhenRepositoryIsAddedAgain() {
+
+        final Repository repository = makeRepository(1, "linuxserver");
+        cache.addItem(repository);
+        cache.removeItem(repository.getKey());
+        cache.addItem(repository);
+
+        final long beforeImage = cache.getModificationCount();
+        repository.addImage(makeImage(repository, 10, "sonarr"));
+
+        assertThat(cache.getModificationCount(), is(equalTo(beforeImage + 1)));
+    }
+
+    private static Image makeImage(final Repository repository, final int id, final String name) {
+        return new Image(new ImageKey(id, name, repository.getKey()), ItemSyncSpec.Default, null, new ImageCountData(0, 0), null, null);
+    }
+
+    private static Repository makeRepository(final int id, final String name) {
+        return new Repository(new RepositoryKey(id, name), ItemSyncSpec.Default);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.docker.dockerhub;
+
+import io.linuxserver.fleet.v2.types.docker.DockerTag;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class DockerHubPageReaderTest {
+
+    private final DockerHubPageReader<?, DockerTag> reader = new DockerHubPageReader<>(new DockerHubTagConverter());
+
+    @Test
+    public void shouldConvertResultsAndReadNextPageRegardlessOfFieldOrder() throws Exception {
+
+        final String body = "{\"count\":2,\"results\":["
+            + "{\"name\":\"latest\",\"full_size\":100,\"last_updated\":\"2019-11-01T10:15:30.123456Z\",\"extra\":{\"ignored\":[1,2]},"
+            + "\"images\":[{\"size\":100,\"digest\":\"sha256:abc\",\"architecture\":\"amd64\",\"variant\":null}]},"
+            + "{\"name\":\"1.0.0-ls1\",\"full_size\":100,\"last_updated\":\"2019-11-01T10:15:30.123456Z\",\"images\":[]}"
+            + "],\"next\":\"https://hub.docker.com/v2/page2\",\"previous\":null}";
+
+        final DockerHubPage<DockerTag> page = read(body);
+
+        assertThat(page.getNext(), is(equalTo("https://hub.docker.com/v2/page2")));
+        assertThat(page.getResults().size(), is(equalTo(2)));
+        assertThat(page.getResults().get(0).getName(), is(equalTo("latest")));
+        assertThat(page.getResults().get(0).getDigests().get(0).getDigest(), is(equalTo("sha256:abc")));
+        assertThat(page.getResults().get(1).getName(), is(equalTo("1.0.0-ls1")));
+    }
+
+    @Test
+    public void shouldHaveNoNextPageOnLastPage() throws Exception {
+
+        final DockerHubPage<DockerTag> page = read("{\"next\":null,\"results\":[]}");
+
+        assertThat(page.getNext(), is(nullValue()));
+        assertThat(page.getResults().isEmpty(), is(true));
+    }
+
+    private DockerHubPage<DockerTag> read(final String body) throws Exception {
+        return reader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.docker.queue;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RetryPolicyTest {
+
+    private final RetryPolicy policy = new RetryPolicy(5, 100, 1000);
+
+    @Test
+    public void shouldPickDelayFromUpperHalfOfDoublingWindow() {
+
+        final long[] ceilings = { 100, 200, 400, 800, 1000, 1000 };
+        for (int attempt = 1; attempt <= ceilings.length; attempt++) {
+
+            final long ceiling = ceilings[attempt - 1];
+            for (int i = 0; i < 200; i++) {
+
+                final long delay = policy.getDelayMillis(attempt);
+                assertThat("Attempt " + attempt + " waited " + delay + "ms", delay >= ceiling / 2 && delay <= ceiling, is(true));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotOverflowForLargeAttemptCounts() {
+
+        final long delay = policy.getDelayMillis(Integer.MAX_VALUE);
+        assertThat(delay >= 500 && delay <= 1000, is(true));
+    }
+
+    @Test
+    public void shouldOnlyBeExhaustedOnceMaxAttemptsAreUsedUp() {
+
+        assertThat(policy.isExhausted(4), is(false));
+        assertThat(policy.isExhausted(5), is(true));
+        assertThat(new RetryPolicy(0, 100, 1000).isExhausted(1), is(true));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.docker.queue;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class RetryStageTest {
+
+    private static final ImageKey Sonarr = new ImageKey(10, "sonarr", new RepositoryKey(1, "linuxserver"));
+    private static final ImageKey Radarr = new ImageKey(11, "radarr", new RepositoryKey(1, "linuxserver"));
+
+    private TaskQueue<DockerImageUpdateRequest>  queue;
+    private RetryStage<DockerImageUpdateRequest> retryStage;
+
+    @Before
+    public void setUp() {
+
+        queue      = new TaskQueue<>();
+        retryStage = new RetryStage<>(queue, new RetryPolicy(2, 1, 1), 10);
+    }
+
+    @Test
+    public void shouldDeadLetterTaskOnceItsAttemptsRunOut() {
+
+        final DockerImageUpdateRequest task = new DockerImageUpdateRequest(Sonarr);
+
+        assertThat(retryStage.scheduleRetry(task, new IOException("Timed out"), 0, true), is(true));
+        assertThat(retryStage.scheduleRetry(task, new RuntimeException(new IOException("Timed out")), 0, true), is(false));
+
+        assertThat(retryStage.getWaitingTaskCount(), is(equalTo(1)));
+        assertThat(retryStage.getDeadLetters().size(), is(equalTo(1)));
+        assertThat(retryStage.getDeadLetters().get(0).getAttempts(), is(equalTo(2)));
+        assertThat(retryStage.getDeadLetters().get(0).getReason(), is(equalTo("IOException: Timed out")));
+    }
+
+    @Test
+    public void shouldNotUseUpAttemptsForTasksWhichWereNeverAttempted() {
+
+        final DockerImageUpdateRequest task = new DockerImageUpdateRequest(Sonarr);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(retryStage.scheduleRetry(task, new IOException("Refused"), 0, false), is(true));
+        }
+        assertThat(retryStage.getDeadLetters().isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldStartCountingAgainOnceTaskSucceeds() {
+
+        final DockerImageUpdateRequest task = new DockerImageUpdateRequest(Sonarr);
+
+        retryStage.scheduleRetry(task, new IOException("Timed out"), 0, true);
+        retryStage.onTaskSucceeded(task);
+
+        assertThat(retryStage.scheduleRetry(task, new IOException("Timed out"), 0, true), is(true));
+    }
+
+    @Test
+    public void shouldReleaseTasksInTheOrderTheyBecomeDue() throws Exception {
+
+        final long scheduledAt = System.currentTimeMillis();
+
+        retryStage.scheduleRetry(new DockerImageUpdateRequest(Sonarr), new IOException("Timed out"), 300, true);
+        retryStage.scheduleRetry(new DockerImageUpdateRequest(Radarr), new IOException("Timed out"), 10, true);
+
+        retryStage.releaseNextDueTask();
+        assertThat(queue.retrieveNextTask(), is(equalTo(new DockerImageUpdateRequest(Radarr))));
+
+        retryStage.releaseNextDueTask();
+        assertThat(queue.retrieveNextTask(), is(equalTo(new DockerImageUpdateRequest(Sonarr))));
+
+        assertThat(System.currentTimeMillis() - scheduledAt >= 300, is(true));
+        assertThat(retryStage.getWaitingTaskCount(), is(equalTo(0)));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.docker.queue;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.thread.TaskPriority;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class TaskQueueTest {
+
+    private static final ImageKey Sonarr = new ImageKey(10, "sonarr", new RepositoryKey(1, "linuxserver"));
+    private static final ImageKey Radarr = new ImageKey(11, "radarr", new RepositoryKey(1, "linuxserver"));
+    private static final ImageKey Lidarr = new ImageKey(12, "lidarr", new RepositoryKey(1, "linuxserver"));
+    private static final ImageKey Code   = new ImageKey(20, "code",   new RepositoryKey(2, "lsiodev"));
+
+    private TaskQueue<DockerImageUpdateRequest> queue;
+
+    @Before
+    public void setUp() {
+        queue = new TaskQueue<>();
+    }
+
+    @Test
+    public void shouldUpgradeQueuedRequestToFullSyncInsteadOfDroppingIt() throws Exception {
+
+        assertThat(queue.submitTask(new DockerImageUpdateRequest(Sonarr, false)), is(true));
+        assertThat(queue.submitTask(new DockerImageUpdateRequest(Radarr, false)), is(true));
+        assertThat(queue.submitTask(new DockerImageUpdateRequest(Sonarr, true)), is(true));
+        assertThat(queue.submitTask(new DockerImageUpdateRequest(Sonarr, false)), is(true));
+
+        assertThat(queue.size(), is(equalTo(2)));
+
+        final DockerImageUpdateRequest first = queue.retrieveNextTask();
+        assertThat(first.isForceFullSync(), is(true));
+        assertThat(first, is(equalTo(new DockerImageUpdateRequest(Sonarr))));
+        assertThat(queue.retrieveNextTask().isForceFullSync(), is(false));
+    }
+
+    @Test
+    public void shouldHoldBackRequestForRunningTaskUntilItCompletes() throws Exception {
+
+        queue.submitTask(new DockerImageUpdateRequest(Sonarr, false));
+        final DockerImageUpdateRequest running = queue.retrieveNextTask();
+
+        queue.submitTask(new DockerImageUpdateRequest(Sonarr, true));
+        queue.submitTask(new DockerImageUpdateRequest(Radarr, false));
+
+        assertThat(queue.retrieveNextTask(), is(equalTo(new DockerImageUpdateRequest(Radarr))));
+        assertThat(queue.size(), is(equalTo(1)));
+
+        queue.completeTask(running);
+
+        assertThat(queue.retrieveNextTask().isForceFullSync(), is(true));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldServeInteractiveRequestsFirstAndShareBulkWorkBetweenRepositories() throws Exception {
+
+        queue.submitTask(new DockerImageUpdateRequest(Sonarr, false, TaskPriority.Bulk));
+        queue.submitTask(new DockerImageUpdateRequest(Radarr, false, TaskPriority.Bulk));
+        queue.submitTask(new DockerImageUpdateRequest(Code,   false, TaskPriority.Bulk));
+        queue.submitTask(new DockerImageUpdateRequest(Lidarr, true,  TaskPriority.Interactive));
+        queue.submitTask(new DockerImageUpdateRequest(Radarr, true,  TaskPriority.Interactive));
+
+        assertThat(queue.retrieveNextTask(), is(equalTo(new DockerImageUpdateRequest(Lidarr))));
+        assertThat(queue.retrieveNextTask(), is(equalTo(new DockerImageUpdateRequest(Radarr))));
+        assertThat(queue.retrieveNextTask(), is(equalTo(new DockerImageUpdateRequest(Sonarr))));
+        assertThat(queue.retrieveNextTask(), is(equalTo(new DockerImageUpdateRequest(Code))));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldNotLeaveOldPositionBehindWhenMergeRaisesPriority() throws Exception {
+
+        queue.submitTask(new DockerImageUpdateRequest(Sonarr, false, TaskPriority.Bulk));
+        queue.submitTask(new DockerImageUpdateRequest(Radarr, false, TaskPriority.Bulk));
+        queue.submitTask(new DockerImageUpdateRequest(Sonarr, false, TaskPriority.Interactive));
+
+        final DockerImageUpdateRequest promoted = queue.retrieveNextTask();
+        assertThat(promoted.getPriority(), is(equalTo(TaskPriority.Interactive)));
+        queue.completeTask(promoted);
+
+        queue.submitTask(new DockerImageUpdateRequest(Sonarr, false, TaskPriority.Bulk));
+
+        assertThat(queue.retrieveNextTask(), is(equalTo(new DockerImageUpdateRequest(Radarr))));
+        assertThat(queue.retrieveNextTask(), is(equalTo(new DockerImageUpdateRequest(Sonarr))));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldCompleteEveryMergedRequestWhenTheSurvivingTaskCompletes() throws Exception {
+
+        final DockerImageUpdateRequest original = new DockerImageUpdateRequest(Sonarr, false);
+        final DockerImageUpdateRequest upgrade  = new DockerImageUpdateRequest(Sonarr, true);
+
+        queue.submitTask(original);
+        queue.submitTask(upgrade);
+
+        final DockerImageUpdateRequest merged = queue.retrieveNextTask();
+        assertThat(queue.countRunningTasks(task -> task.getImageKey().equals(Sonarr)), is(equalTo(1)));
+        assertThat(original.getCompletion().isDone(), is(false));
+
+        queue.completeTask(merged);
+        merged.getCompletion().complete(null);
+
+        assertThat(original.getCompletion().isDone(), is(true));
+        assertThat(upgrade.getCompletion().isDone(), is(true));
+        assertThat(queue.countRunningTasks(task -> task.getImageKey().equals(Sonarr)), is(equalTo(0)));
+    }
+}
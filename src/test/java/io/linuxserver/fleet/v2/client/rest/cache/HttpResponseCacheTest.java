@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class HttpResponseCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResponsesOnceFull() {
+
+        final HttpResponseCache cache = new HttpResponseCache(400);
+
+        cache.storeResponse(makeResponse("a", 80));
+        cache.storeResponse(makeResponse("b", 80));
+        cache.storeResponse(makeResponse("c", 80));
+        cache.findResponse("a");
+        cache.storeResponse(makeResponse("d", 80));
+        cache.storeResponse(makeResponse("e", 80));
+
+        assertThat(cache.findResponse("b"), is(nullValue()));
+        assertThat(cache.findResponse("a").getEntityTag(), is(equalTo("\"a\"")));
+        assertThat(cache.getCurrentBytes() <= 400, is(true));
+    }
+
+    @Test
+    public void shouldRestorePersistedResponses() {
+
+        final HttpResponseCache cache = new HttpResponseCache(1024);
+        cache.storeResponse(makeResponse("a", 10));
+        cache.storeResponse(new CachedResponse("b", null, "Wed, 21 Oct 2015 07:28:00 GMT", new byte[] { 1, 2, 3 }));
+
+        final Path file = folder.getRoot().toPath().resolve("cache").resolve("responses.bin");
+        cache.writeTo(file);
+
+        final HttpResponseCache restored = new HttpResponseCache(1024);
+        restored.readFrom(file);
+
+        assertThat(restored.size(), is(equalTo(2)));
+        assertThat(restored.findResponse("b").getEntityTag(), is(nullValue()));
+        assertThat(restored.findResponse("b").getLastModified(), is(equalTo("Wed, 21 Oct 2015 07:28:00 GMT")));
+        assertThat(restored.findResponse("b").getBody(), is(equalTo(new byte[] { 1, 2, 3 })));
+        assertThat(restored.getCurrentBytes(), is(equalTo(cache.getCurrentBytes())));
+    }
+
+    private static CachedResponse makeResponse(final String url, final int size) {
+        return new CachedResponse(url, "\"" + url + "\"", null, new byte[size]);
+    }
+}
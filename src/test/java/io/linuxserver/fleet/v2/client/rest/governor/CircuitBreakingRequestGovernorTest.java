@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.governor;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class CircuitBreakingRequestGovernorTest {
+
+    private AtomicLong                     now;
+    private CircuitBreakingRequestGovernor governor;
+
+    @Before
+    public void setUp() {
+
+        now      = new AtomicLong(1_000_000);
+        governor = new CircuitBreakingRequestGovernor(RequestGovernor.Unrestricted, 2, 30_000, now::get);
+    }
+
+    @Test
+    public void shouldRefuseRequestsOnceFailureThresholdIsReachedThenProbeForRecovery() {
+
+        governor.onRequestFailed(new IOException("Connect timed out"));
+        assertThat(tryAcquire(), is(true));
+
+        governor.onResponse(new BasicHttpResponse(HttpVersion.HTTP_1_1, 502, "Bad Gateway"));
+        assertThat(governor.getState(), is(equalTo(CircuitState.Open)));
+        assertThat(tryAcquire(), is(false));
+        assertThat(governor.getMillisUntilProbe(), is(equalTo(30_000L)));
+
+        now.addAndGet(30_000);
+
+        // Only one probe is let through until it has been answered
+        assertThat(tryAcquire(), is(true));
+        assertThat(tryAcquire(), is(false));
+
+        governor.onResponse(new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK"));
+
+        assertThat(governor.getState(), is(equalTo(CircuitState.Closed)));
+        assertThat(tryAcquire(), is(true));
+        assertThat(governor.getShortCircuitedRequests(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void shouldReopenCircuitIfProbeFails() {
+
+        governor.onRequestFailed(new IOException("Connect timed out"));
+        governor.onRequestFailed(new IOException("Connect timed out"));
+
+        now.addAndGet(30_000);
+        assertThat(tryAcquire(), is(true));
+
+        governor.onRequestFailed(new IOException("Connect timed out"));
+
+        assertThat(governor.getState(), is(equalTo(CircuitState.Open)));
+        assertThat(governor.getTripCount(), is(equalTo(2L)));
+        assertThat(tryAcquire(), is(false));
+    }
+
+    private boolean tryAcquire() {
+
+        try {
+
+            governor.acquire(AcquireMode.Wait);
+            return true;
+
+        } catch (CircuitOpenException e) {
+            return false;
+        }
+    }
+}
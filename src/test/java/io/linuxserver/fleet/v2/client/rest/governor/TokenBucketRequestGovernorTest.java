@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.client.rest.governor;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class TokenBucketRequestGovernorTest {
+
+    private AtomicLong                 now;
+    private TokenBucketRequestGovernor governor;
+
+    @Before
+    public void setUp() {
+
+        now      = new AtomicLong(1_000_000);
+        governor = new TokenBucketRequestGovernor(60, 2, now::get);
+    }
+
+    @Test
+    public void shouldRejectFailFastCallersOnceBurstIsUsedUntilTokensRefill() {
+
+        governor.acquire(AcquireMode.FailFast);
+        governor.acquire(AcquireMode.FailFast);
+
+        assertThat(tryAcquire(), is(false));
+        assertThat(governor.getStats().getRejectedRequests(), is(equalTo(1L)));
+
+        now.addAndGet(1000);
+
+        assertThat(tryAcquire(), is(true));
+    }
+
+    @Test
+    public void shouldHoldBackAllRequestsUntilRetryAfterHasPassed() {
+
+        final HttpResponse throttled = new BasicHttpResponse(HttpVersion.HTTP_1_1, 429, "Too Many Requests");
+        throttled.setHeader("Retry-After", "30");
+        governor.onResponse(throttled);
+
+        now.addAndGet(29_000);
+        assertThat(tryAcquire(), is(false));
+
+        now.addAndGet(1_000);
+        assertThat(tryAcquire(), is(true));
+        assertThat(governor.getStats().getThrottledResponses(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void shouldSpreadReportedBudgetOverRemainderOfWindow() {
+
+        final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setHeader("X-RateLimit-Limit",     "600");
+        response.setHeader("X-RateLimit-Remaining", "300");
+        response.setHeader("X-RateLimit-Reset",     String.valueOf((now.get() + 60_000) / 1000));
+        governor.onResponse(response);
+
+        final RequestGovernorStats stats = governor.getStats();
+        assertThat(stats.getRequestsPerMinute(), is(equalTo(300)));
+        assertThat(stats.getRemainingBudget(), is(equalTo(300)));
+        assertThat(stats.getBudgetLimit(), is(equalTo(600)));
+    }
+
+    private boolean tryAcquire() {
+
+        try {
+            governor.acquire(AcquireMode.FailFast);
+            return true;
+        } catch (RateLimitExceededException e) {
+            return false;
+        }
+    }
+}
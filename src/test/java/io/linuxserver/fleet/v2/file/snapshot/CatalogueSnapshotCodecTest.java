@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.file.snapshot;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.key.TagBranchKey;
+import io.linuxserver.fleet.v2.types.Image;
+import io.linuxserver.fleet.v2.types.ImageCountData;
+import io.linuxserver.fleet.v2.types.Repository;
+import io.linuxserver.fleet.v2.types.Tag;
+import io.linuxserver.fleet.v2.types.TagBranch;
+import io.linuxserver.fleet.v2.types.TagDigest;
+import io.linuxserver.fleet.v2.types.meta.ImageCoreMeta;
+import io.linuxserver.fleet.v2.types.meta.ImageMetaData;
+import io.linuxserver.fleet.v2.types.meta.ItemSyncSpec;
+import io.linuxserver.fleet.v2.types.meta.history.ImagePullHistory;
+import io.linuxserver.fleet.v2.types.meta.history.ImagePullStatistic;
+import io.linuxserver.fleet.v2.types.meta.template.ImageTemplateHolder;
+import io.linuxserver.fleet.v2.types.meta.template.PortTemplateItem;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class CatalogueSnapshotCodecTest {
+
+    private final CatalogueSnapshotCodec codec = new CatalogueSnapshotCodec();
+
+    @Test
+    public void shouldReadBackWhatWasWritten() throws IOException {
+
+        final RepositoryKey repositoryKey = new RepositoryKey(1, "linuxserver");
+        final ImageKey      imageKey      = new ImageKey(10, "nginx", repositoryKey);
+        final LocalDateTime buildDate     = LocalDateTime.of(2020, 3, 1, 9, 30, 15);
+
+        final ImagePullHistory pullHistory = new ImagePullHistory();
+        pullHistory.addStatistic(new ImagePullStatistic(1234L, "2020-03-01", ImagePullStatistic.StatGroupMode.Week));
+
+        final ImageTemplateHolder templates = new ImageTemplateHolder(null, "unless-stopped", false, true);
+        templates.addPort(new PortTemplateItem(443, "HTTPS", PortTemplateItem.Protocol.Tcp));
+
+        final Image image = new Image(imageKey,
+                                      new ItemSyncSpec(false, false, true, true, "^(.+)-ls.+$"),
+                                      new ImageMetaData(new ImageCoreMeta(null, "alpine", "Web"), pullHistory, templates),
+                                      new ImageCountData(5000L, 12),
+                                      "Web server",
+                                      buildDate);
+
+        image.addTagBranch(new TagBranch(new TagBranchKey(100, imageKey),
+                                         "latest",
+                                         true,
+                                         new Tag("1.18.0-ls1", buildDate, Collections.singleton(new TagDigest(2048L, "sha256:abc", "amd64", null)))));
+
+        final Repository repository = new Repository(repositoryKey, ItemSyncSpec.Default);
+        repository.addImage(image);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(new CatalogueSnapshot(7L, buildDate, Collections.singletonList(repository)), out);
+
+        final CatalogueSnapshot read = codec.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(read.getVersion(), is(equalTo(7L)));
+        assertThat(read.getImageCount(), is(equalTo(1)));
+
+        final Image readImage = read.getRepositories().get(0).findImage(imageKey);
+        assertThat(readImage.getFullName(), is(equalTo("linuxserver/nginx")));
+        assertThat(readImage.getPullCount(), is(equalTo(5000L)));
+        assertThat(readImage.getVersionMask(), is(equalTo("^(.+)-ls.+$")));
+        assertThat(readImage.getLastUpdated(), is(equalTo(buildDate)));
+        assertThat(readImage.getLatestTag().getVersion(), is(equalTo("1.18.0-ls1")));
+        assertThat(readImage.getLatestTag().getDigests().get(0).getArchVariant(), is(equalTo(null)));
+        assertThat(readImage.findTagBranchByName("latest").isBranchProtected(), is(true));
+        assertThat(readImage.getMetaData().getBaseImage(), is(equalTo("alpine")));
+        assertThat(readImage.getMetaData().getTemplates().getPorts().get(0).getPort(), is(equalTo(443)));
+        assertThat(readImage.getMetaData().getHistoryFor(ImagePullStatistic.StatGroupMode.Week).size(), is(equalTo(1)));
+    }
+}
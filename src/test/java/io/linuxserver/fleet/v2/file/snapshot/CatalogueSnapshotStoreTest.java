@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.file.snapshot;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class CatalogueSnapshotStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldKeepNextVersionAboveSnapshotsFromFasterClocks() throws IOException {
+
+        final CatalogueSnapshotStore store = new CatalogueSnapshotStore(folder.getRoot().toPath());
+
+        final long aheadOfClock = System.currentTimeMillis() + 60_000;
+        store.write(new CatalogueSnapshot(aheadOfClock, LocalDateTime.now(), Collections.emptyList()));
+
+        final long nextVersion = store.nextVersion();
+        store.write(new CatalogueSnapshot(nextVersion, LocalDateTime.now(), Collections.emptyList()));
+
+        assertThat(nextVersion, is(equalTo(aheadOfClock + 1)));
+        assertThat(store.readLatest().getVersion(), is(equalTo(nextVersion)));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.cluster;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class ChangeSequenceWatermarkTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+    @Test
+    public void shouldHoldAtGapUntilItIsFilled() {
+
+        final ChangeSequenceWatermark watermark = new ChangeSequenceWatermark(10, Duration.ofSeconds(30));
+
+        watermark.markApplied(11);
+        watermark.markApplied(13);
+        watermark.advance(now);
+
+        assertThat(watermark.getWatermark(), is(equalTo(11L)));
+        assertThat(watermark.isApplied(13), is(true));
+        assertThat(watermark.isApplied(12), is(false));
+
+        watermark.markApplied(12);
+        watermark.advance(now.plusSeconds(5));
+
+        assertThat(watermark.getWatermark(), is(equalTo(13L)));
+    }
+
+    @Test
+    public void shouldSkipGapWhichOutlivesTimeout() {
+
+        final ChangeSequenceWatermark watermark = new ChangeSequenceWatermark(10, Duration.ofSeconds(30));
+
+        watermark.markApplied(12);
+        watermark.markApplied(13);
+        watermark.advance(now);
+        watermark.advance(now.plusSeconds(29));
+
+        assertThat(watermark.getWatermark(), is(equalTo(10L)));
+
+        watermark.advance(now.plusSeconds(30));
+
+        assertThat(watermark.getWatermark(), is(equalTo(13L)));
+    }
+}
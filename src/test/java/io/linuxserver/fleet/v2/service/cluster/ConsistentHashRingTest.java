@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.cluster;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class ConsistentHashRingTest {
+
+    @Test
+    public void shouldOnlyMoveShardsOfDepartedNode() {
+
+        final ConsistentHashRing before = new ConsistentHashRing(Arrays.asList("node-a", "node-b", "node-c"), 64);
+        final ConsistentHashRing after  = new ConsistentHashRing(Arrays.asList("node-a", "node-b"), 64);
+
+        final Map<String, Integer> owned = new HashMap<>();
+        for (int shard = 1; shard <= 300; shard++) {
+
+            final String shardKey      = String.valueOf(shard);
+            final String previousOwner = before.getOwner(shardKey);
+            owned.merge(previousOwner, 1, Integer::sum);
+
+            if (!previousOwner.equals("node-c")) {
+                assertThat(after.getOwner(shardKey), is(equalTo(previousOwner)));
+            }
+        }
+
+        assertThat(owned.size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void shouldHaveNoOwnerWhenEmpty() {
+        assertThat(new ConsistentHashRing(Collections.emptyList(), 64).getOwner("1"), is(nullValue()));
+    }
+}
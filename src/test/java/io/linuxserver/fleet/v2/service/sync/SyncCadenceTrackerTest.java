@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.service.sync;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.types.internal.ImageSyncCadence;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class SyncCadenceTrackerTest {
+
+    private static final LocalDateTime Start = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private final ImageKey imageKey = new ImageKey(1, "sonarr", new RepositoryKey(1, "linuxserver"));
+
+    private SyncCadenceTracker tracker;
+
+    @Before
+    public void setUp() {
+        tracker = new SyncCadenceTracker(Duration.ofMinutes(10), Duration.ofHours(12));
+    }
+
+    @Test
+    public void shouldCheckNightlyImageFourTimesPerPush() {
+
+        tracker.recordCheck(imageKey, Start, Start);
+        final ImageSyncCadence cadence = tracker.recordCheck(imageKey, Start.plusDays(1), Start.plusDays(1));
+
+        assertThat(cadence.getInterval(), is(equalTo(Duration.ofHours(6))));
+        assertThat(tracker.isDue(imageKey, Start.plusDays(1).plusHours(5)), is(false));
+        assertThat(tracker.isDue(imageKey, Start.plusDays(1).plusHours(6)), is(true));
+    }
+
+    @Test
+    public void shouldKeepBusyImagesAtMinimumAndLetQuietImagesDecayToMaximum() {
+
+        tracker.recordCheck(imageKey, Start, Start);
+        assertThat(tracker.recordCheck(imageKey, Start.plusMinutes(5), Start.plusMinutes(5)).getInterval(), is(equalTo(Duration.ofMinutes(10))));
+
+        final LocalDateTime muchLater = Start.plusDays(30);
+        assertThat(tracker.recordCheck(imageKey, Start.plusMinutes(5), muchLater).getInterval(), is(equalTo(Duration.ofHours(12))));
+    }
+
+    @Test
+    public void shouldTreatUncheckedImagesAsDue() {
+        assertThat(tracker.isDue(imageKey, Start), is(true));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.thread;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class SingleFlightTest {
+
+    private static final int Waiters = 3;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger                invocations  = new AtomicInteger();
+
+    @Test
+    public void shouldShareOneInvocationBetweenConcurrentCallersForSameKey() throws Exception {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicReferenceArray<Object> outcomes = runConcurrently(() -> {
+
+            awaitQuietly(release);
+            return "linuxserver/sonarr";
+
+        }, release);
+
+        for (int i = 0; i <= Waiters; i++) {
+            assertThat(outcomes.get(i), is(equalTo("linuxserver/sonarr")));
+        }
+        assertThat(invocations.get(), is(equalTo(1)));
+        assertThat(singleFlight.getInFlightCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void shouldPassFailureToEveryWaiterAndThenForgetKey() throws Exception {
+
+        final IllegalStateException failure = new IllegalStateException("Docker Hub unavailable");
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicReferenceArray<Object> outcomes = runConcurrently(() -> {
+
+            awaitQuietly(release);
+            throw failure;
+
+        }, release);
+
+        for (int i = 0; i <= Waiters; i++) {
+            assertThat(outcomes.get(i), is(sameInstance(failure)));
+        }
+        assertThat(invocations.get(), is(equalTo(1)));
+        assertThat(singleFlight.getInFlightCount(), is(equalTo(0)));
+
+        // The failure is not remembered, so the next caller makes a fresh call
+        assertThat(singleFlight.execute("sonarr", () -> "linuxserver/sonarr"), is(equalTo("linuxserver/sonarr")));
+    }
+
+    /**
+     * Starts one caller which blocks inside the call until released, then several more for the same key. The call is
+     * only released once every other caller is waiting on it.
+     *
+     * @return
+     *      What each caller got back, or the exception it caught. The first caller is at index 0.
+     */
+    private AtomicReferenceArray<Object> runConcurrently(final Supplier<String> call, final CountDownLatch release) throws InterruptedException {
+
+        final AtomicReferenceArray<Object> outcomes = new AtomicReferenceArray<>(Waiters + 1);
+        final CountDownLatch               started  = new CountDownLatch(1);
+
+        final Thread first = makeCaller(outcomes, 0, () -> {
+
+            invocations.incrementAndGet();
+            started.countDown();
+            return call.get();
+        });
+        first.start();
+        started.await();
+
+        final List<Thread> waiters = new ArrayList<>();
+        for (int i = 1; i <= Waiters; i++) {
+
+            final Thread waiter = makeCaller(outcomes, i, () -> {
+
+                invocations.incrementAndGet();
+                return "unexpected";
+            });
+            waiters.add(waiter);
+            waiter.start();
+        }
+
+        for (Thread waiter : waiters) {
+
+            while (waiter.getState() != Thread.State.WAITING) {
+                Thread.sleep(5);
+            }
+        }
+
+        release.countDown();
+
+        first.join();
+        for (Thread waiter : waiters) {
+            waiter.join();
+        }
+        return outcomes;
+    }
+
+    private Thread makeCaller(final AtomicReferenceArray<Object> outcomes, final int index, final Supplier<String> call) {
+
+        return new Thread(() -> {
+
+            try {
+                outcomes.set(index, singleFlight.execute("sonarr", call));
+            } catch (RuntimeException e) {
+                outcomes.set(index, e);
+            }
+        });
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
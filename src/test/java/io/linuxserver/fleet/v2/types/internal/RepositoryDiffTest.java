@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2019 LinuxServer.io
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.linuxserver.fleet.v2.types.internal;
+
+import io.linuxserver.fleet.v2.key.ImageKey;
+import io.linuxserver.fleet.v2.key.RepositoryKey;
+import io.linuxserver.fleet.v2.types.Image;
+import io.linuxserver.fleet.v2.types.ImageCountData;
+import io.linuxserver.fleet.v2.types.Repository;
+import io.linuxserver.fleet.v2.types.docker.DockerImage;
+import io.linuxserver.fleet.v2.types.meta.ItemSyncSpec;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class RepositoryDiffTest {
+
+    private static final LocalDateTime LastSynced = LocalDateTime.of(2019, 11, 1, 10, 15, 30);
+
+    @Test
+    public void shouldSplitListingIntoAddedRemovedAndChangedImages() {
+
+        final Repository repository = new Repository(new RepositoryKey(1, "linuxserver"), ItemSyncSpec.Default);
+        final Image      unchanged  = makeImage(repository, 10, "sonarr");
+        final Image      pushedTo   = makeImage(repository, 11, "radarr");
+        final Image      deleted    = makeImage(repository, 12, "lidarr");
+        repository.addImages(Arrays.asList(unchanged, pushedTo, deleted));
+
+        final RepositoryDiff diff = RepositoryDiff.between(repository, Arrays.asList(
+            makeDockerImage("sonarr", LastSynced.plusNanos(500_000)),
+            makeDockerImage("radarr", LastSynced.plusMinutes(5)),
+            makeDockerImage("jackett", LastSynced)
+        ));
+
+        assertThat(diff.getAddedImages().size(), is(equalTo(1)));
+        assertThat(diff.getAddedImages().get(0).getName(), is(equalTo("jackett")));
+        assertThat(diff.getRemovedImages(), is(equalTo(Arrays.asList(deleted))));
+        assertThat(diff.getMatchedImages().size(), is(equalTo(2)));
+        assertThat(diff.getChangedImages(), is(equalTo(Arrays.asList(pushedTo.getKey()))));
+    }
+
+    private static Image makeImage(final Repository repository, final int id, final String name) {
+        return new Image(new ImageKey(id, name, repository.getKey()), ItemSyncSpec.Default, null, new ImageCountData(0, 0), null, LastSynced);
+    }
+
+    private static DockerImage makeDockerImage(final String name, final LocalDateTime buildDate) {
+        return new DockerImage(name, "linuxserver", null, 0, 0, buildDate);
+    }
+}